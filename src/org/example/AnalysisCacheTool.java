@@ -0,0 +1,47 @@
+package org.example;
+
+import org.example.reversi.ai.AnalysisCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Inspects or compacts an analysis cache file.
+ * <p>
+ * Arguments: command, then cache file. Commands:
+ * <ul>
+ *     <li>{@code info} prints board size, positions, records and corrupt records</li>
+ *     <li>{@code compact} keeps the latest record of each position only; no other process may have the file open</li>
+ * </ul>
+ */
+public class AnalysisCacheTool {
+    public static void main(String[] args) {
+        if ( args.length != 2 || !( args[0].equals("info") || args[0].equals("compact") ) ) {
+            System.err.println("Usage: AnalysisCacheTool info|compact FILE");
+            System.exit(2);
+        }
+        var path = Path.of(args[1]);
+
+        try {
+            if ( args[0].equals("compact") ) {
+                var before = Files.size(path);
+                var removed = AnalysisCache.compact(path);
+                System.out.printf("Removed %,d records, %,d bytes to %,d%n", removed, before, Files.size(path));
+            }
+
+            try (
+                var cache = AnalysisCache.open(path)
+            ) {
+                System.out.printf(
+                    "%s: %d x %d, %,d positions, %,d records, %,d corrupt, %,d bytes%n",
+                    path, cache.getWidth(), cache.getHeight(), cache.size(), cache.getRecords(), cache.getCorrupt(), Files.size(path)
+                );
+            }
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
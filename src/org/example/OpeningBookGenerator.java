@@ -0,0 +1,115 @@
+package org.example;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Game;
+import org.example.reversi.ai.AnalysisCache;
+import org.example.reversi.ai.CachedAI;
+import org.example.reversi.ai.OpeningBookBuilder;
+import org.example.reversi.ai.RandomAI;
+import org.example.reversi.ai.SearchAI;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Builds an opening book from {@code SearchAI} self-play games.
+ * <p>
+ * During the opening plies, each search result is recorded and a random move is played instead with some probability,
+ * so games spread over the opening tree. Games are then searched to the end and credited to the winner's moves.
+ * <p>
+ * With a cache, positions already searched deep enough by earlier runs are not searched again.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --size N} board side (default {@code 8})</li>
+ *     <li>{@code --games N} number of self-play games (default {@code 100})</li>
+ *     <li>{@code --plies N} opening plies recorded per game (default {@code 12})</li>
+ *     <li>{@code --budget MILLIS} search budget per move (default {@code 10})</li>
+ *     <li>{@code --explore RATE} probability of a random opening move (default {@code 0.25})</li>
+ *     <li>{@code --seed N} seed of random moves (default {@code 0})</li>
+ *     <li>{@code --out FILE} book file (default {@code reversi.book}, which the user interface consults)</li>
+ *     <li>{@code --cache FILE} analysis cache consulted before searching and appended to (default none)</li>
+ *     <li>{@code --cache-depth N} minimal depth of cached results used, in plies (default {@code 1})</li>
+ * </ul>
+ */
+public class OpeningBookGenerator {
+
+    /**
+     * @param path Analysis cache file, {@code null} if none
+     * @param size Board side
+     * @return Analysis cache, {@code null} if none
+     *
+     * @throws UncheckedIOException If cache cannot be opened
+     */
+    private static AnalysisCache openCache(String path, int size) throws UncheckedIOException {
+        try {
+            return ( path != null ) ? AnalysisCache.open(Path.of(path), size, size) : null;
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        var size = Integer.parseInt(Options.get(args, "--size", "8"));
+        var games = Integer.parseInt(Options.get(args, "--games", "100"));
+        var plies = Integer.parseInt(Options.get(args, "--plies", "12"));
+        var budget = Duration.ofMillis(Long.parseLong(Options.get(args, "--budget", "10")));
+        var explore = Double.parseDouble(Options.get(args, "--explore", "0.25"));
+        var random = new SplittableRandom(Long.parseLong(Options.get(args, "--seed", "0")));
+        var out = Path.of(Options.get(args, "--out", "reversi.book"));
+        var cacheDepth = Integer.parseInt(Options.get(args, "--cache-depth", "1"));
+
+        var builder = new OpeningBookBuilder(size, size, plies);
+        var search = new SearchAI(budget);
+        var cache = openCache(Options.get(args, "--cache", null), size);
+        var cached = ( cache != null ) ? new CachedAI(cache, search, cacheDepth) : null;
+        var start = System.nanoTime();
+
+        for ( int i = 0; i < games; i++ ) {
+            var game = new Game(size);
+            var moves = new ArrayList<Coordinates>();
+
+            do {
+                var move = ( cached != null ) ? cached.nextMove(game) : search.nextMove(game);
+                var report = ( cached != null ) ? cached.getLastReport() : search.getLastReport();
+                if ( moves.size() < plies ) {
+                    builder.addSearchResult(game, move, report.score());
+                    if ( random.nextDouble() < explore )
+                        move = RandomAI.nextMove(game, random);
+                }
+
+                moves.add(move);
+                game.nextMove(move);
+            } while ( !game.isOver() );
+
+            builder.addGame(moves);
+            System.out.printf(
+                "Game %d/%d: W %d B %d, %,d book moves%n",
+                i + 1, games, game.getWhite().getScore(), game.getBlack().getScore(), builder.size()
+            );
+        }
+
+        try {
+            builder.write(out);
+            if ( cache != null )
+                cache.close();
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.printf("Wrote %,d book moves to %s in %.1f s%n", builder.size(), out, ( System.nanoTime() - start ) / 1e9);
+        if ( cache != null ) {
+            var statistics = cache.getStatistics();
+            System.out.printf(
+                "Cache: %,d lookups, hit rate %.3f, %,d too shallow, %,d appended, %,d positions%n",
+                statistics.lookups(), statistics.hitRate(), statistics.shallow(), statistics.appends(), cache.size()
+            );
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example;
+
+/**
+ * Command line options of the tools, each given as its name followed by its value.
+ */
+public class Options {
+    // non-instantiable
+    private Options() {}
+
+    /**
+     * @param args Arguments
+     * @param name Option name
+     * @param fallback Value if absent
+     * @return Value of option
+     *
+     * @throws IllegalArgumentException If option has no value
+     */
+    static public String get(String[] args, String name, String fallback) throws IllegalArgumentException {
+        for ( int i = 0; i < args.length; i++ )
+            if ( args[i].equals(name) ) {
+                if ( i + 1 == args.length ) throw new IllegalArgumentException(String.format("Missing value: %s", name));
+                return args[i + 1];
+            }
+
+        return fallback;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example;
+
+import org.example.reversi.ai.PatternEvaluator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes positional pattern weights of a board size, a starting point for pattern evaluation.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --size W,H} board size (default {@code 8,8})</li>
+ *     <li>{@code --out FILE} weights file (default {@code reversi.patterns}, which the user interface loads)</li>
+ * </ul>
+ */
+public class PatternWeightsWriter {
+    public static void main(String[] args) {
+        var size = Arrays.stream(Options.get(args, "--size", "8,8").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        var out = Path.of(Options.get(args, "--out", "reversi.patterns"));
+
+        try {
+            PatternEvaluator.positional(size[0], size[1]).write(out);
+            var loaded = PatternEvaluator.load(out); // checks file reads back
+            System.out.printf("Wrote weights of %d patterns for %d x %d to %s%n", loaded.getLayout().size(), size[0], size[1], out);
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.example;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Board;
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+import org.example.reversi.Storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts leaf nodes of the game tree to a given depth from the initial position, to benchmark and check move generation.
+ * <p>
+ * Unlike {@code Game}, which ends the game as soon as the next player cannot move, perft follows tournament rules:
+ * a player without valid moves passes, which counts as a ply, and the game ends when neither player can move.
+ * An ended game counts as a leaf, whatever the remaining depth.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --depth N} maximum depth, every depth from 1 is counted (default {@code 9})</li>
+ *     <li>{@code --size W,H} board size (default {@code 8,8})</li>
+ *     <li>{@code --storage NAME} board storage (default fastest supporting storage)</li>
+ *     <li>{@code --threads N} splits root moves across threads (default {@code 1})</li>
+ *     <li>{@code --hash BITS} caches subtree counts of transpositions in tables of 2^BITS entries per thread (default none)</li>
+ *     <li>{@code --verify} checks 8 x 8 counts against known values</li>
+ * </ul>
+ */
+public class Perft {
+    // known counts of 8 x 8 by depth, index 0 being depth 0
+    private static final long[] KNOWN = {
+        1L, 4L, 12L, 56L, 244L, 1_396L, 8_200L, 55_092L, 390_216L, 3_005_288L, 24_571_284L,
+        212_258_800L, 1_939_886_636L, 18_429_641_748L
+    };
+
+    /**
+     * Transposition table of subtree counts, always replacing.
+     * <p>
+     * Entries are keyed by position hash, remaining depth and pass state.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final long[] counts;
+        private final int mask;
+
+        Table(int bits) {
+            this.keys = new long[1 << bits];
+            this.counts = new long[1 << bits];
+            this.mask = ( 1 << bits ) - 1;
+        }
+
+        /**
+         * @param key Entry key
+         * @return Cached count, {@code -1} if absent
+         */
+        long get(long key) {
+            var i = (int) key & mask;
+            return ( keys[i] == key && counts[i] != 0 ) ? counts[i] : -1;
+        }
+
+        // self-explanatory
+        void put(long key, long count) {
+            var i = (int) key & mask;
+            keys[i] = key;
+            counts[i] = count;
+        }
+    }
+
+    /**
+     * Counts leaves of a single board, owned by the calling thread.
+     */
+    private static final class Counter {
+        private final Board board;
+        private final Table table; // null if none
+
+        Counter(Board board, Table table) {
+            this.board = board;
+            this.table = table;
+        }
+
+        /**
+         * Counts leaves below current position.
+         *
+         * @param color Color to move
+         * @param depth Remaining depth, at least 1
+         * @param passed {@code true} if previous ply was a pass
+         * @return Number of leaves
+         */
+        long count(Color color, int depth, boolean passed) {
+            long key = 0;
+            if ( table != null ) {
+                key = board.getHash(color) ^ ( (long) depth << 1 | ( passed ? 1 : 0 ) ) * 0x9E3779B97F4A7C15L;
+                var cached = table.get(key);
+                if ( cached >= 0 ) return cached;
+            }
+
+            var moves = board.findAllValidMoves(color).toArray(Coordinates[]::new);
+            long leaves;
+
+            if ( moves.length == 0 ) {
+                if ( passed )
+                    leaves = 1; // game over
+                else
+                    leaves = ( depth == 1 ) ? 1 : count(color.getVersus(), depth - 1, true);
+            }
+            else if ( depth == 1 ) {
+                leaves = moves.length; // bulk count
+            }
+            else {
+                leaves = 0;
+                for ( var move : moves ) {
+                    board.nextMove(color, move);
+                    leaves += count(color.getVersus(), depth - 1, false);
+                    board.unmakeMove();
+                }
+            }
+
+            if ( table != null )
+                table.put(key, leaves);
+
+            return leaves;
+        }
+    }
+
+    /**
+     * Counts leaves at {@code depth}, splitting root moves across {@code threads}.
+     *
+     * @param initial Initial board
+     * @param color Color to move
+     * @param depth Depth, at least 1
+     * @param threads Number of threads
+     * @param hashBits Table size bits, {@code 0} for none
+     * @return Number of leaves
+     */
+    private static long perft(Board initial, Color color, int depth, int threads, int hashBits) {
+        if ( threads == 1 || depth == 1 )
+            return new Counter(initial.copy(), ( hashBits > 0 ) ? new Table(hashBits) : null).count(color, depth, false);
+
+        var moves = initial.findAllValidMoves(color).toList();
+        var pool = Executors.newFixedThreadPool(threads);
+        var tables = ThreadLocal.withInitial(() -> ( hashBits > 0 ) ? new Table(hashBits) : null);
+        try {
+            var pending = new ArrayList<Future<Long>>();
+            for ( var move : moves )
+                pending.add(pool.submit(() -> {
+                    var board = initial.copy();
+                    board.nextMove(color, move);
+                    return new Counter(board, tables.get()).count(color.getVersus(), depth - 1, false);
+                }));
+
+            var leaves = 0L;
+            for ( var subtree : pending )
+                leaves += subtree.get();
+            return leaves;
+        }
+        catch ( ExecutionException e ) {
+            throw new IllegalStateException(e.getCause());
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) {
+        var depth = Integer.parseInt(Options.get(args, "--depth", "9"));
+        var size = Arrays.stream(Options.get(args, "--size", "8,8").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        var storage = Storage.valueOf(Options.get(args, "--storage", Storage.select(size[0], size[1]).name()));
+        var threads = Integer.parseInt(Options.get(args, "--threads", "1"));
+        var hashBits = Integer.parseInt(Options.get(args, "--hash", "0"));
+        var verify = List.of(args).contains("--verify");
+
+        if ( verify && ( size[0] != 8 || size[1] != 8 ) ) throw new IllegalArgumentException("Known counts are for 8 x 8 only");
+
+        var initial = new Game(size[0], size[1], storage).copyBoard();
+        var color = new Game(size[0], size[1], storage).getCurrentPlayer().getColor();
+
+        System.out.printf("Perft on %d x %d %s, %d threads%n", size[0], size[1], storage, threads);
+
+        var failed = false;
+        for ( int d = 1; d <= depth; d++ ) {
+            var start = System.nanoTime();
+            var leaves = perft(initial, color, d, threads, hashBits);
+            var nanos = System.nanoTime() - start;
+
+            var check = "";
+            if ( verify && d < KNOWN.length ) {
+                var ok = ( leaves == KNOWN[d] );
+                failed |= !ok;
+                check = ok ? " OK" : String.format(" MISMATCH (expected %,d)", KNOWN[d]);
+            }
+
+            System.out.printf(
+                "depth %2d: %,18d leaves %,10.1f ms %,14.0f leaves/s%s%n",
+                d, leaves, nanos / 1e6, leaves * 1e9 / nanos, check
+            );
+        }
+
+        if ( failed )
+            System.exit(1);
+    }
+}
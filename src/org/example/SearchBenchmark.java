@@ -0,0 +1,90 @@
+package org.example;
+
+import org.example.reversi.Game;
+import org.example.reversi.ai.ParallelSearchAI;
+import org.example.reversi.ai.SearchAI;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures search speed on fixed positions, sequentially then in parallel from 1 to N threads.
+ * <p>
+ * Arguments: maximum thread count (default: available processors), budget per position in milliseconds (default: 2000).
+ */
+public class SearchBenchmark {
+    private static final long SEED = 42;
+    private static final int[] SIZES = { 8, 16 }; // board sides of positions
+    private static final int[] PLIES = { 12, 24 }; // random plies played from initial position
+
+    /**
+     * Builds fixed positions by playing seeded random moves.
+     *
+     * @return Positions in progress
+     */
+    private static List<Game> buildPositions() {
+        var random = new Random(SEED);
+        var positions = new ArrayList<Game>();
+
+        for ( var size : SIZES )
+            for ( var plies : PLIES ) {
+                var game = new Game(size);
+                for ( int i = 0; i < plies && !game.isOver(); i++ ) {
+                    var moves = game.findValidMoves().toList();
+                    game.nextMove(moves.get(random.nextInt(moves.size())));
+                }
+                if ( !game.isOver() )
+                    positions.add(game);
+            }
+
+        return positions;
+    }
+
+    public static void main(String[] args) {
+        var maxThreads = ( args.length > 0 ) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        var budget = Duration.ofMillis(( args.length > 1 ) ? Long.parseLong(args[1]) : 2000);
+        var positions = buildPositions();
+
+        System.out.printf("Searching %d positions for %d ms each%n", positions.size(), budget.toMillis());
+
+        var sequential = new SearchAI(budget);
+        for ( var position : positions ) // warm up
+            sequential.nextMove(position);
+
+        var baseline = 0L;
+        for ( var position : positions ) {
+            sequential.nextMove(position);
+            baseline += sequential.getLastReport().nodesPerSecond();
+        }
+        baseline /= positions.size();
+        System.out.printf("Sequential: %,d nodes/s%n", baseline);
+
+        var single = 0L;
+        for ( int threads = 1; threads <= maxThreads; threads *= 2 ) {
+            var total = 0L;
+            var depth = 0;
+            try (
+                var parallel = new ParallelSearchAI(budget, threads)
+            ) {
+                for ( var position : positions ) {
+                    parallel.nextMove(position);
+                    total += parallel.getLastReport().nodesPerSecond();
+                    depth += parallel.getLastReport().depth();
+                }
+            }
+            total /= positions.size();
+            if ( threads == 1 )
+                single = total;
+
+            System.out.printf(
+                "%3d threads: %,d nodes/s, speedup %.2f, average depth %.1f%n",
+                threads, total, (double) total / single, (double) depth / positions.size()
+            );
+
+            if ( threads < maxThreads && threads * 2 > maxThreads )
+                threads = maxThreads / 2; // last iteration runs with maxThreads
+        }
+    }
+}
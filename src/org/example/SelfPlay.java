@@ -0,0 +1,277 @@
+package org.example;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+import org.example.reversi.ai.Evaluation;
+import org.example.reversi.ai.MonteCarloAI;
+import org.example.reversi.ai.RandomAI;
+import org.example.reversi.ai.SearchAI;
+import org.example.reversi.ai.TranspositionTable;
+import org.example.selfplay.GameRecorder;
+import org.example.selfplay.Position;
+import org.example.selfplay.PositionWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Generates training data from engine versus engine games, played concurrently like {@code Tournament} plays them.
+ * <p>
+ * Every position played is streamed with the player to move, the final result and the search score of the move played
+ * to append-only position files, which rotate past a size and are flushed on every progress report.
+ * Workers hold a single game in memory at a time, and one transposition table per searching engine, reused from game to game.
+ * Game {@code i} is seeded from the base seed and {@code i}, and opens with random moves for variety; running again
+ * with the same options skips games already written, resuming an interrupted run.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --engines A/B} AI pair, each AI being {@code random}, {@code search:MILLIS} or {@code mcts:MILLIS} (default {@code search:10/search:10})</li>
+ *     <li>{@code --size N} board side (default {@code 8})</li>
+ *     <li>{@code --games N} games to reach (default {@code 10000})</li>
+ *     <li>{@code --random-plies N} random opening moves (default {@code 8})</li>
+ *     <li>{@code --threads N} worker threads (default available processors)</li>
+ *     <li>{@code --seed N} base seed (default {@code 0})</li>
+ *     <li>{@code --dir DIR} output directory (default {@code selfplay})</li>
+ *     <li>{@code --prefix NAME} file name prefix (default {@code positions})</li>
+ *     <li>{@code --rotate MB} file size past which a new file is started (default {@code 256})</li>
+ * </ul>
+ */
+public class SelfPlay {
+    private static final long PROGRESS_SECONDS = 10;
+
+    /**
+     * AI built for a single game, reporting search scores when it searches.
+     */
+    private interface Engine extends AutoCloseable {
+        /**
+         * @param game Game in progress
+         * @return Move chosen
+         */
+        Coordinates nextMove(Game game);
+
+        /**
+         * @return Search score of last move for the player who moved, {@code Position.NO_SCORE} if none
+         */
+        default int lastScore() {
+            return Position.NO_SCORE;
+        }
+
+        @Override
+        default void close() {}
+
+        /**
+         * @param spec {@code random}, {@code search:MILLIS} or {@code mcts:MILLIS}
+         * @param seed Seed of random choices
+         * @param table Transposition table of a search, only called if {@code spec} searches
+         * @return AI, to close after the game
+         *
+         * @throws IllegalArgumentException If {@code spec} is malformed
+         */
+        static Engine build(String spec, long seed, Supplier<TranspositionTable> table) throws IllegalArgumentException {
+            var parts = spec.split(":");
+
+            return switch (parts[0]) {
+                case "random" -> {
+                    var random = new SplittableRandom(seed);
+                    yield game -> RandomAI.nextMove(game, random);
+                }
+                case "search" -> {
+                    var ai = new SearchAI(budget(parts), Long.MAX_VALUE, SearchAI.ENDGAME_FREE, Evaluation.HEURISTIC, table.get());
+                    yield new Engine() {
+                        @Override
+                        public Coordinates nextMove(Game game) {
+                            return ai.nextMove(game);
+                        }
+
+                        @Override
+                        public int lastScore() {
+                            return ai.getLastReport().score();
+                        }
+                    };
+                }
+                case "mcts" -> {
+                    var ai = new MonteCarloAI(budget(parts), Long.MAX_VALUE, 1, seed);
+                    yield new Engine() {
+                        @Override
+                        public Coordinates nextMove(Game game) {
+                            return ai.nextMove(game);
+                        }
+
+                        @Override
+                        public void close() {
+                            ai.close();
+                        }
+                    };
+                }
+                default -> throw new IllegalArgumentException(String.format("Unknown AI: %s", spec));
+            };
+        }
+
+        // self-explanatory
+        static private Duration budget(String[] parts) throws IllegalArgumentException {
+            if ( parts.length != 2 ) throw new IllegalArgumentException(String.format("Missing budget: %s", parts[0]));
+            return Duration.ofMillis(Long.parseLong(parts[1]));
+        }
+    }
+
+    /**
+     * Self-play settings.
+     *
+     * @param a First AI, white on even games
+     * @param b Second AI, white on odd games
+     * @param size Board side
+     * @param randomPlies Random opening moves
+     * @param seed Base seed
+     */
+    private record Settings(String a, String b, int size, int randomPlies, long seed) {}
+
+    /**
+     * Plays a game to completion, recording its positions.
+     *
+     * @param settings Settings
+     * @param index Game index
+     * @param recorder Recorder of worker
+     * @param tables Transposition tables of worker by engine, {@code null} until its first search
+     */
+    private static void playGame(Settings settings, int index, GameRecorder recorder, TranspositionTable[] tables) {
+        var random = new SplittableRandom(( settings.seed() << Integer.SIZE ) + index);
+        var aColor = ( index % 2 == 0 ) ? Color.WHITE : Color.BLACK;
+
+        try (
+            var a = Engine.build(settings.a(), random.nextLong(), () -> table(tables, 0));
+            var b = Engine.build(settings.b(), random.nextLong(), () -> table(tables, 1))
+        ) {
+            var game = new Game(settings.size());
+            recorder.start(index);
+            do {
+                Coordinates move;
+                int score;
+                if ( game.getTurn() <= settings.randomPlies() ) {
+                    move = RandomAI.nextMove(game, random);
+                    score = Position.NO_SCORE;
+                }
+                else {
+                    var engine = ( game.getCurrentPlayer().getColor() == aColor ) ? a : b;
+                    move = engine.nextMove(game);
+                    score = engine.lastScore();
+                }
+                recorder.record(game, score);
+                game.nextMove(move);
+            } while ( !game.isOver() );
+            recorder.finish(game);
+        }
+    }
+
+    /**
+     * @param tables Transposition tables of worker by engine, {@code null} until its first search
+     * @param engine {@code 0} for a, {@code 1} for b
+     * @return Table of {@code engine}, allocated on first call
+     */
+    private static TranspositionTable table(TranspositionTable[] tables, int engine) {
+        if ( tables[engine] == null )
+            tables[engine] = new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES);
+        return tables[engine];
+    }
+
+    /**
+     * Plays games not yet written until {@code games} are, each worker taking the next index.
+     *
+     * @param settings Settings
+     * @param writer Writer
+     * @param next Next game index
+     * @param games Games to reach
+     */
+    private static void work(Settings settings, PositionWriter writer, AtomicInteger next, int games) {
+        var recorder = new GameRecorder(settings.size(), settings.size());
+        var tables = new TranspositionTable[2]; // searches age entries of earlier games
+
+        for ( var index = next.getAndIncrement(); index < games; index = next.getAndIncrement() )
+            if ( !writer.isCompleted(index) ) {
+                playGame(settings, index, recorder, tables);
+                try {
+                    writer.append(recorder);
+                }
+                catch ( IOException e ) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+    }
+
+    public static void main(String[] args) {
+        var engines = Options.get(args, "--engines", "search:10/search:10").split("/");
+        if ( engines.length != 2 ) throw new IllegalArgumentException("Malformed engines, expected A/B");
+        var size = Integer.parseInt(Options.get(args, "--size", "8"));
+        var games = Integer.parseInt(Options.get(args, "--games", "10000"));
+        var threads = Integer.parseInt(Options.get(args, "--threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+        var settings = new Settings(
+            engines[0], engines[1], size,
+            Integer.parseInt(Options.get(args, "--random-plies", "8")),
+            Long.parseLong(Options.get(args, "--seed", "0"))
+        );
+        var directory = Path.of(Options.get(args, "--dir", "selfplay"));
+        var prefix = Options.get(args, "--prefix", "positions");
+        var rotateBytes = Long.parseLong(Options.get(args, "--rotate", "256")) << 20;
+
+        Engine.build(engines[0], 0, () -> new TranspositionTable(1)).close(); // checks specifications
+        Engine.build(engines[1], 0, () -> new TranspositionTable(1)).close();
+
+        try (
+            var writer = new PositionWriter(directory, prefix, size, size, rotateBytes)
+        ) {
+            var resumed = writer.getGames();
+            var resumedPositions = writer.getPositions();
+            System.out.printf("%s vs %s on %d x %d, %d of %d games already written, %d threads%n", engines[0], engines[1], size, size, resumed, games, threads);
+
+            var pool = Executors.newFixedThreadPool(threads);
+            var start = System.nanoTime();
+            try {
+                var next = new AtomicInteger();
+                var workers = new ArrayList<Future<?>>(threads);
+                for ( int i = 0; i < threads; i++ )
+                    workers.add(pool.submit(() -> work(settings, writer, next, games)));
+                pool.shutdown();
+
+                while ( !pool.awaitTermination(PROGRESS_SECONDS, TimeUnit.SECONDS) ) {
+                    writer.flush();
+                    var hours = ( System.nanoTime() - start ) / 3.6e12;
+                    System.out.printf(
+                        "%d games, %d positions, %.0f positions/hour, file %d%n",
+                        writer.getGames(), writer.getPositions(), ( writer.getPositions() - resumedPositions ) / hours, writer.getFileNumber()
+                    );
+                }
+                for ( var worker : workers )
+                    worker.get();
+            }
+            catch ( ExecutionException e ) {
+                throw new IllegalStateException(e.getCause());
+            }
+            catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            finally {
+                pool.shutdownNow();
+            }
+
+            var hours = ( System.nanoTime() - start ) / 3.6e12;
+            System.out.printf(
+                "Done: %d games, %d positions in %s (%.0f positions/hour)%n",
+                writer.getGames(), writer.getPositions(), directory, ( writer.getPositions() - resumedPositions ) / hours
+            );
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package org.example;
+
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+import org.example.reversi.ai.Evaluation;
+import org.example.reversi.ai.MonteCarloAI;
+import org.example.reversi.ai.RandomAI;
+import org.example.reversi.ai.SearchAI;
+import org.example.reversi.ai.Strategy;
+import org.example.reversi.ai.TranspositionTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs a tournament between AI pairs on several board sizes, playing games concurrently like {@code AIMatch} plays one.
+ * <p>
+ * Each game runs on a single worker with its own seeded random generators, so a tournament is reproducible
+ * as far as time budgets allow. Colors alternate between games of a pairing.
+ * Searching AI reuse the transposition tables of their worker, one per side of a pairing, from game to game.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --pairs A/B[,A/B...]} AI pairs, each AI being {@code random}, {@code search:MILLIS} or {@code mcts:MILLIS} (default {@code random/random})</li>
+ *     <li>{@code --sizes N[,N...]} board sides (default {@code 8})</li>
+ *     <li>{@code --games N} games per pair and size (default {@code 1000})</li>
+ *     <li>{@code --threads N} worker threads (default available processors)</li>
+ *     <li>{@code --seed N} base seed (default {@code 0})</li>
+ *     <li>{@code --out FILE} results file, JSON if name ends with {@code .json}, CSV otherwise (default none)</li>
+ * </ul>
+ */
+public class Tournament {
+    private static final String[] COLUMNS = {
+        "a", "b", "size", "games", "a_wins", "draws", "b_wins", "average_margin", "games_per_second",
+        "a_p50_us", "a_p90_us", "a_p99_us", "a_max_us", "b_p50_us", "b_p90_us", "b_p99_us", "b_max_us"
+    };
+
+    // transposition tables of each worker for a and b, null until first search
+    private static final ThreadLocal<TranspositionTable[]> TABLES = ThreadLocal.withInitial(() -> new TranspositionTable[2]);
+
+    /**
+     * AI of a tournament, built anew for every game from its specification.
+     *
+     * @param spec {@code random}, {@code search:MILLIS} or {@code mcts:MILLIS}
+     */
+    private record Contender(String spec) {
+        /**
+         * @param spec AI specification
+         * @throws IllegalArgumentException If {@code spec} is malformed
+         */
+        private Contender {
+            var parts = spec.split(":");
+            switch (parts[0]) {
+                case "random" -> {}
+                case "search", "mcts" -> budget(parts);
+                default -> throw new IllegalArgumentException(String.format("Unknown AI: %s", spec));
+            }
+        }
+
+        /**
+         * Builds AI for a single game.
+         *
+         * @param seed Seed of random choices
+         * @param table Transposition table of a search, only called if this AI searches
+         * @return AI, to close after the game
+         */
+        Instance build(long seed, Supplier<TranspositionTable> table) {
+            return build(spec, seed, table);
+        }
+
+        /**
+         * @param spec Valid AI specification
+         * @param seed Seed of random choices
+         * @param table Transposition table of a search, only called if {@code spec} searches
+         * @return AI, to close after the game
+         */
+        static private Instance build(String spec, long seed, Supplier<TranspositionTable> table) {
+            var parts = spec.split(":");
+
+            return switch (parts[0]) {
+                case "random" -> {
+                    var random = new SplittableRandom(seed);
+                    yield new Instance(game -> RandomAI.nextMove(game, random), null);
+                }
+                case "search" -> new Instance(new SearchAI(budget(parts), Long.MAX_VALUE, SearchAI.ENDGAME_FREE, Evaluation.HEURISTIC, table.get()), null);
+                case "mcts" -> {
+                    var ai = new MonteCarloAI(budget(parts), Long.MAX_VALUE, 1, seed);
+                    yield new Instance(ai, ai);
+                }
+                default -> throw new IllegalStateException();
+            };
+        }
+
+        // self-explanatory
+        static private Duration budget(String[] parts) throws IllegalArgumentException {
+            if ( parts.length != 2 ) throw new IllegalArgumentException(String.format("Missing budget: %s", parts[0]));
+            return Duration.ofMillis(Long.parseLong(parts[1]));
+        }
+    }
+
+    /**
+     * AI built for a single game.
+     *
+     * @param strategy Move selection
+     * @param resource Resource to close after the game, {@code null} if none
+     */
+    private record Instance(Strategy strategy, AutoCloseable resource) implements AutoCloseable {
+        @Override
+        public void close() {
+            try {
+                if ( resource != null )
+                    resource.close();
+            }
+            catch ( Exception e ) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Games of two AI on one board size.
+     *
+     * @param a First AI, white on even games
+     * @param b Second AI, white on odd games
+     * @param size Board side
+     */
+    private record Pairing(Contender a, Contender b, int size) {}
+
+    /**
+     * Log-linear histogram of latencies in nanoseconds, within about 6% precision.
+     * <p>
+     * Values below 16 have a bucket each, larger ones have 16 buckets per power of 2.
+     */
+    static private final class LatencyHistogram {
+        static private final int SUB_BITS = 4;
+        static private final int SUB_BUCKETS = 1 << SUB_BITS;
+
+        /**
+         * @param value Non negative value
+         * @return Bucket of {@code value}
+         */
+        static private int bucket(long value) {
+            if ( value < SUB_BUCKETS ) return (int) value;
+
+            var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+            var sub = (int) ( value >>> ( exponent - SUB_BITS ) ) & ( SUB_BUCKETS - 1 );
+            return ( exponent - SUB_BITS + 1 ) * SUB_BUCKETS + sub;
+        }
+
+        /**
+         * @param bucket Bucket
+         * @return Lowest value of {@code bucket}
+         */
+        static private long lowest(int bucket) {
+            if ( bucket < SUB_BUCKETS ) return bucket;
+
+            var exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            var sub = bucket % SUB_BUCKETS;
+            return (long) ( SUB_BUCKETS + sub ) << ( exponent - SUB_BITS );
+        }
+
+        private final long[] counts = new long[Long.SIZE * SUB_BUCKETS];
+        private long count;
+        private long max;
+
+        // self-explanatory
+        void record(long value) {
+            counts[bucket(Math.max(value, 0))]++;
+            count++;
+            max = Math.max(max, value);
+        }
+
+        // self-explanatory
+        void add(LatencyHistogram other) {
+            for ( int i = 0; i < counts.length; i++ )
+                counts[i] += other.counts[i];
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        /**
+         * @param quantile Quantile within [0 1]
+         * @return Lowest value of bucket holding {@code quantile}, {@code 0} if empty
+         */
+        long quantile(double quantile) {
+            var rank = (long) Math.ceil(quantile * count);
+            var seen = 0L;
+            for ( int i = 0; i < counts.length; i++ ) {
+                seen += counts[i];
+                if ( seen >= rank && seen > 0 )
+                    return Math.min(lowest(i), max);
+            }
+
+            return 0;
+        }
+
+        // self-explanatory
+        long max() {
+            return max;
+        }
+    }
+
+    /**
+     * Aggregated results of a pairing, fed concurrently by workers.
+     */
+    static private final class Standing {
+        private final Pairing pairing;
+        private final LatencyHistogram a = new LatencyHistogram();
+        private final LatencyHistogram b = new LatencyHistogram();
+
+        private int aWins;
+        private int draws;
+        private int bWins;
+        private long margins; // sum of a's score minus b's
+        private long nanos; // wall clock time of pairing
+
+        Standing(Pairing pairing) {
+            this.pairing = pairing;
+        }
+
+        /**
+         * Adds results of a game.
+         *
+         * @param margin Score of a minus score of b
+         * @param aLatencies Move latencies of a
+         * @param bLatencies Move latencies of b
+         */
+        synchronized void add(int margin, LatencyHistogram aLatencies, LatencyHistogram bLatencies) {
+            if ( margin > 0 )
+                aWins++;
+            else if ( margin < 0 )
+                bWins++;
+            else
+                draws++;
+            margins += margin;
+            a.add(aLatencies);
+            b.add(bLatencies);
+        }
+
+        // self-explanatory
+        int games() {
+            return aWins + draws + bWins;
+        }
+
+        /**
+         * @return Values of {@code COLUMNS}, numbers unquoted
+         */
+        List<String> values() {
+            var games = games();
+            return List.of(
+                pairing.a().spec(), pairing.b().spec(), Integer.toString(pairing.size()), Integer.toString(games),
+                Integer.toString(aWins), Integer.toString(draws), Integer.toString(bWins),
+                String.format(Locale.ROOT, "%.3f", (double) margins / games),
+                String.format(Locale.ROOT, "%.3f", games * 1e9 / nanos),
+                micros(a.quantile(0.5)), micros(a.quantile(0.9)), micros(a.quantile(0.99)), micros(a.max()),
+                micros(b.quantile(0.5)), micros(b.quantile(0.9)), micros(b.quantile(0.99)), micros(b.max())
+            );
+        }
+
+        // self-explanatory
+        static private String micros(long nanos) {
+            return String.format(Locale.ROOT, "%.1f", nanos / 1e3);
+        }
+    }
+
+    /**
+     * Plays a game of a pairing to completion.
+     *
+     * @param standing Standing of pairing to add results to
+     * @param index Game index, even games giving white to a
+     * @param seed Seed of game
+     */
+    private static void playGame(Standing standing, int index, long seed) {
+        var pairing = standing.pairing;
+        var random = new SplittableRandom(seed);
+        var aColor = ( index % 2 == 0 ) ? Color.WHITE : Color.BLACK;
+        var aLatencies = new LatencyHistogram();
+        var bLatencies = new LatencyHistogram();
+        var tables = TABLES.get(); // searches age entries of earlier games
+
+        try (
+            var a = pairing.a().build(random.nextLong(), () -> table(tables, 0));
+            var b = pairing.b().build(random.nextLong(), () -> table(tables, 1))
+        ) {
+            var game = new Game(pairing.size());
+            do {
+                var aTurn = ( game.getCurrentPlayer().getColor() == aColor );
+                var start = System.nanoTime();
+                var move = ( aTurn ? a : b ).strategy().nextMove(game);
+                ( aTurn ? aLatencies : bLatencies ).record(System.nanoTime() - start);
+                game.nextMove(move);
+            } while ( !game.isOver() );
+
+            var aPlayer = ( aColor == Color.WHITE ) ? game.getWhite() : game.getBlack();
+            standing.add(aPlayer.getScore() - aPlayer.getVersus().getScore(), aLatencies, bLatencies);
+        }
+    }
+
+    /**
+     * @param tables Transposition tables of worker for a and b, {@code null} until first search
+     * @param side {@code 0} for a, {@code 1} for b
+     * @return Table of {@code side}, allocated on first call
+     */
+    private static TranspositionTable table(TranspositionTable[] tables, int side) {
+        if ( tables[side] == null )
+            tables[side] = new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES);
+        return tables[side];
+    }
+
+    /**
+     * Plays all games of a pairing across workers.
+     *
+     * @param pairing Pairing
+     * @param games Number of games
+     * @param seeds Seeds of games, split in order
+     * @param threads Number of workers
+     * @return Standing
+     */
+    private static Standing playPairing(Pairing pairing, int games, SplittableRandom seeds, int threads) {
+        var standing = new Standing(pairing);
+        var start = System.nanoTime();
+
+        try (
+            var pool = new AutoCloseablePool(threads)
+        ) {
+            var pending = new ArrayList<Future<?>>(games);
+            for ( int i = 0; i < games; i++ ) {
+                var index = i;
+                var seed = seeds.nextLong();
+                pending.add(pool.executor.submit(() -> playGame(standing, index, seed)));
+            }
+            for ( var game : pending )
+                game.get();
+        }
+        catch ( ExecutionException e ) {
+            throw new IllegalStateException(e.getCause());
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+
+        standing.nanos = System.nanoTime() - start;
+        return standing;
+    }
+
+    /**
+     * Fixed thread pool shut down on close.
+     */
+    private record AutoCloseablePool(ExecutorService executor) implements AutoCloseable {
+        AutoCloseablePool(int threads) {
+            this(Executors.newFixedThreadPool(threads));
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes standings as JSON if {@code path} ends with {@code .json}, CSV otherwise.
+     *
+     * @param path Output file
+     * @param standings Standings
+     *
+     * @throws UncheckedIOException If writing fails
+     */
+    private static void write(Path path, List<Standing> standings) throws UncheckedIOException {
+        String content;
+        if ( path.toString().endsWith(".json") )
+            content = standings.stream()
+                .map(s -> {
+                    var values = s.values();
+                    var fields = new ArrayList<String>();
+                    for ( int i = 0; i < COLUMNS.length; i++ )
+                        fields.add(String.format(( i < 2 ) ? "\"%s\": \"%s\"" : "\"%s\": %s", COLUMNS[i], values.get(i)));
+                    return fields.stream().collect(Collectors.joining(", ", "  {", "}"));
+                })
+                .collect(Collectors.joining("," + System.lineSeparator(), "[" + System.lineSeparator(), System.lineSeparator() + "]" + System.lineSeparator()));
+        else
+            content = Stream.concat(
+                    Stream.of(String.join(",", COLUMNS)),
+                    standings.stream().map(s -> String.join(",", s.values()))
+                )
+                .collect(Collectors.joining(System.lineSeparator(), "", System.lineSeparator()));
+
+        try {
+            Files.writeString(path, content);
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        var games = Integer.parseInt(Options.get(args, "--games", "1000"));
+        var threads = Integer.parseInt(Options.get(args, "--threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+        var seeds = new SplittableRandom(Long.parseLong(Options.get(args, "--seed", "0")));
+        var out = Options.get(args, "--out", null);
+
+        var pairings = new ArrayList<Pairing>();
+        for ( var size : Options.get(args, "--sizes", "8").split(",") )
+            for ( var pair : Options.get(args, "--pairs", "random/random").split(",") ) {
+                var ai = pair.split("/");
+                if ( ai.length != 2 ) throw new IllegalArgumentException(String.format("Malformed pair: %s", pair));
+                pairings.add(new Pairing(new Contender(ai[0]), new Contender(ai[1]), Integer.parseInt(size)));
+            }
+
+        System.out.printf("Running %d games per pairing on %d threads%n", games, threads);
+
+        var standings = new ArrayList<Standing>();
+        for ( var pairing : pairings ) {
+            var standing = playPairing(pairing, games, seeds, threads);
+            standings.add(standing);
+
+            var values = standing.values();
+            System.out.printf(
+                """
+
+                %s vs %s on %s x %s
+                Games: %s (%s games/s)
+                Wins %s, draws %s, losses %s; average margin %s
+                Move latency %s (us): p50 %s p90 %s p99 %s max %s
+                Move latency %s (us): p50 %s p90 %s p99 %s max %s
+                """,
+                values.get(0), values.get(1), values.get(2), values.get(2),
+                values.get(3), values.get(8),
+                values.get(4), values.get(5), values.get(6), values.get(7),
+                values.get(0), values.get(9), values.get(10), values.get(11), values.get(12),
+                values.get(1), values.get(13), values.get(14), values.get(15), values.get(16)
+            );
+        }
+
+        if ( out != null )
+            write(Path.of(out), standings);
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.benchmark;
+
+import org.example.Options;
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Game;
+import org.example.reversi.ai.Evaluation;
+import org.example.reversi.ai.PatternEvaluator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Microbenchmarks of position evaluation, in evaluations per second, over board sizes and game phases.
+ * <p>
+ * Compares the heuristic evaluation, whose cost grows with the board, to pattern evaluation over incrementally
+ * tracked indexes, and measures the cost of tracking on moves.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --sizes N[,N...]} board sides (default {@code 8,32,128})</li>
+ *     <li>{@code --filter TEXT} only runs operations whose name contains {@code TEXT}</li>
+ *     <li>{@code --iterations W,M,MILLIS} warmup iterations, measurement iterations and iteration duration (default {@code 3,5,200})</li>
+ * </ul>
+ */
+public class EvaluationBenchmark {
+    private static final long SEED = 42;
+    private static final double[] PHASES = { 0.1, 0.5, 0.9 }; // shares of board filled
+
+    /**
+     * Named operation to measure.
+     *
+     * @param name Operation name
+     * @param body Operation, must be repeatable
+     */
+    private record Operation(String name, IntSupplier body) {}
+
+    /**
+     * Builds a game in progress on a board of {@code side} filled up to {@code filled}.
+     *
+     * @param side Board side
+     * @param filled Share of board filled
+     * @return Game in progress
+     */
+    private static Game buildPosition(int side, double filled) {
+        var random = new Random(SEED);
+        var game = new Game(side);
+        var plies = (int) ( side * side * filled ) - 4;
+
+        for ( int i = 0; i < plies && !game.isOver(); i++ ) {
+            var moves = game.findValidMoves().toList();
+            game.nextMove(moves.get(random.nextInt(moves.size())));
+        }
+        if ( game.isOver() )
+            game.undo(); // back in progress
+
+        return game;
+    }
+
+    /**
+     * Cycles through {@code values}.
+     *
+     * @param values Values
+     * @return Operation index into values, advancing on each call
+     */
+    private static IntSupplier cycle(int values) {
+        var next = new int[1];
+        return () -> {
+            var i = next[0];
+            next[0] = ( i + 1 == values ) ? 0 : i + 1;
+            return i;
+        };
+    }
+
+    public static void main(String[] args) {
+        var sizes = Arrays.stream(Options.get(args, "--sizes", "8,32,128").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        var filter = Options.get(args, "--filter", "");
+        var iterations = Arrays.stream(Options.get(args, "--iterations", "3,5,200").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        var harness = new Microbenchmark(iterations[0], iterations[1], iterations[2]);
+
+        for ( var side : sizes ) {
+            var patterns = PatternEvaluator.positional(side, side);
+
+            for ( var phase : PHASES ) {
+                var game = buildPosition(side, phase);
+                var tracked = new Game(game);
+                tracked.trackPatterns();
+                var moves = game.findValidMoves().toArray(Coordinates[]::new);
+                var parameters = String.format("%d %.0f%% turn %d", side, phase * 100, game.getTurn());
+
+                var nextMove = cycle(moves.length);
+                var nextTrackedMove = cycle(moves.length);
+
+                var operations = List.of(
+                    new Operation(
+                        "Evaluation.HEURISTIC",
+                        () -> Evaluation.HEURISTIC.evaluate(game)
+                    ),
+                    new Operation(
+                        "PatternEvaluator",
+                        () -> patterns.evaluate(tracked)
+                    ),
+                    new Operation(
+                        "Game.nextMove+undo",
+                        () -> {
+                            game.nextMove(moves[nextMove.getAsInt()]);
+                            game.undo();
+                            return game.getTurn();
+                        }
+                    ),
+                    new Operation(
+                        "Game.nextMove+undo tracked",
+                        () -> {
+                            tracked.nextMove(moves[nextTrackedMove.getAsInt()]);
+                            tracked.undo();
+                            return tracked.getTurn();
+                        }
+                    )
+                );
+
+                for ( var operation : operations )
+                    if ( operation.name().contains(filter) )
+                        System.out.println(harness.run(operation.name(), parameters, operation.body()));
+            }
+        }
+
+        System.out.printf("(sink %d)%n", Microbenchmark.sink());
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Minimal microbenchmark harness measuring throughput and allocation of an operation on the calling thread.
+ * <p>
+ * An operation runs in timed iterations: warmup iterations let the JIT compile it, then measurement iterations are averaged.
+ * Operations return an int which is folded into a sink, so the JIT cannot eliminate them as dead code.
+ * Allocation per operation is read from the HotSpot thread allocation counter, and collections from garbage collector beans.
+ */
+public final class Microbenchmark {
+    /**
+     * Measurement of an operation.
+     *
+     * @param name Operation name
+     * @param parameters Description of parameters
+     * @param operations Number of measured operations
+     * @param nanosPerOperation Average time per operation, in nanoseconds
+     * @param bytesPerOperation Average allocation per operation, in bytes, {@code NaN} if unsupported
+     * @param collections Number of garbage collections during measurement
+     */
+    public record Result(
+        String name,
+        String parameters,
+        long operations,
+        double nanosPerOperation,
+        double bytesPerOperation,
+        long collections
+    ) {
+        /**
+         * @return Operations per second
+         */
+        public double operationsPerSecond() {
+            return 1e9 / nanosPerOperation;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%-28s %-22s %,16.1f ops/s %,14.1f ns/op %,12.1f B/op %4d gc",
+                name, parameters, operationsPerSecond(), nanosPerOperation, bytesPerOperation, collections
+            );
+        }
+    }
+
+    static private final com.sun.management.ThreadMXBean THREADS = threads();
+    static private final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    static private int sink; // folds operation results
+
+    /**
+     * @return HotSpot thread bean with allocation counting enabled, {@code null} if unavailable
+     */
+    static private com.sun.management.ThreadMXBean threads() {
+        com.sun.management.ThreadMXBean threads = null;
+
+        if ( ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+            && bean.isThreadAllocatedMemorySupported()
+        ) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            threads = bean;
+        }
+
+        return threads;
+    }
+
+    // self-explanatory
+    static private long allocatedBytes() {
+        return ( THREADS != null ) ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    // self-explanatory
+    static private long collections() {
+        return COLLECTORS.stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+            .filter(c -> c >= 0)
+            .sum();
+    }
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+
+    /**
+     * Constructs a harness.
+     *
+     * @param warmupIterations Number of unmeasured iterations
+     * @param measurementIterations Number of measured iterations
+     * @param iterationMillis Duration of an iteration, in milliseconds
+     *
+     * @throws IllegalArgumentException If any count is negative or duration is not positive
+     */
+    public Microbenchmark(int warmupIterations, int measurementIterations, long iterationMillis) throws IllegalArgumentException {
+        if ( warmupIterations < 0 || measurementIterations <= 0 || iterationMillis <= 0 ) throw new IllegalArgumentException();
+
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000;
+    }
+
+    /**
+     * Measures {@code operation}.
+     *
+     * @param name Operation name
+     * @param parameters Description of parameters
+     * @param operation Operation to measure, must be repeatable
+     * @return Measurement
+     */
+    public Result run(String name, String parameters, IntSupplier operation) {
+        for ( int i = 0; i < warmupIterations; i++ )
+            iterate(operation);
+
+        var operations = 0L;
+        var nanos = 0L;
+        var bytes = allocatedBytes();
+        var collections = collections();
+        for ( int i = 0; i < measurementIterations; i++ ) {
+            var start = System.nanoTime();
+            operations += iterate(operation);
+            nanos += System.nanoTime() - start;
+        }
+        bytes = allocatedBytes() - bytes;
+        collections = collections() - collections;
+
+        return new Result(
+            name,
+            parameters,
+            operations,
+            (double) nanos / operations,
+            ( THREADS != null ) ? (double) bytes / operations : Double.NaN,
+            collections
+        );
+    }
+
+    /**
+     * Runs {@code operation} in doubling batches until an iteration's duration elapses.
+     *
+     * @param operation Operation
+     * @return Number of operations run
+     */
+    private long iterate(IntSupplier operation) {
+        var deadline = System.nanoTime() + iterationNanos;
+        var operations = 0L;
+        var batch = 1;
+        var folded = 0;
+
+        do {
+            for ( int i = 0; i < batch; i++ )
+                folded += operation.getAsInt();
+            operations += batch;
+            batch = Math.min(batch * 2, 1 << 16);
+        } while ( System.nanoTime() - deadline < 0 );
+
+        sink += folded;
+        return operations;
+    }
+
+    /**
+     * @return Folded results of all operations, only meant to keep them alive
+     */
+    public static int sink() {
+        return sink;
+    }
+}
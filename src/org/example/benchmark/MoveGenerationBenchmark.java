@@ -0,0 +1,182 @@
+package org.example.benchmark;
+
+import org.example.Options;
+import org.example.board.ordinal.Coordinates;
+import org.example.board.ordinal.OrdinalBoard;
+import org.example.reversi.Game;
+import org.example.reversi.Tile;
+import org.example.ui.reversi.GameGridBuilder;
+import org.example.ui.reversi.TileMaps;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Microbenchmarks of move generation hot paths over board sizes and game phases.
+ * <p>
+ * Positions are reached by playing seeded random moves until a share of the board is filled.
+ * Operations mutating state are paired with their undo, so they are measured together.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --sizes N[,N...]} board sides (default {@code 8,32,128,512})</li>
+ *     <li>{@code --filter TEXT} only runs operations whose name contains {@code TEXT}</li>
+ *     <li>{@code --iterations W,M,MILLIS} warmup iterations, measurement iterations and iteration duration (default {@code 3,5,200})</li>
+ * </ul>
+ */
+public class MoveGenerationBenchmark {
+    private static final long SEED = 42;
+
+    /**
+     * Named operation to measure.
+     *
+     * @param name Operation name
+     * @param body Operation, must be repeatable
+     */
+    private record Operation(String name, IntSupplier body) {}
+
+    /**
+     * Game phase, by share of board filled.
+     */
+    private enum Phase {
+        EARLY(0.1),
+        MID(0.5),
+        LATE(0.9);
+
+        private final double filled;
+
+        Phase(double filled) {
+            this.filled = filled;
+        }
+    }
+
+    /**
+     * Builds a game in progress on a board of {@code side} filled up to {@code phase}.
+     *
+     * @param side Board side
+     * @param phase Game phase
+     * @return Game in progress
+     */
+    private static Game buildPosition(int side, Phase phase) {
+        var random = new Random(SEED);
+        var game = new Game(side);
+        var plies = (int) ( side * side * phase.filled ) - 4;
+
+        for ( int i = 0; i < plies && !game.isOver(); i++ ) {
+            var moves = game.findValidMoves().toList();
+            game.nextMove(moves.get(random.nextInt(moves.size())));
+        }
+        if ( game.isOver() )
+            game.undo(); // back in progress
+
+        return game;
+    }
+
+    /**
+     * Cycles through {@code values}.
+     *
+     * @param values Values
+     * @return Operation index into values, advancing on each call
+     */
+    private static IntSupplier cycle(int values) {
+        var next = new int[1];
+        return () -> {
+            var i = next[0];
+            next[0] = ( i + 1 == values ) ? 0 : i + 1;
+            return i;
+        };
+    }
+
+    public static void main(String[] args) {
+        var sizes = Arrays.stream(Options.get(args, "--sizes", "8,32,128,512").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        var filter = Options.get(args, "--filter", "");
+        var iterations = Arrays.stream(Options.get(args, "--iterations", "3,5,200").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        var harness = new Microbenchmark(iterations[0], iterations[1], iterations[2]);
+
+        for ( var side : sizes ) {
+            // independent of game phase
+            var ordinal = new OrdinalBoard<>(Tile.FREE, side);
+            if ( "OrdinalBoard.traverse".contains(filter) )
+                System.out.println(harness.run(
+                    "OrdinalBoard.traverse", String.format("%d", side),
+                    () -> (int) ordinal.traverse().count()
+                ));
+
+            for ( var phase : Phase.values() ) {
+                var game = buildPosition(side, phase);
+                var board = game.copyBoard();
+                var tracked = board.copy();
+                tracked.trackSymmetries();
+                var color = game.getCurrentPlayer().getColor();
+                var moves = game.findValidMoves().toArray(Coordinates[]::new);
+                var tiles = new OrdinalBoard<>(Tile.FREE, side).traverse().toArray(Coordinates[]::new);
+                var parameters = String.format("%d %s turn %d", side, phase, game.getTurn());
+
+                var nextMove = cycle(moves.length);
+                var nextTile = cycle(tiles.length);
+                var nextProbe = cycle(tiles.length);
+                var nextGameMove = cycle(moves.length);
+
+                var operations = List.of(
+                    new Operation(
+                        "Board.findAllValidMoves",
+                        () -> (int) board.findAllValidMoves(color).count()
+                    ),
+                    new Operation(
+                        "Board.isValidMove",
+                        () -> board.isValidMove(color, tiles[nextTile.getAsInt()]) ? 1 : 0
+                    ),
+                    new Operation(
+                        "Board.probe",
+                        () -> board.probe(color, tiles[nextProbe.getAsInt()]).getCaptured()
+                    ),
+                    new Operation(
+                        "Board.nextMove+unmakeMove",
+                        () -> {
+                            var captured = board.nextMove(color, moves[nextMove.getAsInt()]);
+                            board.unmakeMove();
+                            return captured;
+                        }
+                    ),
+                    new Operation(
+                        "Board.getCanonicalHash",
+                        () -> (int) board.getCanonicalHash(color)
+                    ),
+                    new Operation(
+                        "Board.getCanonicalHash tracked",
+                        () -> (int) tracked.getCanonicalHash(color)
+                    ),
+                    new Operation(
+                        "Board.copy",
+                        () -> board.copy().getWidth()
+                    ),
+                    new Operation(
+                        "Game.nextMove+undo",
+                        () -> {
+                            game.nextMove(moves[nextGameMove.getAsInt()]);
+                            var turn = game.getTurn();
+                            game.undo();
+                            return turn;
+                        }
+                    ),
+                    new Operation(
+                        "GameGridBuilder",
+                        () -> new GameGridBuilder(game, TileMaps.ASCII_TILE_MAP).toString().length()
+                    )
+                );
+
+                for ( var operation : operations )
+                    if ( operation.name().contains(filter) )
+                        System.out.println(harness.run(operation.name(), parameters, operation.body()));
+            }
+        }
+
+        System.out.printf("(sink %d)%n", Microbenchmark.sink());
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.benchmark;
+
+import org.example.Options;
+import org.example.reversi.Game;
+import org.example.reversi.GameRecord;
+import org.example.reversi.GameRecordReader;
+import org.example.reversi.GameRecordWriter;
+import org.example.reversi.ai.RandomAI;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Benchmarks of game records, in games per second: reading a record file, and replaying records checked through
+ * {@code Game.nextMove} or trusted through the fast path.
+ * <p>
+ * Random games are recorded by a writer listening to them into a temporary file, read back and checked to replay
+ * to the same final positions both ways.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --sizes N[,N...]} board sides (default {@code 8,32})</li>
+ *     <li>{@code --games N} recorded games per size (default {@code 1000})</li>
+ *     <li>{@code --filter TEXT} only runs operations whose name contains {@code TEXT}</li>
+ *     <li>{@code --iterations W,M,MILLIS} warmup iterations, measurement iterations and iteration duration (default {@code 3,5,200})</li>
+ * </ul>
+ */
+public class ReplayBenchmark {
+    private static final long SEED = 42;
+
+    /**
+     * Named operation to measure.
+     *
+     * @param name Operation name
+     * @param body Operation, must be repeatable
+     */
+    private record Operation(String name, IntSupplier body) {}
+
+    /**
+     * Records random games to a temporary file and reads them back.
+     *
+     * @param side Board side
+     * @param games Number of games
+     * @return Records read back
+     *
+     * @throws UncheckedIOException If temporary file cannot be used
+     */
+    private static List<GameRecord> recordGames(int side, int games) throws UncheckedIOException {
+        var random = new Random(SEED);
+        try {
+            var path = Files.createTempFile("replay", ".games");
+            try {
+                try (
+                    var writer = GameRecordWriter.open(path)
+                ) {
+                    for ( int i = 0; i < games; i++ ) {
+                        var game = new Game(side);
+                        writer.record(game);
+                        do {
+                            game.nextMove(RandomAI.nextMove(game, random));
+                        } while ( !game.isOver() );
+                        writer.end(game);
+                    }
+                }
+
+                var records = new ArrayList<GameRecord>(games);
+                try (
+                    var reader = GameRecordReader.open(path)
+                ) {
+                    for ( var record = reader.next(); record.isPresent(); record = reader.next() )
+                        records.add(record.get());
+                }
+                return records;
+            }
+            finally {
+                Files.delete(path);
+            }
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param records Records
+     * @return Number of records whose checked and trusted replays differ
+     */
+    private static int countMismatches(List<GameRecord> records) {
+        var mismatches = 0;
+        for ( var record : records ) {
+            var checked = record.verify();
+            var trusted = record.replay();
+            if (
+                checked.positionHash() != trusted.positionHash()
+                || checked.getTurn() != trusted.getTurn()
+                || checked.isOver() != trusted.isOver()
+                || checked.getWhite().getScore() != trusted.getWhite().getScore()
+            )
+                mismatches++;
+        }
+
+        return mismatches;
+    }
+
+    /**
+     * Cycles through {@code values}.
+     *
+     * @param values Values
+     * @return Operation index into values, advancing on each call
+     */
+    private static IntSupplier cycle(int values) {
+        var next = new int[1];
+        return () -> {
+            var i = next[0];
+            next[0] = ( i + 1 == values ) ? 0 : i + 1;
+            return i;
+        };
+    }
+
+    public static void main(String[] args) {
+        var sizes = Arrays.stream(Options.get(args, "--sizes", "8,32").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        var games = Integer.parseInt(Options.get(args, "--games", "1000"));
+        var filter = Options.get(args, "--filter", "");
+        var iterations = Arrays.stream(Options.get(args, "--iterations", "3,5,200").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        var harness = new Microbenchmark(iterations[0], iterations[1], iterations[2]);
+
+        for ( var side : sizes ) {
+            var records = recordGames(side, games);
+            var mismatches = countMismatches(records);
+            if ( mismatches > 0 ) throw new IllegalStateException(String.format("%d replays differ on %d x %d", mismatches, side, side));
+
+            var parameters = String.format("%d, %d games", side, records.size());
+            var nextChecked = cycle(records.size());
+            var nextTrusted = cycle(records.size());
+
+            var operations = List.of(
+                new Operation(
+                    "GameRecord.verify",
+                    () -> records.get(nextChecked.getAsInt()).verify().getTurn()
+                ),
+                new Operation(
+                    "GameRecord.replay",
+                    () -> records.get(nextTrusted.getAsInt()).replay().getTurn()
+                )
+            );
+
+            for ( var operation : operations )
+                if ( operation.name().contains(filter) )
+                    System.out.println(harness.run(operation.name(), parameters, operation.body()));
+        }
+
+        System.out.printf("(sink %d)%n", Microbenchmark.sink());
+    }
+}
@@ -0,0 +1,214 @@
+package org.example.benchmark;
+
+import org.example.Options;
+import org.example.reversi.ai.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+/**
+ * Benchmarks of a shared transposition table, in operations per second, from 1 to N threads: probes, stores,
+ * and probes storing on a miss like a search does.
+ * <p>
+ * Threads draw keys at random from a fixed set and share a single table, prefilled with every key before probing.
+ * The data stored for a key is derived from it, so every probe hit is checked: a torn entry accepted by a probe
+ * is reported as corrupt, and must never be.
+ * <p>
+ * Options:
+ * <ul>
+ *     <li>{@code --threads N} maximum thread count (default available processors)</li>
+ *     <li>{@code --megabytes N} table size (default {@value TranspositionTable#DEFAULT_MEGABYTES})</li>
+ *     <li>{@code --keys N} number of distinct keys (default table capacity)</li>
+ *     <li>{@code --filter TEXT} only runs operations whose name contains {@code TEXT}</li>
+ *     <li>{@code --millis W,M} warmup and measurement durations (default {@code 500,1000})</li>
+ * </ul>
+ */
+public class TranspositionBenchmark {
+    private static final long SEED = 42;
+    private static final int CHECK_INTERVAL = 1024; // operations between clock checks
+
+    /**
+     * Operation on a table.
+     */
+    @FunctionalInterface
+    private interface Body {
+        /**
+         * @param table Shared table
+         * @param key Key
+         * @return {@code 1} if a probe returned corrupt data, {@code 0} otherwise
+         */
+        int run(TranspositionTable table, long key);
+    }
+
+    /**
+     * Named operation to measure.
+     *
+     * @param name Operation name
+     * @param body Operation, must be repeatable and thread safe
+     */
+    private record Operation(String name, Body body) {}
+
+    /**
+     * Operations counted by a thread.
+     *
+     * @param operations Number of measured operations
+     * @param corrupt Number of probes returning corrupt data
+     */
+    private record Count(long operations, long corrupt) {}
+
+    /**
+     * @param index Key index
+     * @return Uniformly distributed key, with a SplitMix64 finalizer
+     */
+    private static long key(long index) {
+        var z = ( index + 1 ) * 0x9E3779B97F4A7C15L;
+        z = ( z ^ ( z >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+        z = ( z ^ ( z >>> 27 ) ) * 0x94D049BB133111EBL;
+        return z ^ ( z >>> 31 );
+    }
+
+    // self-explanatory
+    private static void store(TranspositionTable table, long key) {
+        table.store(key, (int) ( key >>> 32 ), (int) key & 0x3F, TranspositionTable.EXACT, (int) ( key >>> 8 ) & 0xFFF);
+    }
+
+    /**
+     * @param key Probed key
+     * @param entry Probed entry
+     * @return {@code 1} if {@code entry} was found and does not hold the data stored for {@code key}, {@code 0} otherwise
+     */
+    private static int corrupt(long key, long entry) {
+        return ( entry != 0 && (
+            TranspositionTable.score(entry) != (int) ( key >>> 32 )
+            || TranspositionTable.move(entry) != ( (int) ( key >>> 8 ) & 0xFFF )
+        ) ) ? 1 : 0;
+    }
+
+    /**
+     * Runs {@code body} on {@code table} with random keys until {@code end}, counting operations from {@code start}.
+     *
+     * @param table Shared table
+     * @param keys Number of distinct keys
+     * @param body Operation
+     * @param random Key generator of this thread
+     * @param start {@code System.nanoTime()} from which operations are counted
+     * @param end {@code System.nanoTime()} at which running stops
+     * @return Operations counted
+     */
+    private static Count run(TranspositionTable table, int keys, Body body, SplittableRandom random, long start, long end) {
+        var operations = 0L;
+        var corrupt = 0L;
+        var measuring = false;
+
+        while ( true ) {
+            for ( int i = 0; i < CHECK_INTERVAL; i++ )
+                corrupt += body.run(table, key(random.nextInt(keys)));
+            if ( measuring )
+                operations += CHECK_INTERVAL;
+
+            var now = System.nanoTime();
+            if ( now - end >= 0 ) break;
+            if ( !measuring && now - start >= 0 ) {
+                measuring = true;
+                corrupt = 0;
+            }
+        }
+
+        return new Count(operations, corrupt);
+    }
+
+    public static void main(String[] args) {
+        var maxThreads = Integer.parseInt(Options.get(args, "--threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        var megabytes = Integer.parseInt(Options.get(args, "--megabytes", String.valueOf(TranspositionTable.DEFAULT_MEGABYTES)));
+        var table = new TranspositionTable(megabytes);
+        var keys = Integer.parseInt(Options.get(args, "--keys", String.valueOf(Math.min(table.getCapacity(), Integer.MAX_VALUE))));
+        var filter = Options.get(args, "--filter", "");
+        var millis = Arrays.stream(Options.get(args, "--millis", "500,1000").split(","))
+            .mapToLong(Long::parseLong)
+            .toArray();
+
+        var operations = List.of(
+            new Operation(
+                "TranspositionTable.probe",
+                (t, key) -> corrupt(key, t.probe(key))
+            ),
+            new Operation(
+                "TranspositionTable.store",
+                (t, key) -> {
+                    store(t, key);
+                    return 0;
+                }
+            ),
+            new Operation(
+                "TranspositionTable.probe+store",
+                (t, key) -> {
+                    var entry = t.probe(key);
+                    if ( entry == 0 )
+                        store(t, key);
+                    return corrupt(key, entry);
+                }
+            )
+        );
+
+        System.out.printf("%d MiB, %,d entries, %,d keys%n", megabytes, table.getCapacity(), keys);
+
+        var pool = Executors.newFixedThreadPool(maxThreads);
+        try {
+            for ( var operation : operations ) {
+                if ( !operation.name().contains(filter) ) continue;
+
+                var single = 0.0;
+                for ( int threads = 1; threads <= maxThreads; threads *= 2 ) {
+                    table.clear();
+                    for ( int i = 0; i < keys; i++ )
+                        store(table, key(i));
+                    var prefill = table.getStatistics();
+
+                    var start = System.nanoTime() + millis[0] * 1_000_000;
+                    var end = start + millis[1] * 1_000_000;
+                    var tasks = new ArrayList<Callable<Count>>();
+                    for ( int t = 0; t < threads; t++ ) {
+                        var random = new SplittableRandom(SEED + t);
+                        tasks.add(() -> run(table, keys, operation.body(), random, start, end));
+                    }
+
+                    var total = 0L;
+                    var corrupt = 0L;
+                    for ( var future : pool.invokeAll(tasks) ) {
+                        total += future.get().operations();
+                        corrupt += future.get().corrupt();
+                    }
+
+                    var statistics = table.getStatistics();
+                    var perSecond = total * 1e3 / millis[1];
+                    if ( threads == 1 )
+                        single = perSecond;
+
+                    System.out.printf(
+                        "%-30s %3d threads %,16.1f ops/s, speedup %.2f, hit rate %.3f, %,d collisions, %,d overwrites, %d corrupt%n",
+                        operation.name(), threads, perSecond, perSecond / single, statistics.hitRate(),
+                        statistics.collisions() - prefill.collisions(), statistics.overwrites() - prefill.overwrites(), corrupt
+                    );
+
+                    if ( threads < maxThreads && threads * 2 > maxThreads )
+                        threads = maxThreads / 2; // last iteration runs with maxThreads
+                }
+            }
+        }
+        catch ( ExecutionException e ) {
+            throw new IllegalStateException(e.getCause());
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -65,7 +65,7 @@ public class Board<E> {
      * @param y Vertical axis coordinate
      * @return Corresponding index in the internal list
      */
-    private int linearIndex(int x, int y) {
+    public int linearIndex(int x, int y) {
         return y * width + x;
     }
 
@@ -125,6 +125,30 @@ public class Board<E> {
         board.set(linearIndex(x, y), e);
     }
 
+    /**
+     * Retrieves element at linear index {@code index}.
+     *
+     * @param index Linear index
+     * @return Element at index
+     *
+     * @throws IndexOutOfBoundsException If index does not point within the board
+     */
+    public E get(int index) throws IndexOutOfBoundsException {
+        return board.get(index);
+    }
+
+    /**
+     * Sets element at linear index {@code index}.
+     *
+     * @param index Linear index
+     * @param e Element to set
+     *
+     * @throws IndexOutOfBoundsException If index does not point within the board
+     */
+    public void set(int index, E e) throws IndexOutOfBoundsException {
+        board.set(index, e);
+    }
+
     /**
      * @param y Row index
      * @return Ordered stream of row {@code y} in column order
@@ -0,0 +1,68 @@
+package org.example.board;
+
+import java.util.Arrays;
+
+/**
+ * Wraps a byte array to represent a two-dimensional board of set width and height.
+ * <p>
+ * Primitive counterpart of {@code Board}, costing a single byte per element.
+ * Enum valued boards may be stored as ordinals.
+ */
+public class ByteBoard extends PrimitiveBoard {
+    private final byte[] board;
+
+    /**
+     * Constructs a board {@code width} and {@code height} with elements initialized to {@code initial}.
+     *
+     * @param initial Initial value
+     * @param width Board width, non-zero positive
+     * @param height Board height, non-zero positive
+     *
+     * @throws IllegalArgumentException If any argument is invalid
+     */
+    public ByteBoard(byte initial, int width, int height) throws IllegalArgumentException {
+        super(width, height, width);
+
+        this.board = new byte[Math.multiplyExact(width, height)];
+        if ( initial != 0 )
+            Arrays.fill(board, initial);
+    }
+
+    /**
+     * Constructs an equal sided board of {@code side} with elements initialized to {@code initial}.
+     *
+     * @param initial Initial value
+     * @param side Board side, non-zero positive
+     *
+     * @throws IllegalArgumentException If {@code side} is invalid
+     */
+    public ByteBoard(byte initial, int side) throws IllegalArgumentException {
+        this(initial, side, side);
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param source Source to copy
+     */
+    public ByteBoard(ByteBoard source) {
+        super(source);
+        this.board = new byte[source.board.length];
+        System.arraycopy(source.board, 0, board, 0, board.length);
+    }
+
+    @Override
+    public ByteBoard copy() {
+        return new ByteBoard(this);
+    }
+
+    @Override
+    protected byte read(int index) {
+        return board[index];
+    }
+
+    @Override
+    protected void write(int index, byte b) {
+        board[index] = b;
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.board;
+
+import java.util.Arrays;
+
+/**
+ * Wraps a long array to represent a two-dimensional board of set width and height with 2 bit elements.
+ * <p>
+ * Packs 32 elements per long, elements ranging from 0 to 3. Rows are aligned on long boundaries,
+ * allowing word-level bulk row reads and writes.
+ * Element (x y) maps to bits {@code 2 * (x % 32)} and {@code 2 * (x % 32) + 1} of word {@code y * rowWords + x / 32}.
+ */
+public class PackedBoard extends PrimitiveBoard {
+    static private final int BITS = 2; // bits per element
+    static private final int PER_WORD = Long.SIZE / BITS; // elements per long
+    static private final long MASK = ( 1L << BITS ) - 1; // mask of a single element
+
+    /**
+     * Number of distinct element values
+     */
+    static public final int VALUES = 1 << BITS;
+
+    /**
+     * Repeats {@code b} over every element of a word.
+     *
+     * @param b Element
+     * @return Word filled with {@code b}
+     */
+    static private long fill(byte b) {
+        var word = 0L;
+        for ( int i = 0; i < PER_WORD; i++ )
+            word |= ( b & MASK ) << ( i * BITS );
+        return word;
+    }
+
+    private final long[] board;
+    private final int rowWords; // longs per row
+
+    /**
+     * Constructs a board {@code width} and {@code height} with elements initialized to {@code initial}.
+     *
+     * @param initial Initial value, within [0, 3]
+     * @param width Board width, non-zero positive
+     * @param height Board height, non-zero positive
+     *
+     * @throws IllegalArgumentException If any argument is invalid
+     */
+    public PackedBoard(byte initial, int width, int height) throws IllegalArgumentException {
+        super(width, height, Math.multiplyExact(( width + PER_WORD - 1 ) / PER_WORD, PER_WORD));
+        if ( initial < 0 || initial >= VALUES )
+            throw new IllegalArgumentException();
+
+        this.rowWords = getStride() / PER_WORD;
+        this.board = new long[Math.multiplyExact(rowWords, height)];
+
+        var word = fill(initial);
+        if ( word != 0 )
+            Arrays.fill(board, word);
+    }
+
+    /**
+     * Constructs an equal sided board of {@code side} with elements initialized to {@code initial}.
+     *
+     * @param initial Initial value, within [0, 3]
+     * @param side Board side, non-zero positive
+     *
+     * @throws IllegalArgumentException If any argument is invalid
+     */
+    public PackedBoard(byte initial, int side) throws IllegalArgumentException {
+        this(initial, side, side);
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param source Source to copy
+     */
+    public PackedBoard(PackedBoard source) {
+        super(source);
+        this.rowWords = source.rowWords;
+        this.board = new long[source.board.length];
+        System.arraycopy(source.board, 0, board, 0, board.length);
+    }
+
+    @Override
+    public PackedBoard copy() {
+        return new PackedBoard(this);
+    }
+
+    @Override
+    protected byte read(int index) {
+        return (byte) ( ( board[index / PER_WORD] >>> ( index % PER_WORD * BITS ) ) & MASK );
+    }
+
+    @Override
+    protected void write(int index, byte b) {
+        var word = index / PER_WORD;
+        var shift = index % PER_WORD * BITS;
+        board[word] = ( board[word] & ~( MASK << shift ) ) | ( ( b & MASK ) << shift );
+    }
+
+    /**
+     * @return Number of longs spanning a row
+     */
+    public int getRowWords() {
+        return rowWords;
+    }
+
+    /**
+     * Reads row {@code y} as packed words.
+     * <p>
+     * Bits past the last element of the row are unspecified.
+     *
+     * @param y Row index
+     * @param target Array receiving {@code getRowWords()} words
+     *
+     * @throws IndexOutOfBoundsException If index is not within the board or target is too short
+     */
+    public void readRow(int y, long[] target) throws IndexOutOfBoundsException {
+        if ( y < 0 || y >= getHeight() ) throw new IndexOutOfBoundsException();
+        System.arraycopy(board, y * rowWords, target, 0, rowWords);
+    }
+
+    /**
+     * Writes row {@code y} from packed words.
+     *
+     * @param y Row index
+     * @param source Array holding {@code getRowWords()} words
+     *
+     * @throws IndexOutOfBoundsException If index is not within the board or source is too short
+     */
+    public void writeRow(int y, long[] source) throws IndexOutOfBoundsException {
+        if ( y < 0 || y >= getHeight() ) throw new IndexOutOfBoundsException();
+        System.arraycopy(source, 0, board, y * rowWords, rowWords);
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.board;
+
+import java.util.stream.IntStream;
+
+/**
+ * Two-dimensional board of set width and height holding small non-negative elements in primitive storage.
+ * <p>
+ * Elements are addressed by linear index {@code y * stride + x}, where {@code stride} is at least the width
+ * and allows implementations to align rows on storage boundaries.
+ * Streams decode elements lazily and never materialize the board.
+ */
+public abstract class PrimitiveBoard {
+    private final int width;
+    private final int height;
+    private final int stride;
+
+    /**
+     * Constructs a board of {@code width} and {@code height} with rows {@code stride} elements apart.
+     *
+     * @param width Board width, non-zero positive
+     * @param height Board height, non-zero positive
+     * @param stride Distance between rows, at least {@code width}
+     *
+     * @throws IllegalArgumentException If any argument is invalid
+     */
+    protected PrimitiveBoard(int width, int height, int stride) throws IllegalArgumentException {
+        if ( width <= 0 || height <= 0 || stride < width )
+            throw new IllegalArgumentException();
+
+        this.width = width;
+        this.height = height;
+        this.stride = stride;
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param source Source to copy dimensions from
+     */
+    protected PrimitiveBoard(PrimitiveBoard source) {
+        this.width = source.width;
+        this.height = source.height;
+        this.stride = source.stride;
+    }
+
+    /**
+     * @return Independent copy of this board
+     */
+    public abstract PrimitiveBoard copy();
+
+    /**
+     * Reads element at linear index {@code index}, without bounds checking.
+     *
+     * @param index Linear index
+     * @return Element
+     */
+    protected abstract byte read(int index);
+
+    /**
+     * Writes element at linear index {@code index}, without bounds checking.
+     *
+     * @param index Linear index
+     * @param b Element to write
+     */
+    protected abstract void write(int index, byte b);
+
+    /**
+     * Maps a pair of coordinates to linear index
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return Corresponding linear index
+     */
+    public int linearIndex(int x, int y) {
+        return y * stride + x;
+    }
+
+    /**
+     * @return Width of this board
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Height of this board
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Distance between the linear indexes of two consecutive rows
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Validates coordinates (x y).
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return {@code true} if (x y) points within the board, {@code false} otherwise
+     */
+    public boolean isValid(int x, int y) {
+        return (
+            x >= 0 && x < width
+                && y >= 0 && y < height
+        );
+    }
+
+    /**
+     * Retrieves element at (x y).
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return Element at (x y)
+     *
+     * @throws IndexOutOfBoundsException If (x y) does not point within the board
+     */
+    public byte get(int x, int y) throws IndexOutOfBoundsException {
+        if ( !isValid(x, y) ) throw new IndexOutOfBoundsException();
+        return read(linearIndex(x, y));
+    }
+
+    /**
+     * Sets element at (x y)
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @param b Element to set
+     *
+     * @throws IndexOutOfBoundsException If (x y) does not point within the board
+     */
+    public void set(int x, int y, byte b) {
+        if ( !isValid(x, y) ) throw new IndexOutOfBoundsException();
+        write(linearIndex(x, y), b);
+    }
+
+    /**
+     * Retrieves element at linear index {@code index}.
+     * <p>
+     * Meant for hot loops: only storage bounds are checked, the result is unspecified for an index
+     * within storage but past the end of a row.
+     *
+     * @param index Linear index
+     * @return Element at index
+     *
+     * @throws IndexOutOfBoundsException If index does not point within storage
+     */
+    public byte get(int index) throws IndexOutOfBoundsException {
+        return read(index);
+    }
+
+    /**
+     * Sets element at linear index {@code index}.
+     * <p>
+     * Meant for hot loops: only storage bounds are checked, the board is left unchanged for an index
+     * within storage but past the end of a row.
+     *
+     * @param index Linear index
+     * @param b Element to set
+     *
+     * @throws IndexOutOfBoundsException If index does not point within storage
+     */
+    public void set(int index, byte b) throws IndexOutOfBoundsException {
+        write(index, b);
+    }
+
+    /**
+     * @param y Row index
+     * @return Ordered stream of row {@code y} in column order
+     *
+     * @throws IndexOutOfBoundsException If index is not within the board
+     */
+    public IntStream getRow(int y) throws IndexOutOfBoundsException {
+        if ( y < 0 || y >= height ) throw new IndexOutOfBoundsException();
+        var offset = linearIndex(0, y);
+        return IntStream.range(offset, offset + width)
+            .map(this::read);
+    }
+
+    /**
+     * @param x Column index
+     * @return Ordered stream of column {@code x} in row order
+     *
+     * @throws IndexOutOfBoundsException If index is not within the board
+     */
+    public IntStream getColumn(int x) throws IndexOutOfBoundsException {
+        if ( x < 0 || x >= width ) throw new IndexOutOfBoundsException();
+        return IntStream.range(0, height)
+            .map(y -> read(linearIndex(x, y)));
+    }
+
+    /**
+     * @return Ordered stream of all elements in row-major order
+     */
+    public IntStream stream() {
+        return IntStream.range(0, height)
+            .flatMap(this::getRow);
+    }
+}
@@ -5,38 +5,28 @@ import java.util.function.UnaryOperator;
 /**
  * Represents directions relative to {@code OrdinalBoard}.
  * Cardinals are such that {@code Coordinates} 0, 0 is the northeasternmost point.
+ * <p>
+ * Directions step either through {@code Coordinates}, or through linear indexes with {@link #offset(int)}.
  */
 public enum Direction {
-    NORTH(
-        c -> new Coordinates(c.x(), c.y() - 1)
-    ),
-    NORTHEAST(
-        c -> new Coordinates(c.x() + 1, c.y() - 1)
-    ),
-    EAST(
-        c -> new Coordinates(c.x() + 1, c.y())
-    ),
-    SOUTHEAST(
-        c -> new Coordinates(c.x() + 1, c.y() + 1)
-    ),
-    SOUTH(
-        c -> new Coordinates(c.x(), c.y() + 1)
-    ),
-    SOUTHWEST(
-        c -> new Coordinates(c.x() - 1, c.y() + 1)
-    ),
-    WEST(
-        c -> new Coordinates(c.x() - 1, c.y())
-    ),
-    NORTHWEST(
-        c -> new Coordinates(c.x() - 1, c.y() - 1)
-    );
+    NORTH(0, -1),
+    NORTHEAST(1, -1),
+    EAST(1, 0),
+    SOUTHEAST(1, 1),
+    SOUTH(0, 1),
+    SOUTHWEST(-1, 1),
+    WEST(-1, 0),
+    NORTHWEST(-1, -1);
 
+    private final int dx; // horizontal step
+    private final int dy; // vertical step
     private final UnaryOperator<Coordinates> next; // function to produce the next set of coordinates in direction
     private Direction versus; // opposite direction, may not be final since self-referencing
 
-    Direction(UnaryOperator<Coordinates> next) {
-        this.next = next;
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+        this.next = c -> new Coordinates(c.x() + dx, c.y() + dy);
     }
 
     // initialize opposing direction
@@ -64,4 +54,30 @@ public enum Direction {
     public Direction getVersus() {
         return versus;
     }
+
+    /**
+     * @return Horizontal step, within [-1, 1]
+     */
+    public int getDx() {
+        return dx;
+    }
+
+    /**
+     * @return Vertical step, within [-1, 1]
+     */
+    public int getDy() {
+        return dy;
+    }
+
+    /**
+     * Computes the linear index delta of one step in this direction on a row-major board.
+     * <p>
+     * Stepping does not detect leaving the board: rows wrap around, callers must bound walks or pad the board.
+     *
+     * @param stride Distance between the linear indexes of two consecutive rows
+     * @return Linear index delta
+     */
+    public int offset(int stride) {
+        return dy * stride + dx;
+    }
 }
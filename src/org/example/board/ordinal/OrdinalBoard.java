@@ -78,6 +78,38 @@ public class OrdinalBoard<T> extends Board<T> {
         set(co.x(), co.y(), t);
     }
 
+    /**
+     * Maps coordinates {@code co} to linear index.
+     *
+     * @param co Coordinates
+     * @return Corresponding linear index
+     */
+    public int linearIndex(Coordinates co) {
+        return linearIndex(co.x(), co.y());
+    }
+
+    /**
+     * Maps linear index {@code index} to coordinates.
+     *
+     * @param index Linear index
+     * @return Corresponding coordinates
+     */
+    public Coordinates coordinates(int index) {
+        return new Coordinates(index % getWidth(), index / getWidth());
+    }
+
+    /**
+     * Computes the linear index delta of one step in {@code direction}.
+     *
+     * @param direction Direction
+     * @return Linear index delta
+     *
+     * @see Direction#offset(int)
+     */
+    public int offset(Direction direction) {
+        return direction.offset(getWidth());
+    }
+
     /**
      * @return A stream of coordinates spanning the board in row-major order
      */
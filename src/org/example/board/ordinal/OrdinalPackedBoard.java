@@ -0,0 +1,130 @@
+package org.example.board.ordinal;
+
+import org.example.board.PackedBoard;
+
+import java.util.stream.Stream;
+
+/**
+ * Wraps a long array to represent a two-dimensional board of set width and height with 2 bit elements and associated directions and coordinates.
+ * <p>
+ * Packed counterpart of {@code OrdinalBoard}.
+ */
+public class OrdinalPackedBoard extends PackedBoard {
+    /**
+     * Constructs a board {@code width} and {@code height} with elements initialized to {@code initial}.
+     *
+     * @param initial Initial value, within [0, 3]
+     * @param width Board width, non-zero positive
+     * @param height Board height, non-zero positive
+     *
+     * @throws IllegalArgumentException If any argument is invalid
+     */
+    public OrdinalPackedBoard(byte initial, int width, int height) {
+        super(initial, width, height);
+    }
+
+    /**
+     * Constructs an equal sided board of {@code side} with elements initialized to {@code initial}.
+     *
+     * @param initial Initial value, within [0, 3]
+     * @param side Board side, non-zero positive
+     *
+     * @throws IllegalArgumentException If {@code side} is invalid
+     */
+    public OrdinalPackedBoard(byte initial, int side) {
+        this(initial, side, side);
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param source Source to copy
+     */
+    public OrdinalPackedBoard(PackedBoard source) {
+        super(source);
+    }
+
+    @Override
+    public OrdinalPackedBoard copy() {
+        return new OrdinalPackedBoard(this);
+    }
+
+    /**
+     * Validates coordinates {@code co}.
+     *
+     * @param co Coordinates
+     * @return {@code true} if coordinates point within the board, {@code false} otherwise
+     */
+    public boolean validate(Coordinates co) {
+        return isValid(co.x(), co.y());
+    }
+
+    /**
+     * Gets element at coordinates {@code co}.
+     *
+     * @param co Coordinates
+     * @return Element at coordinates
+     *
+     * @throws IndexOutOfBoundsException If coordinates do not point within the board
+     */
+    public byte get(Coordinates co) throws IndexOutOfBoundsException {
+        return get(co.x(), co.y());
+    }
+
+    /**
+     * Sets element at coordinates {@code co}.
+     *
+     * @param co Coordinates
+     * @param b Element to set
+     *
+     * @throws IndexOutOfBoundsException If coordinates do not point within the board
+     */
+    public void set(Coordinates co, byte b) throws IndexOutOfBoundsException {
+        set(co.x(), co.y(), b);
+    }
+
+    /**
+     * Maps coordinates {@code co} to linear index.
+     *
+     * @param co Coordinates
+     * @return Corresponding linear index
+     */
+    public int linearIndex(Coordinates co) {
+        return linearIndex(co.x(), co.y());
+    }
+
+    /**
+     * Maps linear index {@code index} to coordinates.
+     *
+     * @param index Linear index
+     * @return Corresponding coordinates
+     */
+    public Coordinates coordinates(int index) {
+        return new Coordinates(index % getStride(), index / getStride());
+    }
+
+    /**
+     * Computes the linear index delta of one step in {@code direction}.
+     *
+     * @param direction Direction
+     * @return Linear index delta
+     *
+     * @see Direction#offset(int)
+     */
+    public int offset(Direction direction) {
+        return direction.offset(getStride());
+    }
+
+    /**
+     * @return A stream of coordinates spanning the board in row-major order
+     */
+    public Stream<Coordinates> traverse() {
+        return Stream.iterate(
+            new Coordinates(0, 0),
+            c -> ( c.y() < getHeight() ),
+            c -> ( c.x() == getWidth() - 1 )
+                ? new Coordinates(0, c.y() + 1)
+                : new Coordinates(c.x() + 1, c.y())
+        );
+    }
+}
@@ -0,0 +1,391 @@
+package org.example.reversi;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.board.ordinal.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Board that implements the enclosing rules of Reversi on a pair of 64 bit bitboards.
+ * <p>
+ * Only supports 8 x 8 boards. Tile (x y) maps to bit {@code y * 8 + x}.
+ * Move generation and captures are computed with shift-and-mask operations in all eight directions at once.
+ * <p>
+ * Hashes of symmetric images are computed from the images of both bitboards, with a table of keys per row byte.
+ * <p>
+ * Each move is recorded as a pair of longs: the placed tile's bit index with the capturing color's ordinal
+ * in the sign bit, and the captured tiles' bitboard.
+ */
+class BitBoard extends Board {
+    static private final int SIDE = 8;
+
+    static private final long NOT_WEST_FILE = 0xFEFEFEFEFEFEFEFEL; // every tile but column 0
+    static private final long NOT_EAST_FILE = 0x7F7F7F7F7F7F7F7FL; // every tile but column 7
+
+    // shift amount for each Direction by ordinal; positive shifts left, negative shifts right
+    static private final int[] SHIFTS = Arrays.stream(Direction.values())
+        .mapToInt(d -> d.offset(SIDE))
+        .toArray();
+    // mask clearing tiles wrapped around from the opposite file for each Direction by ordinal
+    static private final long[] MASKS = Arrays.stream(Direction.values())
+        .mapToLong(d -> ( d.getDx() > 0 ) ? NOT_WEST_FILE : ( d.getDx() < 0 ) ? NOT_EAST_FILE : -1L)
+        .toArray();
+    static private final List<Symmetry> SYMMETRIES = Symmetry.of(SIDE, SIDE);
+    // Zobrist keys of each byte value of each row of each Color by ordinal, at ( ( ordinal * SIDE + row ) << 8 ) | byte
+    static private final long[] ROW_KEYS = rowKeys(Zobrist.of(SIDE, SIDE));
+    // coordinates of each bit index, shared as they are immutable
+    static private final Coordinates[] COORDINATES = IntStream.range(0, SIDE * SIDE)
+        .mapToObj(i -> new Coordinates(i % SIDE, i / SIDE))
+        .toArray(Coordinates[]::new);
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @return {@code true} if a bitboard can represent a board of {@code width} and {@code height}, {@code false} otherwise
+     */
+    static boolean supports(int width, int height) {
+        return ( width == SIDE && height == SIDE );
+    }
+
+    /**
+     * @param zobrist Keys of 8 x 8 boards
+     * @return Keys of each byte value of each row of each color, the xor of the keys of its bits
+     */
+    static private long[] rowKeys(Zobrist zobrist) {
+        var keys = new long[Color.values().length * SIDE << Byte.SIZE];
+        for ( var color : Color.values() )
+            for ( int row = 0; row < SIDE; row++ )
+                for ( int value = 0; value < 1 << Byte.SIZE; value++ ) {
+                    var key = 0L;
+                    for ( int x = 0; x < SIDE; x++ )
+                        if ( ( value & ( 1 << x ) ) != 0 )
+                            key ^= zobrist.tile(color, row * SIDE + x);
+                    keys[( ( color.ordinal() * SIDE + row ) << Byte.SIZE ) | value] = key;
+                }
+
+        return keys;
+    }
+
+    /**
+     * @param color Color of tiles
+     * @param b Bitboard of tiles
+     * @return Zobrist hash of tiles, one key per row
+     */
+    static private long hash(Color color, long b) {
+        var base = color.ordinal() * SIDE;
+        var hash = 0L;
+        for ( int row = 0; row < SIDE; row++ )
+            hash ^= ROW_KEYS[( ( base + row ) << Byte.SIZE ) | (int) ( ( b >>> ( row * SIDE ) ) & 0xFF )];
+
+        return hash;
+    }
+
+    /**
+     * Shifts every tile of {@code b} by one step in direction of ordinal {@code d}, discarding tiles leaving the board.
+     *
+     * @param b Bitboard
+     * @param d Direction ordinal
+     * @return Shifted bitboard
+     */
+    static private long shift(long b, int d) {
+        var s = SHIFTS[d];
+        return ( ( s > 0 ) ? b << s : b >>> -s ) & MASKS[d];
+    }
+
+    /**
+     * Computes every valid move for {@code own} against {@code opponent}.
+     *
+     * @param own Tiles of capturing color
+     * @param opponent Tiles of opposing color
+     * @return Bitboard of valid moves
+     */
+    static private long validMoves(long own, long opponent) {
+        var free = ~(own | opponent);
+        var moves = 0L;
+
+        for ( int d = 0; d < SHIFTS.length; d++ ) {
+            // a capture spans at most 6 opposing tiles on an 8 x 8 board
+            var run = shift(own, d) & opponent;
+            run |= shift(run, d) & opponent;
+            run |= shift(run, d) & opponent;
+            run |= shift(run, d) & opponent;
+            run |= shift(run, d) & opponent;
+            run |= shift(run, d) & opponent;
+            moves |= shift(run, d) & free;
+        }
+
+        return moves;
+    }
+
+    /**
+     * Computes tiles captured by playing {@code move} for {@code own} against {@code opponent}.
+     *
+     * @param own Tiles of capturing color
+     * @param opponent Tiles of opposing color
+     * @param move Single bit of a free tile
+     * @return Bitboard of captured tiles, empty if move is not valid
+     */
+    static private long captures(long own, long opponent, long move) {
+        var captured = 0L;
+
+        for ( int d = 0; d < SHIFTS.length; d++ ) {
+            var run = 0L;
+            var next = shift(move, d);
+            while ( ( next & opponent ) != 0 ) {
+                run |= next;
+                next = shift(next, d);
+            }
+            if ( ( next & own ) != 0 )
+                captured |= run;
+        }
+
+        return captured;
+    }
+
+    private final long[] tiles; // bitboard of each Color by ordinal
+
+    private long[] journal; // undo records of moves
+    private int journalSize;
+
+    /**
+     * Constructs an empty board.
+     */
+    BitBoard() {
+        super(SIDE, SIDE);
+        this.tiles = new long[Color.values().length];
+        this.journal = new long[SIDE * SIDE * 2];
+        this.journalSize = 0;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param source Source to copy
+     */
+    BitBoard(BitBoard source) {
+        super(source);
+        this.tiles = source.tiles.clone();
+        this.journal = source.journal.clone();
+        this.journalSize = source.journalSize;
+    }
+
+    @Override
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    @Override
+    public int getWidth() {
+        return SIDE;
+    }
+
+    @Override
+    public int getHeight() {
+        return SIDE;
+    }
+
+    @Override
+    public Tile get(int x, int y) throws IndexOutOfBoundsException {
+        var b = bit(x, y);
+
+        Tile tile;
+        if ( ( tiles[Color.WHITE.ordinal()] & b ) != 0 )
+            tile = Tile.WHITE;
+        else if ( ( tiles[Color.BLACK.ordinal()] & b ) != 0 )
+            tile = Tile.BLACK;
+        else
+            tile = Tile.FREE;
+
+        return tile;
+    }
+
+    @Override
+    void place(int x, int y, Tile tile) throws IndexOutOfBoundsException {
+        var b = bit(x, y);
+        hashPlace(x, y, get(x, y), tile);
+        for ( int c = 0; c < tiles.length; c++ )
+            tiles[c] &= ~b;
+        if ( tile != Tile.FREE )
+            tiles[colorOf(tile).ordinal()] |= b;
+    }
+
+    @Override
+    public int nextMove(Color color, Coordinates move) throws IllegalArgumentException {
+        var b = bit(move.x(), move.y());
+        var own = tiles[color.ordinal()];
+        var opponent = tiles[color.getVersus().ordinal()];
+
+        var captured = ( ( ( own | opponent ) & b ) == 0 ) ? captures(own, opponent, b) : 0L;
+        if ( captured == 0 ) throw new IllegalArgumentException();
+
+        return apply(color, b, captured);
+    }
+
+    @Override
+    public MoveProbe probe(Color color, Coordinates move) throws IndexOutOfBoundsException {
+        var b = bit(move.x(), move.y());
+        var own = tiles[color.ordinal()];
+        var opponent = tiles[color.getVersus().ordinal()];
+
+        var captured = ( ( ( own | opponent ) & b ) == 0 ) ? captures(own, opponent, b) : 0L;
+        return new MoveProbe(this, color, move, Long.bitCount(captured), captured, null);
+    }
+
+    @Override
+    int applyProbe(MoveProbe probe) {
+        var move = probe.getMove();
+        return apply(probe.getColor(), bit(move.x(), move.y()), probe.getMask());
+    }
+
+    @Override
+    int applyMove(Color color, Coordinates move) {
+        var b = bit(move.x(), move.y());
+        return apply(color, b, captures(tiles[color.ordinal()], tiles[color.getVersus().ordinal()], b));
+    }
+
+    /**
+     * Places a tile and flips captured ones, journaling the move.
+     *
+     * @param color Capturing color
+     * @param b Bit of move
+     * @param captured Bits of captured tiles
+     * @return Number of tiles captured
+     */
+    private int apply(Color color, long b, long captured) {
+        var own = tiles[color.ordinal()];
+        var opponent = tiles[color.getVersus().ordinal()];
+
+        tiles[color.ordinal()] = own | b | captured;
+        tiles[color.getVersus().ordinal()] = opponent & ~captured;
+        hashMove(color, b, captured);
+        occupy(1);
+
+        if ( journalSize == journal.length )
+            journal = Arrays.copyOf(journal, journalSize * 2);
+        journal[journalSize++] = ( (long) color.ordinal() << ( Long.SIZE - 1 ) ) | Long.numberOfTrailingZeros(b);
+        journal[journalSize++] = captured;
+
+        return Long.bitCount(captured);
+    }
+
+    @Override
+    public void unmakeMove() throws IllegalStateException {
+        if ( journalSize == 0 ) throw new IllegalStateException();
+
+        var captured = journal[--journalSize];
+        var header = journal[--journalSize];
+        var color = Color.values()[(int) ( header >>> ( Long.SIZE - 1 ) )];
+        var b = 1L << ( header & ( Long.SIZE - 1 ) );
+
+        tiles[color.ordinal()] &= ~( b | captured );
+        tiles[color.getVersus().ordinal()] |= captured;
+        hashMove(color, b, captured);
+        occupy(-1);
+    }
+
+    @Override
+    public boolean isValidMove(Color color, Coordinates move) {
+        var b = bit(move.x(), move.y());
+        var own = tiles[color.ordinal()];
+        var opponent = tiles[color.getVersus().ordinal()];
+
+        return ( ( own | opponent ) & b ) == 0
+            && captures(own, opponent, b) != 0;
+    }
+
+    @Override
+    public Optional<Coordinates> findAnyValidMove(Color color) {
+        var moves = validMoves(color);
+        return ( moves == 0 )
+            ? Optional.empty()
+            : Optional.of(coordinates(Long.numberOfTrailingZeros(moves)));
+    }
+
+    @Override
+    public Stream<Coordinates> findAllValidMoves(Color color) {
+        var moves = validMoves(color);
+        return LongStream.iterate(moves, m -> m != 0, m -> m & (m - 1))
+            .mapToObj(m -> coordinates(Long.numberOfTrailingZeros(m)));
+    }
+
+    @Override
+    Coordinates[] validMoveArray(Color color) {
+        var moves = validMoves(color);
+        var array = new Coordinates[Long.bitCount(moves)];
+        for ( int i = 0; moves != 0; i++, moves &= moves - 1 )
+            array[i] = coordinates(Long.numberOfTrailingZeros(moves));
+
+        return array;
+    }
+
+    @Override
+    int countValidMoves(Color color) {
+        return Long.bitCount(validMoves(color));
+    }
+
+    @Override
+    void computeSymmetricHashes(long[] hashes) {
+        var white = tiles[Color.WHITE.ordinal()];
+        var black = tiles[Color.BLACK.ordinal()];
+        for ( var symmetry : SYMMETRIES )
+            hashes[symmetry.ordinal()] = hash(Color.WHITE, symmetry.apply(white)) ^ hash(Color.BLACK, symmetry.apply(black));
+    }
+
+    /**
+     * Updates hash with a move, which is its own inverse.
+     *
+     * @param color Capturing color
+     * @param b Single bit of placed tile
+     * @param captured Bitboard of captured tiles
+     */
+    private void hashMove(Color color, long b, long captured) {
+        hashTile(color, Long.numberOfTrailingZeros(b));
+        for ( var c = captured; c != 0; c &= c - 1 )
+            hashFlip(Long.numberOfTrailingZeros(c));
+    }
+
+    /**
+     * @param color Capturing color
+     * @return Bitboard of valid moves for {@code color}
+     */
+    private long validMoves(Color color) {
+        return validMoves(tiles[color.ordinal()], tiles[color.getVersus().ordinal()]);
+    }
+
+    /**
+     * Maps (x y) to its bit.
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return Single bit bitboard
+     *
+     * @throws IndexOutOfBoundsException If (x y) does not point within the board
+     */
+    static private long bit(int x, int y) throws IndexOutOfBoundsException {
+        if ( x < 0 || x >= SIDE || y < 0 || y >= SIDE ) throw new IndexOutOfBoundsException();
+        return 1L << ( y * SIDE + x );
+    }
+
+    /**
+     * Maps a bit index to its coordinates.
+     *
+     * @param index Bit index
+     * @return Coordinates of bit
+     */
+    static private Coordinates coordinates(int index) {
+        return COORDINATES[index];
+    }
+
+    /**
+     * @param tile Non free tile
+     * @return Color owning {@code tile}
+     */
+    static private Color colorOf(Tile tile) {
+        return ( tile == Tile.WHITE ) ? Color.WHITE : Color.BLACK;
+    }
+}
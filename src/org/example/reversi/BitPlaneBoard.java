@@ -0,0 +1,468 @@
+package org.example.reversi;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.board.ordinal.Direction;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Board that implements the enclosing rules of Reversi on one bitplane per color.
+ * <p>
+ * Supports any size up to {@code MAX_SIDE} x {@code MAX_SIDE}.
+ * Each row spans {@code words} consecutive longs, tile (x y) mapping to bit {@code x % 64} of word {@code y * words + x / 64}.
+ * Candidate moves are computed for all occupied rows at once with word-parallel shifts, carrying bits across word boundaries,
+ * into a scratch plane whose words are iterated directly, each candidate being checked by walking its rays over bit indexes
+ * bounded by its distance to the edges.
+ * <p>
+ * Each move is recorded in a {@code Journal} as the bit indexes of its captured tiles, then a header of
+ * placed tile bit index, number of captured tiles and color.
+ */
+class BitPlaneBoard extends Board {
+    static private final int MAX_SIDE = 1024;
+
+    static private final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @return {@code true} if bitplanes can represent a board of {@code width} and {@code height}, {@code false} otherwise
+     */
+    static boolean supports(int width, int height) {
+        return ( width > 0 && width <= MAX_SIDE && height > 0 && height <= MAX_SIDE );
+    }
+
+    private final int width;
+    private final int height;
+    private final int words; // longs per row
+    private final long lastMask; // valid bits of the last word of a row
+    private final int[] steps; // bit index offset of one step along each direction by ordinal
+    private final long[][] planes; // bitplane of each Color by ordinal
+
+    private int top; // first occupied row
+    private int bottom; // last occupied row
+
+    private final long[] dilated; // scratch plane for move generation, never shared between instances
+    private final long[] candidates; // scratch plane of candidate then valid moves, never shared between instances
+    private final Journal journal; // undo records of moves
+
+    /**
+     * Constructs an empty board of {@code width} and {@code height}.
+     *
+     * @param width Board width
+     * @param height Board height
+     *
+     * @throws IllegalArgumentException If size exceeds {@code MAX_SIDE}
+     */
+    BitPlaneBoard(int width, int height) throws IllegalArgumentException {
+        super(width, height);
+        if ( !supports(width, height) ) throw new IllegalArgumentException();
+
+        this.width = width;
+        this.height = height;
+        this.words = ( width + Long.SIZE - 1 ) / Long.SIZE;
+        this.lastMask = ( width % Long.SIZE == 0 ) ? -1L : ( 1L << ( width % Long.SIZE ) ) - 1;
+        this.steps = new int[DIRECTIONS.length];
+        for ( int d = 0; d < steps.length; d++ )
+            steps[d] = DIRECTIONS[d].getDy() * words * Long.SIZE + DIRECTIONS[d].getDx();
+
+        var length = words * height;
+        this.planes = new long[Color.values().length][length];
+        this.dilated = new long[length];
+        this.candidates = new long[length];
+        this.journal = new Journal();
+        this.top = height;
+        this.bottom = -1;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param source Source to copy
+     */
+    BitPlaneBoard(BitPlaneBoard source) {
+        super(source);
+
+        this.width = source.width;
+        this.height = source.height;
+        this.words = source.words;
+        this.lastMask = source.lastMask;
+        this.steps = source.steps; // immutable
+        this.planes = new long[][] { source.planes[0].clone(), source.planes[1].clone() };
+        this.dilated = new long[source.dilated.length];
+        this.candidates = new long[source.candidates.length];
+        this.journal = new Journal(source.journal);
+        this.top = source.top;
+        this.bottom = source.bottom;
+    }
+
+    @Override
+    public BitPlaneBoard copy() {
+        return new BitPlaneBoard(this);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Tile get(int x, int y) throws IndexOutOfBoundsException {
+        if ( !isValid(x, y) ) throw new IndexOutOfBoundsException();
+
+        Tile tile;
+        if ( testBit(planes[Color.WHITE.ordinal()], x, y) )
+            tile = Tile.WHITE;
+        else if ( testBit(planes[Color.BLACK.ordinal()], x, y) )
+            tile = Tile.BLACK;
+        else
+            tile = Tile.FREE;
+
+        return tile;
+    }
+
+    @Override
+    void place(int x, int y, Tile tile) throws IndexOutOfBoundsException {
+        if ( !isValid(x, y) ) throw new IndexOutOfBoundsException();
+
+        hashPlace(x, y, get(x, y), tile);
+        for ( var plane : planes )
+            clearBit(plane, x, y);
+        if ( tile == Tile.WHITE )
+            setBit(planes[Color.WHITE.ordinal()], x, y);
+        else if ( tile == Tile.BLACK )
+            setBit(planes[Color.BLACK.ordinal()], x, y);
+    }
+
+    @Override
+    public MoveProbe probe(Color color, Coordinates move) throws IndexOutOfBoundsException {
+        var x = move.x();
+        var y = move.y();
+        if ( !isValid(x, y) ) throw new IndexOutOfBoundsException();
+        if ( testBit(planes[Color.WHITE.ordinal()], x, y) || testBit(planes[Color.BLACK.ordinal()], x, y) ) return new MoveProbe(this, color, move, 0, 0L, null);
+
+        var rays = new int[DIRECTIONS.length];
+        return new MoveProbe(this, color, move, enclose(color, x, y, rays), 0L, rays);
+    }
+
+    @Override
+    int applyProbe(MoveProbe probe) {
+        return capture(probe.getColor(), probe.getMove(), probe.getRays());
+    }
+
+    @Override
+    int applyMove(Color color, Coordinates move) {
+        var rays = new int[DIRECTIONS.length];
+        enclose(color, move.x(), move.y(), rays);
+
+        return capture(color, move, rays);
+    }
+
+    /**
+     * Places a tile of {@code color} at {@code move} and captures enclosed tiles, journaling the move.
+     *
+     * @param color Capturing color
+     * @param move Coordinates of move
+     * @param rays Number of tiles enclosed along each direction by ordinal
+     * @return Number of tiles captured
+     */
+    private int capture(Color color, Coordinates move, int[] rays) {
+        var own = planes[color.ordinal()];
+        var opponent = planes[color.getVersus().ordinal()];
+        var captured = 0;
+
+        setBit(own, move.x(), move.y());
+        hashTile(color, move.y() * width + move.x());
+        occupy(1);
+
+        for ( int d = 0; d < rays.length; d++ ) {
+            var dx = DIRECTIONS[d].getDx();
+            var dy = DIRECTIONS[d].getDy();
+            var cx = move.x();
+            var cy = move.y();
+            for ( int i = 0; i < rays[d]; i++ ) {
+                cx += dx;
+                cy += dy;
+                clearBit(opponent, cx, cy);
+                setBit(own, cx, cy);
+                journal.push(bitIndex(cx, cy));
+                hashFlip(cy * width + cx);
+            }
+            captured += rays[d];
+        }
+
+        journal.push(bitIndex(move.x(), move.y()));
+        journal.push(captured);
+        journal.push(color.ordinal());
+
+        return captured;
+    }
+
+    @Override
+    public void unmakeMove() throws IllegalStateException {
+        if ( journal.isEmpty() ) throw new IllegalStateException();
+
+        var color = Color.values()[journal.pop()];
+        var captured = journal.pop();
+        var move = journal.pop();
+
+        var own = planes[color.ordinal()];
+        var opponent = planes[color.getVersus().ordinal()];
+        for ( int i = 0; i < captured; i++ ) {
+            var index = journal.pop();
+            own[index / Long.SIZE] &= ~( 1L << index );
+            opponent[index / Long.SIZE] |= 1L << index;
+            hashFlip(tileIndex(index));
+        }
+        own[move / Long.SIZE] &= ~( 1L << move );
+        hashTile(color, tileIndex(move));
+        occupy(-1);
+    }
+
+    @Override
+    public boolean isValidMove(Color color, Coordinates move) {
+        var x = move.x();
+        var y = move.y();
+        if ( !isValid(x, y) ) throw new IndexOutOfBoundsException();
+
+        return !testBit(planes[Color.WHITE.ordinal()], x, y)
+            && !testBit(planes[Color.BLACK.ordinal()], x, y)
+            && enclose(color, x, y, null) > 0;
+    }
+
+    @Override
+    public Optional<Coordinates> findAnyValidMove(Color color) {
+        candidates(color);
+
+        for ( int y = firstRow(); y <= lastRow(); y++ ) {
+            var row = y * words;
+            for ( int k = 0; k < words; k++ )
+                for ( var w = candidates[row + k]; w != 0; w &= w - 1 ) {
+                    var x = k * Long.SIZE + Long.numberOfTrailingZeros(w);
+                    if ( enclose(color, x, y, null) > 0 ) return Optional.of(new Coordinates(x, y));
+                }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public Stream<Coordinates> findAllValidMoves(Color color) {
+        return Arrays.stream(validMoveArray(color));
+    }
+
+    @Override
+    Coordinates[] validMoveArray(Color color) {
+        var array = new Coordinates[validMoves(color)];
+
+        var i = 0;
+        for ( int y = firstRow(); y <= lastRow(); y++ ) {
+            var row = y * words;
+            for ( int k = 0; k < words; k++ )
+                for ( var w = candidates[row + k]; w != 0; w &= w - 1 )
+                    array[i++] = new Coordinates(k * Long.SIZE + Long.numberOfTrailingZeros(w), y);
+        }
+
+        return array;
+    }
+
+    @Override
+    int countValidMoves(Color color) {
+        return validMoves(color);
+    }
+
+    /**
+     * Computes valid moves for {@code color} into the scratch plane of candidates, clearing candidates that enclose nothing.
+     *
+     * @param color Capturing color
+     * @return Number of valid moves
+     */
+    private int validMoves(Color color) {
+        candidates(color);
+
+        var count = 0;
+        for ( int y = firstRow(); y <= lastRow(); y++ ) {
+            var row = y * words;
+            for ( int k = 0; k < words; k++ ) {
+                var valid = candidates[row + k];
+                for ( var w = valid; w != 0; w &= w - 1 ) {
+                    var bit = Long.numberOfTrailingZeros(w);
+                    if ( enclose(color, k * Long.SIZE + bit, y, null) == 0 )
+                        valid &= ~( 1L << bit );
+                }
+                candidates[row + k] = valid;
+                count += Long.bitCount(valid);
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Computes candidate moves for {@code color} into the scratch plane of candidates, being free tiles adjacent to an opposing tile.
+     * <p>
+     * Opposing tiles are dilated one step in all eight directions with word-parallel shifts, carrying bits across word boundaries:
+     * first along rows, then across adjacent rows.
+     * Only rows from {@code firstRow()} to {@code lastRow()} are processed, other rows of the scratch planes being left stale.
+     *
+     * @param color Capturing color
+     */
+    private void candidates(Color color) {
+        var own = planes[color.ordinal()];
+        var opponent = planes[color.getVersus().ordinal()];
+
+        var first = firstRow();
+        var last = lastRow();
+
+        for ( int y = first; y <= last; y++ ) {
+            var row = y * words;
+            for ( int k = 0; k < words; k++ ) {
+                var w = opponent[row + k];
+                var d = w | ( w << 1 ) | ( w >>> 1 );
+                if ( k > 0 )
+                    d |= opponent[row + k - 1] >>> ( Long.SIZE - 1 );
+                if ( k < words - 1 )
+                    d |= opponent[row + k + 1] << ( Long.SIZE - 1 );
+                dilated[row + k] = d;
+            }
+            dilated[row + words - 1] &= lastMask;
+        }
+
+        for ( int y = first; y <= last; y++ ) {
+            var row = y * words;
+            for ( int k = 0; k < words; k++ ) {
+                var d = dilated[row + k];
+                if ( y > first )
+                    d |= dilated[row - words + k];
+                if ( y < last )
+                    d |= dilated[row + words + k];
+                candidates[row + k] = d & ~( own[row + k] | opponent[row + k] );
+            }
+        }
+    }
+
+    // self-explanatory
+    private int firstRow() {
+        return Math.max(top - 1, 0);
+    }
+
+    // self-explanatory
+    private int lastRow() {
+        return Math.min(bottom + 1, height - 1);
+    }
+
+    /**
+     * Counts tiles enclosed by {@code color} from (x y) in all directions.
+     *
+     * @param color Capturing color
+     * @param x Horizontal axis coordinate of origin
+     * @param y Vertical axis coordinate of origin
+     * @param rays Filled with the number of tiles enclosed along each direction by ordinal,
+     *             {@code null} to stop on first enclosing group
+     * @return Number of enclosed tiles
+     */
+    private int enclose(Color color, int x, int y, int[] rays) {
+        var own = planes[color.ordinal()];
+        var opponent = planes[color.getVersus().ordinal()];
+        var origin = bitIndex(x, y);
+        var enclosed = 0;
+
+        for ( int d = 0; d < DIRECTIONS.length; d++ ) {
+            var reach = Math.min(reach(DIRECTIONS[d].getDx(), x, width), reach(DIRECTIONS[d].getDy(), y, height));
+            if ( reach < 2 ) continue;
+
+            var step = steps[d];
+            var index = origin + step;
+            var length = 0;
+
+            while ( length < reach && testBit(opponent, index) ) {
+                index += step;
+                length++;
+            }
+
+            if ( length > 0 && length < reach && testBit(own, index) ) {
+                if ( rays == null ) return length;
+
+                rays[d] = length;
+                enclosed += length;
+            }
+        }
+
+        return enclosed;
+    }
+
+    /**
+     * @param delta Step along an axis, {@code -1}, {@code 0} or {@code 1}
+     * @param coordinate Coordinate of origin along the axis
+     * @param size Board size along the axis
+     * @return Number of steps from {@code coordinate} staying within the board along the axis
+     */
+    static private int reach(int delta, int coordinate, int size) {
+        return ( delta > 0 ) ? size - 1 - coordinate : ( delta < 0 ) ? coordinate : Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return {@code true} if (x y) points within the board, {@code false} otherwise
+     */
+    private boolean isValid(int x, int y) {
+        return ( x >= 0 && x < width && y >= 0 && y < height );
+    }
+
+    /**
+     * Maps (x y) to its bit index within a bitplane.
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return Bit index
+     */
+    private int bitIndex(int x, int y) {
+        return ( y * words ) * Long.SIZE + x;
+    }
+
+    /**
+     * Maps a bit index of a bitplane to its row major tile index.
+     *
+     * @param index Bit index
+     * @return Row major tile index
+     */
+    private int tileIndex(int index) {
+        var stride = words * Long.SIZE;
+        return ( index / stride ) * width + index % stride;
+    }
+
+    // self-explanatory
+    private boolean testBit(long[] plane, int index) {
+        return ( plane[index >>> 6] & ( 1L << index ) ) != 0;
+    }
+
+    // self-explanatory
+    private boolean testBit(long[] plane, int x, int y) {
+        return ( plane[y * words + ( x >>> 6 )] & ( 1L << x ) ) != 0;
+    }
+
+    /**
+     * Sets bit (x y) and extends occupied rows to {@code y}.
+     *
+     * @param plane Bitplane
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     */
+    private void setBit(long[] plane, int x, int y) {
+        plane[y * words + ( x >>> 6 )] |= 1L << x;
+        top = Math.min(top, y);
+        bottom = Math.max(bottom, y);
+    }
+
+    // self-explanatory
+    private void clearBit(long[] plane, int x, int y) {
+        plane[y * words + ( x >>> 6 )] &= ~( 1L << x );
+    }
+}
@@ -1,30 +1,65 @@
 package org.example.reversi;
 
 import org.example.board.ordinal.Coordinates;
-import org.example.board.ordinal.Direction;
-import org.example.board.ordinal.OrdinalBoard;
 
-import java.util.*;
+import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
  * Board that implements the enclosing rules of Reversi.
+ * <p>
+ * Instances are built through {@link #of(Storage, int, int)}, each {@code Storage} mapping to an implementation.
+ * <p>
+ * Every board maintains a Zobrist hash of its tiles, updated incrementally by implementations on each placement and flip.
+ * Hashes of the same position are equal whatever the storage.
+ * Likewise, every board maintains a count of free tiles, updated by implementations on each move and undo,
+ * and, once tracking is requested, the indexes of evaluation patterns, updated by the same hooks as the hash.
+ * <p>
+ * Positions symmetric by any {@code Symmetry} of the board share a canonical hash, the least hash of their images.
+ * Hashes of images are computed on demand, with shifts and masks on bitboards, by scanning tiles otherwise,
+ * or, once tracking is requested, updated by the same hooks as the hash.
  */
-public class Board {
-    private final OrdinalBoard<Tile> board;
-    private final Set<Coordinates> edges;
-
+public abstract class Board {
     /**
-     * Constructs a board with initial state.
+     * Builds an empty board of {@code width} and {@code height} backed by {@code storage}.
+     *
+     * @param storage Storage
+     * @param width Board width
+     * @param height Board height
+     * @return Board with every tile free
      *
-     * @param initial Initial state
+     * @throws IllegalArgumentException If {@code storage} does not support the size
      */
-    public Board(org.example.board.Board<Tile> initial) {
-        this.board = new OrdinalBoard<>(initial);
+    static public Board of(Storage storage, int width, int height) throws IllegalArgumentException {
+        if ( !storage.supports(width, height) ) throw new IllegalArgumentException();
+
+        return switch (storage) {
+            case BITBOARD -> new BitBoard();
+            case BITPLANE -> new BitPlaneBoard(width, height);
+            case BYTE -> new TileBoard(width, height, false);
+            case PACKED -> new TileBoard(width, height, true);
+        };
+    }
 
-        var capacity = board.getWidth() * board.getHeight() / 2;
-        this.edges = new HashSet<>(capacity);
-        initializeEdges();
+    private final Zobrist zobrist; // keys of board size
+    private long hash; // Zobrist hash of tiles
+    private int free; // number of free tiles
+    private PatternIndexes patterns; // null until tracked
+    private SymmetricHashes symmetries; // null until tracked
+
+    /**
+     * Constructs an empty board of {@code width} and {@code height}.
+     *
+     * @param width Board width
+     * @param height Board height
+     *
+     * @throws IllegalArgumentException If any size is invalid
+     */
+    Board(int width, int height) throws IllegalArgumentException {
+        this.zobrist = Zobrist.of(width, height);
+        this.hash = 0L;
+        this.free = width * height;
     }
 
     /**
@@ -32,24 +67,39 @@ public class Board {
      *
      * @param source Source to copy
      */
-    public Board(Board source) {
-        this.board = new OrdinalBoard<>(source.board);
-        this.edges = new HashSet<>(source.edges);
+    Board(Board source) {
+        this.zobrist = source.zobrist;
+        this.hash = source.hash;
+        this.free = source.free;
+        this.patterns = ( source.patterns != null ) ? new PatternIndexes(source.patterns) : null;
+        this.symmetries = ( source.symmetries != null ) ? new SymmetricHashes(source.symmetries) : null;
     }
 
+    /**
+     * @return Independent copy of this board
+     */
+    public abstract Board copy();
+
     /**
      * @return Gets board width
      */
-    public int getWidth() {
-        return board.getWidth();
-    }
+    public abstract int getWidth();
 
     /**
      * @return Gets board height
      */
-    public int getHeight() {
-        return  board.getHeight();
-    }
+    public abstract int getHeight();
+
+    /**
+     * Gets tile at (x y).
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return Tile at (x y)
+     *
+     * @throws IndexOutOfBoundsException If (x y) does not point within the board
+     */
+    public abstract Tile get(int x, int y) throws IndexOutOfBoundsException;
 
     /**
      * Gets row.
@@ -60,35 +110,96 @@ public class Board {
      * @throws IndexOutOfBoundsException If index is not within board
      */
     public Stream<Tile> getRow(int y) throws IndexOutOfBoundsException {
-        return board.getRow(y);
+        if ( y < 0 || y >= getHeight() ) throw new IndexOutOfBoundsException();
+        return IntStream.range(0, getWidth())
+            .mapToObj(x -> get(x, y));
     }
 
     /**
-     * Performs {@code move} for {@code color}.
+     * Places {@code tile} at (x y) regardless of the rules.
+     * <p>
+     * Meant for initial setup only.
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @param tile Tile to place
+     *
+     * @throws IndexOutOfBoundsException If (x y) does not point within the board
+     */
+    abstract void place(int x, int y, Tile tile) throws IndexOutOfBoundsException;
+
+    /**
+     * Performs {@code move} for {@code color}, probing then applying it.
      *
      * @param color Capturing color
      * @param move Coordinates of move
      * @return Number of tiles captured, which is at least one
      *
      * @throws IllegalArgumentException If move is invalid
+     *
+     * @see #probe(Color, Coordinates)
      */
     public int nextMove(Color color, Coordinates move) throws IllegalArgumentException {
-        if ( !isValidMove(color, move) ) throw new IllegalArgumentException();
+        return apply(probe(color, move));
+    }
 
-        board.set(move, color.getTile());
-        updateEdges(move);
+    /**
+     * Probes {@code move} for {@code color}, finding whether it is valid and the tiles it captures in a single scan.
+     *
+     * @param color Capturing color
+     * @param move Move to probe
+     * @return Probe, to apply with {@link #apply(MoveProbe)} if valid
+     *
+     * @throws IndexOutOfBoundsException If move does not point within the board
+     */
+    public abstract MoveProbe probe(Color color, Coordinates move) throws IndexOutOfBoundsException;
+
+    /**
+     * Performs a probed move without scanning its rays again.
+     *
+     * @param probe Valid probe made on this board in its current position
+     * @return Number of tiles captured, which is at least one
+     *
+     * @throws IllegalArgumentException If probe is invalid, or was made on another board or position
+     */
+    public int apply(MoveProbe probe) throws IllegalArgumentException {
+        if ( !probe.isValid() || !probe.isCurrent(this) ) throw new IllegalArgumentException();
 
-        return encloseAll(color, move)
-            .reduce(
-                0,
-                (a, c) -> {
-                    board.set(c, color.getTile());
-                    return a + 1;
-                },
-                Integer::sum
-            );
+        return applyProbe(probe);
     }
 
+    /**
+     * Performs a valid and current probe.
+     *
+     * @param probe Probe
+     * @return Number of tiles captured
+     *
+     * @see #apply(MoveProbe)
+     */
+    abstract int applyProbe(MoveProbe probe);
+
+    /**
+     * Performs {@code move} for {@code color} without checking it, for moves known to be valid such as recorded ones.
+     * <p>
+     * Leaves the board in an unspecified state if the move is invalid.
+     *
+     * @param color Capturing color
+     * @param move Coordinates of a valid move
+     * @return Number of tiles captured
+     *
+     * @see #nextMove(Color, Coordinates)
+     */
+    abstract int applyMove(Color color, Coordinates move);
+
+    /**
+     * Undoes the last move performed by {@link #nextMove(Color, Coordinates)}, restoring captured tiles.
+     * <p>
+     * Moves are undone in reverse order, copies keep the moves of their source.
+     *
+     * @throws IllegalStateException If there is no move to undo
+     */
+    public abstract void unmakeMove() throws IllegalStateException;
+
     /**
      * Determines if {@code move} by {@code color} is valid.
      * <p>
@@ -97,17 +208,10 @@ public class Board {
      * @param color Capturing color
      * @param move Move to check
      * @return {@code true} if valid, {@code false} otherwise
+     *
+     * @throws IndexOutOfBoundsException If move does not point within the board
      */
-    public boolean isValidMove(Color color, Coordinates move) {
-        boolean valid;
-
-        if ( board.get(move) != Tile.FREE )
-            valid = false;
-        else
-            valid = encloseAny(color, move);
-
-        return valid;
-    }
+    public abstract boolean isValidMove(Color color, Coordinates move);
 
     /**
      * Finds any valid move for {@code color}.
@@ -127,103 +231,225 @@ public class Board {
      * @param color Color to find moves for
      * @return Stream of coordinates representing valid moves
      */
-    public Stream<Coordinates> findAllValidMoves(Color color) {
-        return edges.stream()
-            .filter(c -> isValidMove(color, c));
+    public abstract Stream<Coordinates> findAllValidMoves(Color color);
+
+    /**
+     * Finds all valid moves for {@code color}, into an array of exact size for implementations that know their count.
+     *
+     * @param color Color to find moves for
+     * @return Valid moves
+     */
+    Coordinates[] validMoveArray(Color color) {
+        return findAllValidMoves(color).toArray(Coordinates[]::new);
+    }
+
+    /**
+     * Counts valid moves for {@code color}, without building them for implementations that know their count.
+     *
+     * @param color Color to count moves for
+     * @return Number of valid moves
+     */
+    int countValidMoves(Color color) {
+        return (int) findAllValidMoves(color).count();
     }
 
     /**
-     * Initializes edges.
+     * @return Zobrist hash of tiles
      */
-    private void initializeEdges() {
-        board.traverse()
-            .filter(c -> board.get(c) != Tile.FREE)
-            .forEach(this::updateEdges);
+    public long getHash() {
+        return hash;
     }
 
     /**
-     * Updates edges with set tile {@code center}.
+     * @param next Color to move
+     * @return Zobrist hash of tiles and {@code next} to move
+     */
+    public long getHash(Color next) {
+        return hash ^ zobrist.side(next);
+    }
+
+    /**
+     * @param symmetry Symmetry
+     * @param next Color to move
+     * @return Zobrist hash of tiles of the image of this board by {@code symmetry} and {@code next} to move
      *
-     * @param center Non free tile
+     * @throws IllegalArgumentException If {@code symmetry} does not apply to board size
      */
-    private void updateEdges(Coordinates center) {
-        edges.remove(center);
-        Arrays.stream(Direction.values())
-            .map(d -> d.getNextOperator().apply(center))
-            .filter(c -> board.validate(c) && board.get(c) == Tile.FREE)
-            .forEach(edges::add);
+    public long getHash(Symmetry symmetry, Color next) throws IllegalArgumentException {
+        if ( !symmetry.supports(getWidth(), getHeight()) ) throw new IllegalArgumentException();
+
+        var hashes = new long[Symmetry.values().length];
+        symmetricHashes(hashes);
+        return hashes[symmetry.ordinal()] ^ zobrist.side(next);
     }
 
     /**
-     * Determines if any enclosing group exists for {@code color} from {@code origin}.
+     * Finds the symmetry mapping this board to its canonical image, the one of least hash.
      * <p>
-     * Stops searching on first match.
+     * Moves map to the canonical image with {@link Symmetry#apply(Coordinates, int, int)}, and back with its inverse.
+     * If the board is itself symmetric, several symmetries lead to the same image, and the first is returned.
+     * The color to move does not change the canonical image.
      *
-     * @param color Capturing color
-     * @param origin Origin to check
-     * @return {@code true} if any enclosing group exists, {@code false} otherwise
+     * @return Symmetry mapping this board to its canonical image
+     */
+    public Symmetry getCanonicalSymmetry() {
+        var hashes = new long[Symmetry.values().length];
+        symmetricHashes(hashes);
+
+        var canonical = Symmetry.IDENTITY;
+        for ( var symmetry : Symmetry.of(getWidth(), getHeight()) )
+            if ( hashes[symmetry.ordinal()] < hashes[canonical.ordinal()] )
+                canonical = symmetry;
+
+        return canonical;
+    }
+
+    /**
+     * @param next Color to move
+     * @return Zobrist hash of the canonical image of this board, equal for every symmetric board
+     */
+    public long getCanonicalHash(Color next) {
+        var hashes = new long[Symmetry.values().length];
+        symmetricHashes(hashes);
+
+        var canonical = hash;
+        for ( var symmetry : Symmetry.of(getWidth(), getHeight()) )
+            canonical = Math.min(canonical, hashes[symmetry.ordinal()]);
+
+        return canonical ^ zobrist.side(next);
+    }
+
+    /**
+     * Gets hashes of tiles of the images of this board by each symmetry applying to its size, tracked or computed.
      *
-     * @see #findMatch(Color, Coordinates, Direction)
+     * @param hashes Hash of image by {@code Symmetry} ordinal, to fill; others are left untouched
      */
-    private boolean encloseAny(Color color, Coordinates origin) {
-        return Arrays.stream(Direction.values())
-            .anyMatch(
-                d -> findMatch(color, d.getNextOperator().apply(origin), d)
-                    .isPresent()
-            );
+    private void symmetricHashes(long[] hashes) {
+        if ( symmetries == null ) {
+            computeSymmetricHashes(hashes);
+            return;
+        }
+
+        for ( var symmetry : Symmetry.of(getWidth(), getHeight()) )
+            hashes[symmetry.ordinal()] = symmetries.get(symmetry);
     }
 
     /**
-     * Finds enclosed tiles for {@code color} from {@code origin}.
+     * Computes hashes of tiles of the images of this board by each symmetry applying to its size, by scanning tiles.
+     * <p>
+     * Implementations may compute them faster.
      *
-     * @param color Capturing color
-     * @param origin Origin to check
-     * @return Stream of coordinates of enclosed tiles if any
+     * @param hashes Hash of image by {@code Symmetry} ordinal, to fill; others are left untouched
+     */
+    void computeSymmetricHashes(long[] hashes) {
+        var width = getWidth();
+        var height = getHeight();
+        var applicable = Symmetry.of(width, height);
+
+        for ( var symmetry : applicable )
+            hashes[symmetry.ordinal()] = 0L;
+        for ( int y = 0; y < height; y++ )
+            for ( int x = 0; x < width; x++ ) {
+                var tile = get(x, y);
+                if ( tile == Tile.FREE ) continue;
+
+                var color = ( tile == Tile.WHITE ) ? Color.WHITE : Color.BLACK;
+                for ( var symmetry : applicable )
+                    hashes[symmetry.ordinal()] ^= zobrist.tile(color, symmetry.apply(y * width + x, width, height));
+            }
+    }
+
+    /**
+     * Constant time count of free tiles.
      *
-     * @see #encloseAll(Color, Coordinates, Direction)
+     * @return Number of free tiles
      */
-    private Stream<Coordinates> encloseAll(Color color, Coordinates origin) {
-        return Arrays.stream(Direction.values())
-            .flatMap(d -> encloseAll(color, d.getNextOperator().apply(origin), d));
+    public int countFree() {
+        return free;
     }
 
     /**
-     * Finds enclosed tiles for {@code color} from {@code start} inclusive in {@code direction}.
+     * Starts tracking indexes of evaluation patterns, computed from scratch on first call then updated on every change.
      *
-     * @param color Capturing color
-     * @param start First coordinates to check
-     * @return Stream of coordinates of enclosed tiles if any
+     * @return Live pattern indexes of this board
+     */
+    public PatternIndexes trackPatterns() {
+        if ( patterns == null )
+            patterns = new PatternIndexes(this);
+
+        return patterns;
+    }
+
+    /**
+     * Starts tracking hashes of the images of this board by each symmetry, computed from scratch then updated on every change,
+     * so canonical hashes cost no scan of the tiles.
+     * <p>
+     * Worth it on large boards whose canonical hash is needed often.
+     */
+    public void trackSymmetries() {
+        if ( symmetries == null )
+            symmetries = new SymmetricHashes(this, zobrist);
+    }
+
+    /**
+     * Updates free tile count with {@code delta} tiles occupied, freed if negative.
      *
-     * @see #findMatch(Color, Coordinates, Direction)
+     * @param delta Number of tiles occupied
      */
-    private Stream<Coordinates> encloseAll(Color color, Coordinates start, Direction direction) {
-        return findMatch(color, start, direction)
-            .map(
-                m -> Stream.iterate(
-                    start,
-                    c -> !c.equals(m),
-                    direction.getNextOperator()
-                )
-            )
-            .orElse(Stream.empty());
+    final void occupy(int delta) {
+        free -= delta;
     }
 
     /**
-     * Finds enclosed group matching tile for {@code color} from {@code start} inclusive in {@code direction}.
+     * Updates hash, pattern indexes and symmetric hashes with a tile of {@code color} set on a free tile or cleared at {@code index}.
      *
-     * @param color Capturing color
-     * @param start First coordinates to check
-     * @param direction Direction to check
-     * @return Coordinates of matching tile if any.
-     */
-    private Optional<Coordinates> findMatch(Color color, Coordinates start, Direction direction) {
-        return Stream.iterate(
-                start,
-                c -> ( board.validate(c) && board.get(c) != Tile.FREE ), // contiguous non-free tiles
-                direction.getNextOperator()
-            )
-            .filter(c -> board.get(c) == color.getTile()) // matches
-            .findFirst()
-            .filter(c -> !c.equals(start)); // encloses at least one tile
+     * @param color Color of tile
+     * @param index Row major tile index {@code y * width + x}
+     */
+    final void hashTile(Color color, int index) {
+        hash ^= zobrist.tile(color, index);
+        if ( patterns != null )
+            patterns.toggle(color, index);
+        if ( symmetries != null )
+            symmetries.toggle(color, index);
+    }
+
+    /**
+     * Updates hash, pattern indexes and symmetric hashes with a tile flipped from one color to the other at {@code index}.
+     *
+     * @param index Row major tile index {@code y * width + x}
+     */
+    final void hashFlip(int index) {
+        hash ^= zobrist.flip(index);
+        if ( patterns != null )
+            patterns.flip(index);
+        if ( symmetries != null )
+            symmetries.flip(index);
+    }
+
+    /**
+     * Updates hash and free tile count with tile at (x y) replaced from {@code from} to {@code to}.
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @param from Previous tile
+     * @param to New tile
+     *
+     * @see #place(int, int, Tile)
+     */
+    final void hashPlace(int x, int y, Tile from, Tile to) {
+        var index = y * getWidth() + x;
+        if ( from == Tile.FREE && to != Tile.FREE )
+            occupy(1);
+        else if ( from != Tile.FREE && to == Tile.FREE )
+            occupy(-1);
+
+        // clear before set, pattern indexes tell them apart by current digit
+        for ( var color : Color.values() )
+            if ( from == color.getTile() )
+                hashTile(color, index);
+        for ( var color : Color.values() )
+            if ( to == color.getTile() )
+                hashTile(color, index);
     }
 }
@@ -2,8 +2,14 @@ package org.example.reversi;
 
 import org.example.board.ordinal.Coordinates;
 import org.example.board.ordinal.Direction;
-import org.example.board.ordinal.OrdinalBoard;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -11,28 +17,70 @@ import java.util.stream.Stream;
  */
 public class Game {
     /**
-     * Builds an {@code OrdinalBoard} of {@code width} and {@code height} with the initial game setup.
+     * Undo record of a move.
      *
+     * @param player Player that performed the move
+     * @param enclosed Number of opposing tiles captured
+     */
+    private record Ply(Player player, int enclosed) {}
+
+    /**
+     * Valid moves of a color, each stamped with the position version it was found in.
+     * <p>
+     * Entries are immutable once found, so copies of a game share them.
+     */
+    static private final class MoveCache {
+        private long anyVersion = -1;
+        private Coordinates any; // first valid move found, null if none
+        private long allVersion = -1;
+        private Coordinates[] all; // all valid moves
+        private Set<Coordinates> set; // of all, built on first lookup
+        private long countVersion = -1;
+        private int count; // number of valid moves
+
+        // self-explanatory
+        MoveCache() {}
+
+        /**
+         * Copy constructor.
+         *
+         * @param source Source to copy
+         */
+        MoveCache(MoveCache source) {
+            this.anyVersion = source.anyVersion;
+            this.any = source.any;
+            this.allVersion = source.allVersion;
+            this.all = source.all;
+            this.set = source.set;
+            this.countVersion = source.countVersion;
+            this.count = source.count;
+        }
+    }
+
+    /**
+     * Builds a {@code Board} of {@code width} and {@code height} backed by {@code storage} with the initial game setup.
+     *
+     * @param storage Board storage
      * @param width Multiple of 2 greater than or equal to 4
      * @param height Multiple of 2 greater than or equal to 4
      * @return Correctly initialized board
      *
-     * @see #Game(int, int)
+     * @see #Game(int, int, Storage)
      */
-    static private OrdinalBoard<Tile> buildInitialBoardState(int width, int height) {
-        var initial = new OrdinalBoard<>(Tile.FREE, width, height);
+    static private Board buildInitialBoardState(Storage storage, int width, int height) {
+        var initial = Board.of(storage, width, height);
 
         // set initial center tiles as:
         // w b
         // b w
-        var northWest = new Coordinates(initial.getWidth() / 2 - 1, initial.getHeight() / 2 - 1);
+        var northWest = new Coordinates(width / 2 - 1, height / 2 - 1);
         var northEast = Direction.EAST.getNextOperator().apply(northWest);
         var southWest = Direction.SOUTH.getNextOperator().apply(northWest);
         var southEast = Direction.SOUTHEAST.getNextOperator().apply(northWest);
-        initial.set(northWest, Tile.WHITE);
-        initial.set(southEast, Tile.WHITE);
-        initial.set(northEast, Tile.BLACK);
-        initial.set(southWest, Tile.BLACK);
+        initial.place(northWest.x(), northWest.y(), Tile.WHITE);
+        initial.place(southEast.x(), southEast.y(), Tile.WHITE);
+        initial.place(northEast.x(), northEast.y(), Tile.BLACK);
+        initial.place(southWest.x(), southWest.y(), Tile.BLACK);
 
         return initial;
     }
@@ -46,14 +94,21 @@ public class Game {
     private Player currentPlayer; // color for current turn
     private boolean over; // is game over?
 
+    private final Deque<Ply> history; // undo records of moves, last on top
+    private final List<MoveListener> listeners = new ArrayList<>(1); // not copied
+
+    private long version; // position version, advanced by every move and undo
+    private final MoveCache[] moveCaches; // valid moves of each Color by ordinal
+
     /**
-     * Constructs a game of Reversi on a board of {@code width} and {@code height}.
+     * Constructs a game of Reversi on a board of {@code width} and {@code height} backed by {@code storage}.
      *
      * @param width Multiple of 2 greater than or equal to 4
      * @param height Multiple of 2 greater than or equal to 4
-     * @throws IllegalArgumentException If any size is invalid
+     * @param storage Board storage, must support the size
+     * @throws IllegalArgumentException If any size is invalid or not supported by {@code storage}
      */
-    public Game(int width, int height) throws IllegalArgumentException {
+    public Game(int width, int height, Storage storage) throws IllegalArgumentException {
         if (
             width < 4
             || height < 4
@@ -62,7 +117,7 @@ public class Game {
         )
             throw new IllegalArgumentException();
 
-        this.board = new Board(buildInitialBoardState(width, height));
+        this.board = buildInitialBoardState(storage, width, height);
 
         this.white = new Player(Color.WHITE, 2);
         this.black = new Player(Color.BLACK, 2);
@@ -72,6 +127,50 @@ public class Game {
         turn = 1;
         currentPlayer = white;
         over = false;
+
+        this.history = new ArrayDeque<>();
+        this.moveCaches = new MoveCache[] { new MoveCache(), new MoveCache() };
+    }
+
+    /**
+     * Copy constructor.
+     * <p>
+     * Copies players and undo history, so the copy can undo moves performed on its source.
+     *
+     * @param source Source to copy
+     */
+    public Game(Game source) {
+        this.board = source.board.copy();
+
+        this.white = new Player(Color.WHITE, source.white.score);
+        this.black = new Player(Color.BLACK, source.black.score);
+        white.versus = black;
+        black.versus = white;
+
+        turn = source.turn;
+        currentPlayer = ( source.currentPlayer == source.white ) ? white : black;
+        over = source.over;
+
+        this.history = new ArrayDeque<>();
+        source.history.descendingIterator().forEachRemaining(
+            ply -> history.push(new Ply(( ply.player() == source.white ) ? white : black, ply.enclosed()))
+        );
+
+        version = source.version;
+        this.moveCaches = new MoveCache[] { new MoveCache(source.moveCaches[0]), new MoveCache(source.moveCaches[1]) };
+    }
+
+    /**
+     * Constructs a game of Reversi on a board of {@code width} and {@code height} backed by the fastest supporting storage.
+     *
+     * @param width Multiple of 2 greater than or equal to 4
+     * @param height Multiple of 2 greater than or equal to 4
+     * @throws IllegalArgumentException If any size is invalid
+     *
+     * @see Storage#select(int, int)
+     */
+    public Game(int width, int height) throws IllegalArgumentException {
+        this(width, height, Storage.select(width, height));
     }
 
     /**
@@ -91,14 +190,81 @@ public class Game {
      * @return {@code true} if coordinates are valid for next move, {@code false} otherwise
      */
     public boolean isValidMove(Coordinates move) {
-        return board.isValidMove(currentPlayer.getColor(), move);
+        var cache = moveCaches[currentPlayer.getColor().ordinal()];
+        if ( cache.allVersion != version ) return board.isValidMove(currentPlayer.getColor(), move);
+
+        if ( cache.set == null )
+            cache.set = Set.of(cache.all);
+        return cache.set.contains(move);
     }
 
     /**
+     * Finds all valid moves, computed once per position and cached until next move or undo.
+     *
      * @return All valid moves
      */
     public Stream<Coordinates> findValidMoves() {
-        return board.findAllValidMoves(currentPlayer.getColor());
+        return Arrays.stream(validMoves(currentPlayer.getColor()));
+    }
+
+    /**
+     * Counts valid moves without building them unless already found, cached until next move or undo.
+     *
+     * @return Number of valid moves
+     */
+    public int countValidMoves() {
+        var color = currentPlayer.getColor();
+        var cache = moveCaches[color.ordinal()];
+        if ( cache.countVersion != version ) {
+            cache.count = ( cache.allVersion == version ) ? cache.all.length : board.countValidMoves(color);
+            cache.countVersion = version;
+        }
+
+        return cache.count;
+    }
+
+    /**
+     * Finds any valid move, reusing the one found by the end of game check of last move.
+     *
+     * @return A valid move, empty if game is over
+     */
+    public Optional<Coordinates> findAnyValidMove() {
+        return over ? Optional.empty() : Optional.ofNullable(anyValidMove(currentPlayer.getColor()));
+    }
+
+    /**
+     * @param color Color
+     * @return Valid moves of {@code color} in current position, cached
+     */
+    private Coordinates[] validMoves(Color color) {
+        var cache = moveCaches[color.ordinal()];
+        if ( cache.allVersion != version ) {
+            cache.all = board.validMoveArray(color);
+            cache.set = null;
+            cache.allVersion = version;
+            if ( cache.anyVersion != version ) {
+                cache.any = ( cache.all.length > 0 ) ? cache.all[0] : null;
+                cache.anyVersion = version;
+            }
+        }
+
+        return cache.all;
+    }
+
+    /**
+     * @param color Color
+     * @return A valid move of {@code color} in current position, {@code null} if none, cached
+     */
+    private Coordinates anyValidMove(Color color) {
+        var cache = moveCaches[color.ordinal()];
+        if ( cache.anyVersion != version ) {
+            cache.any = ( cache.allVersion == version )
+                ? ( ( cache.all.length > 0 ) ? cache.all[0] : null )
+                : board.findAnyValidMove(color).orElse(null);
+            cache.anyVersion = version;
+        }
+
+        return cache.any;
     }
 
     /**
@@ -111,10 +277,111 @@ public class Game {
      */
     public void nextMove(Coordinates move) throws IllegalStateException, IllegalArgumentException {
         if ( over ) throw new IllegalStateException();
-        if ( !isValidMove(move) ) throw new IllegalArgumentException(); // duplicate check?
 
-        var enclosed = board.nextMove(currentPlayer.getColor(), move);
+        var enclosed = board.nextMove(currentPlayer.getColor(), move); // checks move while scanning it
+        history.push(new Ply(currentPlayer, enclosed));
+        version++;
         updateState(enclosed);
+        notifyMoved(move);
+    }
+
+    /**
+     * Probes {@code move} for current player, finding whether it is valid and what it captures in a single scan.
+     *
+     * @param move Coordinates to probe
+     * @return Probe, to perform with {@link #nextMove(MoveProbe)} if valid
+     *
+     * @throws IndexOutOfBoundsException If move does not point within the board
+     */
+    public MoveProbe probe(Coordinates move) throws IndexOutOfBoundsException {
+        return board.probe(currentPlayer.getColor(), move);
+    }
+
+    /**
+     * Performs a probed move for current player without scanning it again, and updates game state.
+     *
+     * @param probe Valid probe made by {@link #probe(Coordinates)} in current position
+     *
+     * @throws IllegalStateException If game is over
+     * @throws IllegalArgumentException If probe is invalid, or was made for another player or position
+     */
+    public void nextMove(MoveProbe probe) throws IllegalStateException, IllegalArgumentException {
+        if ( over ) throw new IllegalStateException();
+        if ( probe.getColor() != currentPlayer.getColor() ) throw new IllegalArgumentException();
+
+        var enclosed = board.apply(probe);
+        history.push(new Ply(currentPlayer, enclosed));
+        version++;
+        updateState(enclosed);
+        notifyMoved(probe.getMove());
+    }
+
+    /**
+     * Performs a move known to be valid, skipping move checks and the search for a reply of the opponent.
+     * <p>
+     * Replays recorded games, whose moves are valid and whose end is known. Leaves the game in an unspecified state
+     * if the move is invalid or {@code ends} is wrong.
+     *
+     * @param move Valid next move for current color
+     * @param ends Whether move ends the game, the opponent having no valid move
+     */
+    void replayMove(Coordinates move, boolean ends) {
+        var enclosed = board.applyMove(currentPlayer.getColor(), move);
+        history.push(new Ply(currentPlayer, enclosed));
+        version++;
+        updateState(enclosed, !ends);
+        notifyMoved(move);
+    }
+
+    /**
+     * @return {@code true} if a move can be undone, {@code false} otherwise
+     */
+    public boolean canUndo() {
+        return !history.isEmpty();
+    }
+
+    /**
+     * Undoes last move and restores game state as it was before it.
+     *
+     * @throws IllegalStateException If there is no move to undo
+     */
+    public void undo() throws IllegalStateException {
+        if ( history.isEmpty() ) throw new IllegalStateException();
+
+        var ply = history.pop();
+        board.unmakeMove();
+        version++;
+
+        // a move ending the game does not pass the turn
+        if ( over )
+            over = false;
+        else
+            turn -= 1;
+
+        currentPlayer = ply.player();
+        currentPlayer.score -= ply.enclosed() + 1;
+        currentPlayer.getVersus().score += ply.enclosed();
+
+        for ( int i = listeners.size() - 1; i >= 0; i-- )
+            listeners.get(i).undone(this);
+    }
+
+    /**
+     * Adds a listener notified of moves and undos of this game, but not of its copies.
+     * <p>
+     * Listeners are notified in reverse order of addition and may remove themselves when notified.
+     *
+     * @param listener Listener
+     */
+    public void addMoveListener(MoveListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener Listener to remove
+     */
+    public void removeMoveListener(MoveListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -166,6 +433,80 @@ public class Game {
         return over;
     }
 
+    /**
+     * Gets Zobrist hash of position, being board tiles and player to move.
+     * <p>
+     * Equal positions have equal hashes, distinct positions collide with negligible probability.
+     *
+     * @return Position hash
+     */
+    public long positionHash() {
+        return board.getHash(currentPlayer.getColor());
+    }
+
+    /**
+     * @return Zobrist hash of the canonical image of current position, equal for every symmetric position
+     *
+     * @see Board#getCanonicalHash(Color)
+     */
+    public long canonicalHash() {
+        return board.getCanonicalHash(currentPlayer.getColor());
+    }
+
+    /**
+     * @return Symmetry mapping current position to its canonical image
+     *
+     * @see Board#getCanonicalSymmetry()
+     */
+    public Symmetry canonicalSymmetry() {
+        return board.getCanonicalSymmetry();
+    }
+
+    /**
+     * Starts tracking hashes of symmetric images of the board, kept up to date by moves and undos.
+     *
+     * @see Board#trackSymmetries()
+     */
+    public void trackSymmetries() {
+        board.trackSymmetries();
+    }
+
+    /**
+     * @return Number of free tiles, in constant time
+     */
+    public int countFree() {
+        return board.countFree();
+    }
+
+    /**
+     * Starts tracking indexes of evaluation patterns of the board, kept up to date by moves and undos.
+     *
+     * @return Live pattern indexes
+     */
+    public PatternIndexes trackPatterns() {
+        return board.trackPatterns();
+    }
+
+    /**
+     * @return Independent copy of game board
+     */
+    public Board copyBoard() {
+        return board.copy();
+    }
+
+    /**
+     * Gets tile at (x y).
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return Tile at (x y)
+     *
+     * @throws IndexOutOfBoundsException If (x y) does not point within the board
+     */
+    public Tile getTile(int x, int y) throws IndexOutOfBoundsException {
+        return board.get(x, y);
+    }
+
     /**
      * @param y Row index
      * @return Ordered stream in column order
@@ -184,15 +525,20 @@ public class Game {
      * @see #nextMove(Coordinates)
      */
     private void updateState(int enclosed) {
+        updateState(enclosed, anyValidMove(currentPlayer.getVersus().getColor()) != null); // cached for next turn
+    }
+
+    /**
+     * Updates game state following a move.
+     *
+     * @param enclosed Number of opposing tiles captured by current player
+     * @param continues Whether opponent has a valid move
+     */
+    private void updateState(int enclosed, boolean continues) {
         currentPlayer.score += enclosed + 1;
         currentPlayer.getVersus().score -= enclosed;
 
-        if (
-            board.findAnyValidMove(
-                    currentPlayer.getVersus().getColor()
-                )
-                .isPresent()
-        ) {
+        if ( continues ) {
             currentPlayer = currentPlayer.getVersus();
             turn += 1;
         }
@@ -200,4 +546,10 @@ public class Game {
             over = true;
         }
     }
+
+    // self-explanatory
+    private void notifyMoved(Coordinates move) {
+        for ( int i = listeners.size() - 1; i >= 0; i-- )
+            listeners.get(i).moved(this, move);
+    }
 }
@@ -0,0 +1,109 @@
+package org.example.reversi;
+
+import org.example.board.ordinal.Coordinates;
+
+import java.util.Arrays;
+
+/**
+ * Record of a game: board size, rule variant and moves from the initial position.
+ * <p>
+ * Moves are row major tile indexes {@code y * width + x}, {@code PASS} marking a pass in variants that allow them.
+ *
+ * @param width Board width
+ * @param height Board height
+ * @param variant Rule variant
+ * @param finished Whether the last move ended the game
+ * @param moves Moves in order
+ *
+ * @see GameRecordWriter
+ * @see GameRecordReader
+ */
+public record GameRecord(int width, int height, Variant variant, boolean finished, int[] moves) {
+    /**
+     * Move of a player passing its turn.
+     */
+    static public final int PASS = -1;
+
+    /**
+     * Rules of a recorded game.
+     */
+    public enum Variant {
+        /**
+         * Rules of {@code Game}: white moves first and the game ends as soon as the player to move has no valid move,
+         * so there are no passes.
+         */
+        STANDARD
+    }
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @param variant Rule variant
+     * @param finished Whether the last move ended the game
+     * @param moves Moves in order
+     *
+     * @throws IllegalArgumentException If a move is not within the board or is a pass the variant does not allow
+     */
+    public GameRecord {
+        for ( var move : moves )
+            if ( move < 0 || move >= width * height ) throw new IllegalArgumentException(( move == PASS ) ? String.format("No passes in %s", variant) : String.format("Move out of board: %d", move));
+    }
+
+    /**
+     * Replays the game through {@code Game.nextMove}, checking every move and the end of the game.
+     *
+     * @return Game at the recorded position
+     *
+     * @throws IllegalArgumentException If size is invalid, a move is invalid, or the game ends elsewhere than recorded
+     */
+    public Game verify() throws IllegalArgumentException {
+        var game = new Game(width, height);
+        for ( var move : moves ) {
+            if ( game.isOver() ) throw new IllegalArgumentException("Moves after end of game");
+            game.nextMove(new Coordinates(move % width, move / width));
+        }
+        if ( game.isOver() != finished ) throw new IllegalArgumentException(finished ? "Game is not over" : "Game is over");
+
+        return game;
+    }
+
+    /**
+     * Replays the game trusting its moves, skipping the checks of {@code Game.nextMove} and the search for a reply
+     * after every move.
+     * <p>
+     * Meant for records written by {@code GameRecordWriter}; use {@link #verify()} for records of unknown origin,
+     * as the returned game is unspecified if a move is invalid.
+     *
+     * @return Game at the recorded position
+     *
+     * @throws IllegalArgumentException If size is invalid
+     */
+    public Game replay() throws IllegalArgumentException {
+        var game = new Game(width, height);
+        var last = moves.length - 1;
+        for ( int i = 0; i <= last; i++ )
+            game.replayMove(new Coordinates(moves[i] % width, moves[i] / width), finished && i == last);
+
+        return game;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof GameRecord record
+            && width == record.width
+            && height == record.height
+            && variant == record.variant
+            && finished == record.finished
+            && Arrays.equals(moves, record.moves);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * ( 31 * ( 31 * ( 31 * width + height ) + variant.hashCode() ) + Boolean.hashCode(finished) ) + Arrays.hashCode(moves);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GameRecord[%d x %d, %s, %s, %s]", width, height, variant, finished ? "finished" : "in progress", Arrays.toString(moves));
+    }
+}
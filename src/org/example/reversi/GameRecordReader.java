@@ -0,0 +1,127 @@
+package org.example.reversi;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Sequential reader of a game record file, streaming records through a buffer.
+ *
+ * @see GameRecordWriter
+ */
+public final class GameRecordReader implements AutoCloseable {
+    static private final int BUFFER_BYTES = 1 << 16;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).flip();
+
+    /**
+     * @param path Game record file
+     * @param channel Channel positioned after header
+     */
+    private GameRecordReader(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a game record file.
+     *
+     * @param path Game record file
+     * @return Reader, to close once done
+     *
+     * @throws IOException If file cannot be read or is not a game record file
+     */
+    static public GameRecordReader open(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            var header = ByteBuffer.allocate(GameRecordWriter.HEADER_BYTES);
+            while ( header.hasRemaining() && channel.read(header) >= 0 );
+            header.flip();
+            if ( header.remaining() < GameRecordWriter.HEADER_BYTES || header.getInt() != GameRecordWriter.MAGIC || header.getInt() != GameRecordWriter.VERSION ) throw new IOException(String.format("Not a game record file: %s", path));
+
+            return new GameRecordReader(path, channel);
+        }
+        catch ( IOException | RuntimeException e ) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads next record.
+     *
+     * @return Next record, empty at end of file
+     *
+     * @throws IOException If file cannot be read or holds an invalid record
+     */
+    public Optional<GameRecord> next() throws IOException {
+        if ( !buffer.hasRemaining() && !fill() ) return Optional.empty();
+
+        var width = getVarint();
+        var height = getVarint();
+        var variant = getVarint();
+        var flags = getVarint();
+        var count = getVarint();
+        if ( width < 1 || height < 1 || count < 0 || count > (long) width * height ) throw new IOException(String.format("Invalid record: %s", path));
+
+        var moves = new int[count];
+        for ( int i = 0; i < moves.length; i++ )
+            moves[i] = getVarint() - 1; // pass is 0
+
+        var variants = GameRecord.Variant.values();
+        if ( variant < 0 || variant >= variants.length ) throw new IOException(String.format("Unknown variant %d: %s", variant, path));
+
+        try {
+            return Optional.of(new GameRecord(width, height, variants[variant], ( flags & GameRecordWriter.FINISHED ) != 0, moves));
+        }
+        catch ( IllegalArgumentException e ) {
+            throw new IOException(String.format("Invalid record: %s", path), e);
+        }
+    }
+
+    /**
+     * Refills buffer.
+     *
+     * @return {@code true} if bytes were read, {@code false} at end of file
+     *
+     * @throws IOException If file cannot be read
+     */
+    private boolean fill() throws IOException {
+        buffer.compact();
+        var read = 0;
+        while ( buffer.position() == 0 && read >= 0 )
+            read = channel.read(buffer);
+        buffer.flip();
+
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * @return Unsigned varint
+     *
+     * @throws IOException If file cannot be read, ends within a record or holds a varint too long for an {@code int}
+     */
+    private int getVarint() throws IOException {
+        var value = 0;
+        for ( int shift = 0; shift < Integer.SIZE; shift += 7 ) {
+            if ( !buffer.hasRemaining() && !fill() ) throw new EOFException(String.format("Truncated record: %s", path));
+
+            var b = buffer.get();
+            value |= ( b & 0x7F ) << shift;
+            if ( b >= 0 ) return value;
+        }
+
+        throw new IOException(String.format("Invalid varint: %s", path));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
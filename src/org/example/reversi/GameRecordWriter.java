@@ -0,0 +1,306 @@
+package org.example.reversi;
+
+import org.example.board.ordinal.Coordinates;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming writer of game records, appending to a file through a buffer.
+ * <p>
+ * Games are recorded by listening to their moves, following undos, and written when told they end,
+ * so a writer holds the moves of the games in progress only. A position seen over is not taken as the end of its game,
+ * as a strategy searching the recorded game itself would reach and undo many; each record is checked to replay
+ * to the final position of its game before being written.
+ * <p>
+ * Reopening a file truncates any partial or invalid record at its end, left by a crash while writing,
+ * so records appended afterwards stay readable.
+ * <p>
+ * File format: magic {@code int} and version {@code int}, big-endian, followed by records of unsigned LEB128 varints:
+ * width, height, variant ordinal, flags ({@code 1} if finished), number of moves, then each move as
+ * its tile index plus one, {@code 0} being a pass.
+ *
+ * @see GameRecordReader
+ */
+public final class GameRecordWriter implements AutoCloseable {
+    static final int MAGIC = 0x52564752; // "RVGR"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int FINISHED = 1; // flag
+
+    static private final int BUFFER_BYTES = 1 << 16;
+    static private final int VARINT_BYTES = 5; // at most, of an int
+
+    /**
+     * Moves of a game being recorded.
+     */
+    private final class Recording implements MoveListener {
+        private final Game game;
+        private int[] moves = new int[64];
+        private int size;
+
+        // self-explanatory
+        Recording(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public void moved(Game game, Coordinates move) {
+            if ( size == moves.length )
+                moves = Arrays.copyOf(moves, size * 2);
+            moves[size++] = move.y() * game.getWidth() + move.x();
+        }
+
+        @Override
+        public void undone(Game game) {
+            size--;
+        }
+
+        /**
+         * Writes record, finished if the game is over, and stops recording.
+         *
+         * @throws IllegalStateException If record does not replay to the current position of the game
+         * @throws UncheckedIOException If file cannot be written
+         */
+        void end() throws IllegalStateException, UncheckedIOException {
+            game.removeMoveListener(this);
+            synchronized ( GameRecordWriter.this ) {
+                recordings.remove(this);
+                var record = new GameRecord(game.getWidth(), game.getHeight(), GameRecord.Variant.STANDARD, game.isOver(), Arrays.copyOf(moves, size));
+                var replayed = record.replay();
+                if ( replayed.positionHash() != game.positionHash() || replayed.getTurn() != game.getTurn() || replayed.isOver() != game.isOver() ) throw new IllegalStateException("Record does not replay to game");
+
+                try {
+                    write(record);
+                }
+                catch ( IOException e ) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final List<Recording> recordings = new ArrayList<>();
+    private long records;
+
+    /**
+     * @param channel Channel positioned after header
+     */
+    private GameRecordWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a game record file for appending, creating it if missing, after its last whole record.
+     *
+     * @param path Game record file
+     * @return Writer, to close once done
+     *
+     * @throws IOException If file cannot be opened or is not a game record file
+     */
+    static public GameRecordWriter open(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            var header = ByteBuffer.allocate(HEADER_BYTES);
+            if ( channel.size() == 0 ) {
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                while ( header.hasRemaining() )
+                    channel.write(header);
+            }
+            else {
+                while ( header.hasRemaining() && channel.read(header) >= 0 );
+                header.flip();
+                if ( header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION ) throw new IOException(String.format("Not a game record file: %s", path));
+
+                var end = lastRecordEnd(channel);
+                if ( end < channel.size() )
+                    channel.truncate(end);
+                channel.position(end);
+            }
+
+            return new GameRecordWriter(channel);
+        }
+        catch ( IOException | RuntimeException e ) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Finds the end of the last whole record, validating records like {@code GameRecordReader} does.
+     *
+     * @param channel Channel positioned after header
+     * @return Offset following the last whole record, header size if none
+     *
+     * @throws IOException If file cannot be read
+     */
+    static private long lastRecordEnd(FileChannel channel) throws IOException {
+        var buffer = ByteBuffer.allocate(BUFFER_BYTES).flip();
+        var offset = (long) HEADER_BYTES; // of next byte
+        var end = offset;
+
+        var field = 0; // index of varint within record: width, height, variant, flags, number of moves, then moves
+        var width = 0;
+        var height = 0;
+        var count = 0;
+        var value = 0;
+        var shift = 0;
+
+        while ( true ) {
+            if ( !buffer.hasRemaining() ) {
+                var read = channel.read(buffer.clear());
+                buffer.flip();
+                if ( read < 0 ) break;
+                continue;
+            }
+
+            if ( shift >= Integer.SIZE ) break; // varint too long
+            var b = buffer.get();
+            offset++;
+            value |= ( b & 0x7F ) << shift;
+            shift += 7;
+            if ( b < 0 ) continue;
+
+            var valid = switch (field) {
+                case 0 -> ( width = value ) >= 1;
+                case 1 -> ( height = value ) >= 1;
+                case 2 -> value >= 0 && value < GameRecord.Variant.values().length;
+                case 3 -> true;
+                case 4 -> ( count = value ) >= 0 && count <= (long) width * height;
+                default -> value >= 1 && value <= (long) width * height; // move index plus one
+            };
+            if ( !valid ) break;
+
+            field++;
+            value = 0;
+            shift = 0;
+            if ( field == count + 5 ) {
+                end = offset;
+                field = 0;
+            }
+        }
+
+        return end;
+    }
+
+    /**
+     * Records {@code game} from its first move, writing it once {@link #end(Game)} is called or when this writer is closed.
+     *
+     * @param game New game, no move performed yet
+     *
+     * @throws IllegalArgumentException If a move was already performed
+     */
+    public synchronized void record(Game game) throws IllegalArgumentException {
+        if ( game.canUndo() || game.isOver() ) throw new IllegalArgumentException("Game already started");
+
+        var recording = new Recording(game);
+        recordings.add(recording);
+        game.addMoveListener(recording);
+    }
+
+    /**
+     * Writes the record of {@code game}, finished if it is over, and stops recording it.
+     * <p>
+     * Meant to be called once the game is over, or to abandon it.
+     *
+     * @param game Game being recorded
+     *
+     * @throws IllegalArgumentException If {@code game} is not being recorded
+     * @throws IllegalStateException If the record does not replay to the current position of {@code game}
+     * @throws IOException If file cannot be written
+     */
+    public synchronized void end(Game game) throws IllegalArgumentException, IllegalStateException, IOException {
+        var recording = recordings.stream()
+            .filter(r -> r.game == game)
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Game not recorded"));
+
+        try {
+            recording.end();
+        }
+        catch ( UncheckedIOException e ) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param record Game record
+     *
+     * @throws IOException If file cannot be written
+     */
+    public synchronized void write(GameRecord record) throws IOException {
+        if ( buffer.remaining() < VARINT_BYTES * 5 )
+            flush();
+        putVarint(record.width());
+        putVarint(record.height());
+        putVarint(record.variant().ordinal());
+        putVarint(record.finished() ? FINISHED : 0);
+        putVarint(record.moves().length);
+
+        for ( var move : record.moves() ) {
+            if ( buffer.remaining() < VARINT_BYTES )
+                flush();
+            putVarint(move + 1); // pass is 0
+        }
+        records++;
+    }
+
+    // self-explanatory
+    private void putVarint(int value) {
+        while ( ( value & ~0x7F ) != 0 ) {
+            buffer.put((byte) ( ( value & 0x7F ) | 0x80 ));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * @return Number of records written
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * Writes buffered records to file.
+     *
+     * @throws IOException If file cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while ( buffer.hasRemaining() )
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Writes games still in progress as unfinished records, stops recording them and closes file.
+     *
+     * @throws IOException If file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            for ( var recording : List.copyOf(recordings) )
+                recording.end();
+            flush();
+        }
+        catch ( UncheckedIOException e ) {
+            throw e.getCause();
+        }
+        finally {
+            channel.close();
+        }
+    }
+}
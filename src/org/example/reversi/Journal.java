@@ -0,0 +1,91 @@
+package org.example.reversi;
+
+import java.util.Arrays;
+
+/**
+ * Growable stack of ints recording undo information of successive moves.
+ */
+class Journal {
+    static private final int INITIAL_CAPACITY = 64;
+
+    private int[] stack;
+    private int size;
+
+    /**
+     * Constructs an empty journal.
+     */
+    Journal() {
+        this.stack = new int[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param source Source to copy
+     */
+    Journal(Journal source) {
+        this.stack = Arrays.copyOf(source.stack, Math.max(source.size, INITIAL_CAPACITY));
+        this.size = source.size;
+    }
+
+    /**
+     * @return Number of recorded ints
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if nothing is recorded, {@code false} otherwise
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Pushes {@code i} on top of the journal.
+     *
+     * @param i Value to record
+     */
+    void push(int i) {
+        if ( size == stack.length )
+            stack = Arrays.copyOf(stack, size * 2);
+        stack[size++] = i;
+    }
+
+    /**
+     * Pops the top of the journal.
+     *
+     * @return Last recorded value
+     *
+     * @throws IllegalStateException If journal is empty
+     */
+    int pop() throws IllegalStateException {
+        if ( size == 0 ) throw new IllegalStateException();
+        return stack[--size];
+    }
+
+    /**
+     * @param index Position from the bottom of the journal
+     * @return Value recorded at {@code index}
+     *
+     * @throws IndexOutOfBoundsException If index is not within the journal
+     */
+    int get(int index) throws IndexOutOfBoundsException {
+        if ( index < 0 || index >= size ) throw new IndexOutOfBoundsException();
+        return stack[index];
+    }
+
+    /**
+     * Discards every value recorded past {@code size}.
+     *
+     * @param size New size, at most current size
+     *
+     * @throws IllegalArgumentException If size is invalid
+     */
+    void truncate(int size) throws IllegalArgumentException {
+        if ( size < 0 || size > this.size ) throw new IllegalArgumentException();
+        this.size = size;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.reversi;
+
+import org.example.board.ordinal.Coordinates;
+
+/**
+ * Observer of the moves of a {@code Game}, notified after game state is updated.
+ *
+ * @see Game#addMoveListener(MoveListener)
+ */
+public interface MoveListener {
+    /**
+     * Called after {@code move} was performed.
+     *
+     * @param game Game, whose current player is the one to move next unless it is over
+     * @param move Move performed
+     */
+    void moved(Game game, Coordinates move);
+
+    /**
+     * Called after last move was undone.
+     *
+     * @param game Game
+     */
+    default void undone(Game game) {}
+}
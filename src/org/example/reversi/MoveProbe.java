@@ -0,0 +1,88 @@
+package org.example.reversi;
+
+import org.example.board.ordinal.Coordinates;
+
+/**
+ * Immutable result of probing a move on a {@code Board}: whether it is valid and the tiles it captures,
+ * found by a single scan of its rays.
+ * <p>
+ * A valid probe is applied with {@link Board#apply(MoveProbe)} without scanning again, as long as the board it was
+ * probed on did not change in between.
+ *
+ * @see Board#probe(Color, Coordinates)
+ */
+public final class MoveProbe {
+    private final Board board; // probed board
+    private final long hash; // tiles hash of board when probed
+    private final Color color;
+    private final Coordinates move;
+    private final int captured;
+    private final long mask; // captured tiles of a BitBoard
+    private final int[] rays; // captured tiles along each Direction by ordinal, of other boards
+
+    /**
+     * @param board Probed board
+     * @param color Capturing color
+     * @param move Probed move
+     * @param captured Number of tiles captured, {@code 0} if move is invalid
+     * @param mask Captured tiles of a {@code BitBoard}, {@code 0} for other boards
+     * @param rays Captured tiles along each {@code Direction} by ordinal, {@code null} for a {@code BitBoard}
+     */
+    MoveProbe(Board board, Color color, Coordinates move, int captured, long mask, int[] rays) {
+        this.board = board;
+        this.hash = board.getHash();
+        this.color = color;
+        this.move = move;
+        this.captured = captured;
+        this.mask = mask;
+        this.rays = rays;
+    }
+
+    /**
+     * @return Capturing color
+     */
+    public Color getColor() {
+        return color;
+    }
+
+    /**
+     * @return Probed move
+     */
+    public Coordinates getMove() {
+        return move;
+    }
+
+    /**
+     * @return {@code true} if move captures at least one tile, {@code false} otherwise
+     */
+    public boolean isValid() {
+        return captured > 0;
+    }
+
+    /**
+     * @return Number of tiles captured, {@code 0} if move is invalid
+     */
+    public int getCaptured() {
+        return captured;
+    }
+
+    /**
+     * @param board Board
+     * @return {@code true} if probe was made on {@code board} in its current position, {@code false} otherwise
+     */
+    boolean isCurrent(Board board) {
+        return this.board == board && hash == board.getHash();
+    }
+
+    // self-explanatory
+    long getMask() {
+        return mask;
+    }
+
+    /**
+     * @return Number of tiles captured along each {@code Direction} by ordinal, shared and not to be modified
+     */
+    int[] getRays() {
+        return rays;
+    }
+}
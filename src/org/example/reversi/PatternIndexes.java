@@ -0,0 +1,116 @@
+package org.example.reversi;
+
+/**
+ * Ternary indexes of the patterns of a board, updated incrementally by the board on each placement and flip.
+ * <p>
+ * Updating costs a few operations per pattern covering the changed tile, and most tiles are covered by none.
+ * The digit of a tile is read back from the index of any pattern covering it, so no copy of tiles is kept.
+ *
+ * @see PatternLayout
+ */
+public final class PatternIndexes {
+    private final PatternLayout layout;
+    private final int[] indexes; // index of each instance
+
+    /**
+     * Computes indexes of {@code board} from scratch.
+     *
+     * @param board Board
+     */
+    PatternIndexes(Board board) {
+        this.layout = PatternLayout.of(board.getWidth(), board.getHeight());
+        this.indexes = new int[layout.size()];
+
+        for ( int i = 0; i < indexes.length; i++ ) {
+            var index = 0;
+            for ( int digit = layout.length(layout.getType(i)) - 1; digit >= 0; digit-- ) {
+                var tile = layout.getTile(i, digit);
+                index = index * 3 + digit(board.get(tile % board.getWidth(), tile / board.getWidth()));
+            }
+            indexes[i] = index;
+        }
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param source Source to copy
+     */
+    PatternIndexes(PatternIndexes source) {
+        this.layout = source.layout;
+        this.indexes = source.indexes.clone();
+    }
+
+    /**
+     * @param tile Tile
+     * @return Digit of {@code tile}
+     */
+    static private int digit(Tile tile) {
+        return switch (tile) {
+            case FREE -> 0;
+            case WHITE -> 1;
+            case BLACK -> 2;
+        };
+    }
+
+    // self-explanatory
+    public PatternLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @param instance Instance
+     * @return Index of {@code instance}
+     */
+    public int get(int instance) {
+        return indexes[instance];
+    }
+
+    /**
+     * Updates indexes with a tile of {@code color} set on a free tile or cleared at {@code tile}.
+     *
+     * @param color Color of tile
+     * @param tile Row major tile index
+     */
+    void toggle(Color color, int tile) {
+        var start = layout.tileStart(tile);
+        var end = layout.tileEnd(tile);
+        if ( start == end ) return; // not covered
+
+        var digit = currentDigit(start);
+        add(start, end, ( digit == 0 ) ? color.ordinal() + 1 : -digit);
+    }
+
+    /**
+     * Updates indexes with a tile flipped from one color to the other at {@code tile}.
+     *
+     * @param tile Row major tile index
+     */
+    void flip(int tile) {
+        var start = layout.tileStart(tile);
+        var end = layout.tileEnd(tile);
+        if ( start == end ) return; // not covered
+
+        add(start, end, 3 - 2 * currentDigit(start)); // 1 to 2 or 2 to 1
+    }
+
+    /**
+     * @param entry Entry of a covered tile
+     * @return Digit of tile in index of entry instance
+     */
+    private int currentDigit(int entry) {
+        return indexes[layout.entryInstance(entry)] / layout.entryPower(entry) % 3;
+    }
+
+    /**
+     * Adds {@code delta} to the digit of a tile in every instance covering it.
+     *
+     * @param start First entry of tile
+     * @param end Past last entry of tile
+     * @param delta Digit change
+     */
+    private void add(int start, int end, int delta) {
+        for ( int e = start; e < end; e++ )
+            indexes[layout.entryInstance(e)] += delta * layout.entryPower(e);
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.reversi;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluation patterns of a board size: lines of tiles anchored at corners, each read as a ternary number.
+ * <p>
+ * Every corner anchors one instance of each type, read outwards from the corner: a 3 x 3 block,
+ * both edges, both lines next to the edges, and the diagonal. Lines hold up to {@code MAX_LINE} tiles,
+ * fewer on smaller boards. Instances of a type share a weight table, their tiles being read in symmetric orders.
+ * <p>
+ * Tile {@code i} of an instance contributes {@code digit * 3^i} to its index, digit being {@code 0} for free,
+ * {@code 1} for white and {@code 2} for black. Layouts are immutable and shared by every board of a size.
+ */
+public final class PatternLayout {
+    /**
+     * Pattern types.
+     */
+    public enum Type {
+        CORNER,
+        EDGE,
+        SECOND, // line next to an edge
+        DIAGONAL
+    }
+
+    static private final int MAX_LINE = 8; // tiles of a line pattern
+    static private final int BLOCK = 3; // side of a corner pattern
+
+    static private final Map<Long, PatternLayout> LAYOUTS = new ConcurrentHashMap<>(); // by size
+
+    /**
+     * Gets layout of a board of {@code width} and {@code height}.
+     *
+     * @param width Board width, at least 4
+     * @param height Board height, at least 4
+     * @return Layout of size
+     *
+     * @throws IllegalArgumentException If any size is less than 4
+     */
+    static public PatternLayout of(int width, int height) throws IllegalArgumentException {
+        if ( width < 4 || height < 4 ) throw new IllegalArgumentException();
+
+        return LAYOUTS.computeIfAbsent(( (long) width << Integer.SIZE ) | height, s -> new PatternLayout(width, height));
+    }
+
+    private final int width;
+    private final int height;
+    private final int lineLength; // tiles of a line pattern
+
+    private final Type[] types; // type of each instance
+    private final int[][] tiles; // row major tile indexes of each instance, in digit order
+
+    // instances covering each tile, compressed: entries of tile t in [tileStart[t] tileStart[t + 1])
+    private final int[] tileStart;
+    private final int[] entryInstance;
+    private final int[] entryPower; // 3^digit position
+
+    private PatternLayout(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.lineLength = Math.min(MAX_LINE, Math.min(width, height));
+
+        var types = new ArrayList<Type>();
+        var tiles = new ArrayList<int[]>();
+        var right = width - 1;
+        var bottom = height - 1;
+        for ( var corner : new int[][] { { 0, 0, 1, 1 }, { right, 0, -1, 1 }, { 0, bottom, 1, -1 }, { right, bottom, -1, -1 } } ) {
+            var cx = corner[0];
+            var cy = corner[1];
+            var dx = corner[2];
+            var dy = corner[3];
+
+            var block = new int[BLOCK * BLOCK];
+            for ( int j = 0; j < BLOCK; j++ )
+                for ( int i = 0; i < BLOCK; i++ )
+                    block[j * BLOCK + i] = index(cx + dx * i, cy + dy * j);
+            types.add(Type.CORNER);
+            tiles.add(block);
+
+            types.add(Type.EDGE);
+            tiles.add(line(cx, cy, dx, 0));
+            types.add(Type.EDGE);
+            tiles.add(line(cx, cy, 0, dy));
+            types.add(Type.SECOND);
+            tiles.add(line(cx, cy + dy, dx, 0));
+            types.add(Type.SECOND);
+            tiles.add(line(cx + dx, cy, 0, dy));
+            types.add(Type.DIAGONAL);
+            tiles.add(line(cx, cy, dx, dy));
+        }
+        this.types = types.toArray(Type[]::new);
+        this.tiles = tiles.toArray(int[][]::new);
+
+        // count then fill entries of each tile
+        this.tileStart = new int[width * height + 1];
+        for ( var instance : this.tiles )
+            for ( var tile : instance )
+                tileStart[tile + 1]++;
+        for ( int t = 0; t < width * height; t++ )
+            tileStart[t + 1] += tileStart[t];
+
+        this.entryInstance = new int[tileStart[width * height]];
+        this.entryPower = new int[entryInstance.length];
+        var next = tileStart.clone();
+        for ( int i = 0; i < this.tiles.length; i++ ) {
+            var power = 1;
+            for ( var tile : this.tiles[i] ) {
+                entryInstance[next[tile]] = i;
+                entryPower[next[tile]] = power;
+                next[tile]++;
+                power *= 3;
+            }
+        }
+    }
+
+    // self-explanatory
+    private int index(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * @return Row major tile indexes of the line of {@code lineLength} tiles from (x y) towards (dx dy)
+     */
+    private int[] line(int x, int y, int dx, int dy) {
+        var line = new int[lineLength];
+        for ( int i = 0; i < line.length; i++ )
+            line[i] = index(x + dx * i, y + dy * i);
+
+        return line;
+    }
+
+    // self-explanatory
+    public int getWidth() {
+        return width;
+    }
+
+    // self-explanatory
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Number of pattern instances
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * @param instance Instance
+     * @return Type of {@code instance}
+     */
+    public Type getType(int instance) {
+        return types[instance];
+    }
+
+    /**
+     * @param type Type
+     * @return Number of tiles of instances of {@code type}
+     */
+    public int length(Type type) {
+        return ( type == Type.CORNER ) ? BLOCK * BLOCK : lineLength;
+    }
+
+    /**
+     * @param type Type
+     * @return Number of distinct indexes of {@code type}, {@code 3^length}
+     */
+    public int indexes(Type type) {
+        var indexes = 1;
+        for ( int i = 0; i < length(type); i++ )
+            indexes *= 3;
+
+        return indexes;
+    }
+
+    /**
+     * @param instance Instance
+     * @param digit Digit position
+     * @return Row major tile index read at {@code digit} of {@code instance}
+     */
+    public int getTile(int instance, int digit) {
+        return tiles[instance][digit];
+    }
+
+    // first entry of instances covering tile
+    int tileStart(int tile) {
+        return tileStart[tile];
+    }
+
+    // past last entry of instances covering tile
+    int tileEnd(int tile) {
+        return tileStart[tile + 1];
+    }
+
+    // instance of entry
+    int entryInstance(int entry) {
+        return entryInstance[entry];
+    }
+
+    // weight of tile digit in index of entry instance
+    int entryPower(int entry) {
+        return entryPower[entry];
+    }
+}
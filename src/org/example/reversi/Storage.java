@@ -0,0 +1,59 @@
+package org.example.reversi;
+
+/**
+ * Storage backing a {@code Board}, trading supported sizes and memory for speed.
+ */
+public enum Storage {
+    /**
+     * Pair of 64 bit bitboards, 8 x 8 only
+     */
+    BITBOARD,
+    /**
+     * Pair of multi-word bitplanes, up to 1024 x 1024
+     */
+    BITPLANE,
+    /**
+     * One byte per tile, any size
+     */
+    BYTE,
+    /**
+     * Two bits per tile, any size; slower than {@code BYTE} but four times smaller
+     */
+    PACKED;
+
+    // past this many tiles, whole plane scans of BITPLANE fall behind incremental BYTE updates
+    static private final int BITPLANE_TILES = 8192;
+
+    /**
+     * Selects the fastest storage supporting a board of {@code width} and {@code height}.
+     *
+     * @param width Board width
+     * @param height Board height
+     * @return Fastest supporting storage
+     */
+    static public Storage select(int width, int height) {
+        Storage storage;
+
+        if ( BITBOARD.supports(width, height) )
+            storage = BITBOARD;
+        else if ( BITPLANE.supports(width, height) && width * height <= BITPLANE_TILES )
+            storage = BITPLANE;
+        else
+            storage = BYTE;
+
+        return storage;
+    }
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @return {@code true} if this storage can represent a board of {@code width} and {@code height}, {@code false} otherwise
+     */
+    public boolean supports(int width, int height) {
+        return switch (this) {
+            case BITBOARD -> BitBoard.supports(width, height);
+            case BITPLANE -> BitPlaneBoard.supports(width, height);
+            case BYTE, PACKED -> ( width > 0 && height > 0 );
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.reversi;
+
+/**
+ * Zobrist hashes of the images of a board by each of its symmetries, updated incrementally by the board
+ * on each placement and flip.
+ * <p>
+ * Updating costs one key per symmetry and changed tile, so canonical hashes of large boards cost no scan of the tiles.
+ *
+ * @see Symmetry
+ */
+final class SymmetricHashes {
+    private final Zobrist zobrist; // keys of board size
+    private final int[][] images; // image of each row major tile index by Symmetry ordinal, null if not applicable
+    private final long[] hashes; // hash of tiles of image by Symmetry ordinal
+
+    /**
+     * Computes hashes of {@code board} from scratch.
+     *
+     * @param board Board
+     * @param zobrist Keys of board size
+     */
+    SymmetricHashes(Board board, Zobrist zobrist) {
+        var width = board.getWidth();
+        var height = board.getHeight();
+
+        this.zobrist = zobrist;
+        this.images = new int[Symmetry.values().length][];
+        this.hashes = new long[images.length];
+
+        for ( var symmetry : Symmetry.of(width, height) ) {
+            var image = new int[width * height];
+            for ( int i = 0; i < image.length; i++ )
+                image[i] = symmetry.apply(i, width, height);
+            images[symmetry.ordinal()] = image;
+        }
+
+        for ( int y = 0; y < height; y++ )
+            for ( int x = 0; x < width; x++ ) {
+                var tile = board.get(x, y);
+                if ( tile != Tile.FREE )
+                    toggle(( tile == Tile.WHITE ) ? Color.WHITE : Color.BLACK, y * width + x);
+            }
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param source Source to copy
+     */
+    SymmetricHashes(SymmetricHashes source) {
+        this.zobrist = source.zobrist;
+        this.images = source.images; // immutable
+        this.hashes = source.hashes.clone();
+    }
+
+    /**
+     * @param symmetry Symmetry applying to board
+     * @return Hash of tiles of image of board by {@code symmetry}
+     */
+    long get(Symmetry symmetry) {
+        return hashes[symmetry.ordinal()];
+    }
+
+    /**
+     * Updates hashes with a tile of {@code color} set on a free tile or cleared at {@code index}.
+     *
+     * @param color Color of tile
+     * @param index Row major tile index
+     */
+    void toggle(Color color, int index) {
+        for ( int s = 0; s < images.length; s++ )
+            if ( images[s] != null )
+                hashes[s] ^= zobrist.tile(color, images[s][index]);
+    }
+
+    /**
+     * Updates hashes with a tile flipped from one color to the other at {@code index}.
+     *
+     * @param index Row major tile index
+     */
+    void flip(int index) {
+        for ( int s = 0; s < images.length; s++ )
+            if ( images[s] != null )
+                hashes[s] ^= zobrist.flip(images[s][index]);
+    }
+}
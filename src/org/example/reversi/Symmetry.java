@@ -0,0 +1,157 @@
+package org.example.reversi;
+
+import org.example.board.ordinal.Coordinates;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Symmetries of a board, the dihedral group of the square: rotations clockwise and reflections.
+ * <p>
+ * The rules of Reversi are invariant under every symmetry, so symmetric positions have the same score,
+ * and their moves map onto one another. Symmetries transposing the axes only apply to square boards;
+ * other boards have 4 symmetries.
+ *
+ * @see Board#getCanonicalHash(Color)
+ */
+public enum Symmetry {
+    IDENTITY,
+    ROTATE_90,
+    ROTATE_180,
+    ROTATE_270,
+    FLIP_HORIZONTAL, // mirrors columns
+    FLIP_VERTICAL, // mirrors rows
+    TRANSPOSE, // mirrors along the diagonal from (0 0)
+    ANTI_TRANSPOSE; // mirrors along the other diagonal
+
+    static private final List<Symmetry> ALL = List.of(values());
+    static private final List<Symmetry> RECTANGLE = Arrays.stream(values())
+        .filter(s -> !s.transposes())
+        .toList();
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @return Symmetries of a board of {@code width} and {@code height}, identity first
+     */
+    static public List<Symmetry> of(int width, int height) {
+        return ( width == height ) ? ALL : RECTANGLE;
+    }
+
+    /**
+     * @return {@code true} if this symmetry exchanges axes, only applying to square boards
+     */
+    public boolean transposes() {
+        return switch (this) {
+            case ROTATE_90, ROTATE_270, TRANSPOSE, ANTI_TRANSPOSE -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @return {@code true} if this symmetry applies to a board of {@code width} and {@code height}
+     */
+    public boolean supports(int width, int height) {
+        return width == height || !transposes();
+    }
+
+    /**
+     * @return Symmetry undoing this one
+     */
+    public Symmetry inverse() {
+        return switch (this) {
+            case ROTATE_90 -> ROTATE_270;
+            case ROTATE_270 -> ROTATE_90;
+            default -> this;
+        };
+    }
+
+    /**
+     * Maps coordinates to their image.
+     *
+     * @param coordinates Coordinates within board
+     * @param width Board width
+     * @param height Board height
+     * @return Image of {@code coordinates}
+     *
+     * @throws IllegalArgumentException If this symmetry does not apply to the board
+     */
+    public Coordinates apply(Coordinates coordinates, int width, int height) throws IllegalArgumentException {
+        var index = apply(coordinates.y() * width + coordinates.x(), width, height);
+        return new Coordinates(index % width, index / width);
+    }
+
+    /**
+     * Maps a row major tile index to its image.
+     *
+     * @param index Row major tile index {@code y * width + x}
+     * @param width Board width
+     * @param height Board height
+     * @return Row major index of image
+     *
+     * @throws IllegalArgumentException If this symmetry does not apply to the board
+     */
+    int apply(int index, int width, int height) throws IllegalArgumentException {
+        if ( !supports(width, height) ) throw new IllegalArgumentException();
+
+        var x = index % width;
+        var y = index / width;
+        var right = width - 1;
+        var bottom = height - 1;
+
+        return switch (this) {
+            case IDENTITY -> index;
+            case ROTATE_90 -> x * width + ( bottom - y );
+            case ROTATE_180 -> ( bottom - y ) * width + ( right - x );
+            case ROTATE_270 -> ( right - x ) * width + y;
+            case FLIP_HORIZONTAL -> y * width + ( right - x );
+            case FLIP_VERTICAL -> ( bottom - y ) * width + x;
+            case TRANSPOSE -> x * width + y;
+            case ANTI_TRANSPOSE -> ( right - x ) * width + ( bottom - y );
+        };
+    }
+
+    /**
+     * Maps an 8 x 8 bitboard, tile (x y) being bit {@code y * 8 + x}, to its image with shifts and masks.
+     *
+     * @param b Bitboard
+     * @return Image of {@code b}
+     */
+    long apply(long b) {
+        return switch (this) {
+            case IDENTITY -> b;
+            case ROTATE_90 -> mirror(transpose(b));
+            case ROTATE_180 -> Long.reverse(b);
+            case ROTATE_270 -> Long.reverseBytes(transpose(b));
+            case FLIP_HORIZONTAL -> mirror(b);
+            case FLIP_VERTICAL -> Long.reverseBytes(b);
+            case TRANSPOSE -> transpose(b);
+            case ANTI_TRANSPOSE -> Long.reverse(transpose(b));
+        };
+    }
+
+    /**
+     * @param b Bitboard
+     * @return {@code b} with columns mirrored, reversing bits within each byte
+     */
+    static private long mirror(long b) {
+        b = ( ( b >>> 1 ) & 0x5555555555555555L ) | ( ( b & 0x5555555555555555L ) << 1 );
+        b = ( ( b >>> 2 ) & 0x3333333333333333L ) | ( ( b & 0x3333333333333333L ) << 2 );
+        return ( ( b >>> 4 ) & 0x0F0F0F0F0F0F0F0FL ) | ( ( b & 0x0F0F0F0F0F0F0F0FL ) << 4 );
+    }
+
+    /**
+     * @param b Bitboard
+     * @return {@code b} mirrored along the diagonal from (0 0), by three delta swaps
+     */
+    static private long transpose(long b) {
+        var t = 0x0F0F0F0F00000000L & ( b ^ ( b << 28 ) );
+        b ^= t ^ ( t >>> 28 );
+        t = 0x3333000033330000L & ( b ^ ( b << 14 ) );
+        b ^= t ^ ( t >>> 14 );
+        t = 0x5500550055005500L & ( b ^ ( b << 7 ) );
+        return b ^ t ^ ( t >>> 7 );
+    }
+}
@@ -0,0 +1,421 @@
+package org.example.reversi;
+
+import org.example.board.ByteBoard;
+import org.example.board.PackedBoard;
+import org.example.board.PrimitiveBoard;
+import org.example.board.ordinal.Coordinates;
+import org.example.board.ordinal.Direction;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Board that implements the enclosing rules of Reversi on a {@code PrimitiveBoard} of tile ordinals.
+ * <p>
+ * Supports any board size, storing tiles either as bytes or packed as 2 bits.
+ * The storage is padded with a border of {@code SENTINEL} tiles, so rays walk by linear index offsets
+ * and stop on the border without any bounds test.
+ * <p>
+ * Valid moves of each color are maintained incrementally: after a move, only free tiles ending a ray
+ * through a changed tile are re-evaluated.
+ * <p>
+ * Each move is recorded in a {@code Journal} as its captured tiles, its frontier delta, then a header of
+ * placed tile, number of captured tiles, size of frontier delta and color.
+ */
+class TileBoard extends Board {
+    static private final Tile[] TILES = Tile.values(); // tiles by ordinal
+    static private final byte FREE = encode(Tile.FREE);
+    static private final byte SENTINEL = (byte) TILES.length; // border tile, neither free nor owned
+
+    /**
+     * @param tile Tile
+     * @return Byte representation of {@code tile}
+     */
+    static private byte encode(Tile tile) {
+        return (byte) tile.ordinal();
+    }
+
+    /**
+     * @param b Byte representation of a tile
+     * @return Decoded tile
+     */
+    static private Tile decode(int b) {
+        return TILES[b];
+    }
+
+    private final PrimitiveBoard board; // padded by one tile on each side
+    private final int width;
+    private final int height;
+    private final int[] offsets; // linear index delta of each Direction by ordinal
+    private final BitSet edges; // free tiles adjacent to a non-free tile, by linear index
+    private final BitSet[] valid; // valid moves of each Color by ordinal, by linear index
+    private final Journal journal; // undo records of moves
+
+    /**
+     * Constructs an empty board of {@code width} and {@code height}.
+     *
+     * @param width Board width
+     * @param height Board height
+     * @param packed {@code true} to store tiles as 2 bits, {@code false} as bytes
+     *
+     * @throws IllegalArgumentException If any size is invalid
+     */
+    TileBoard(int width, int height, boolean packed) throws IllegalArgumentException {
+        super(width, height);
+        if ( width <= 0 || height <= 0 ) throw new IllegalArgumentException();
+
+        this.board = packed
+            ? new PackedBoard(FREE, width + 2, height + 2)
+            : new ByteBoard(FREE, width + 2, height + 2);
+        this.width = width;
+        this.height = height;
+        this.offsets = Arrays.stream(Direction.values())
+            .mapToInt(d -> d.offset(board.getStride()))
+            .toArray();
+
+        // surround with border
+        for ( int x = 0; x < width + 2; x++ ) {
+            board.set(x, 0, SENTINEL);
+            board.set(x, height + 1, SENTINEL);
+        }
+        for ( int y = 1; y <= height; y++ ) {
+            board.set(0, y, SENTINEL);
+            board.set(width + 1, y, SENTINEL);
+        }
+
+        this.edges = new BitSet();
+        this.valid = new BitSet[] { new BitSet(), new BitSet() };
+        this.journal = new Journal();
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param source Source to copy
+     */
+    TileBoard(TileBoard source) {
+        super(source);
+        this.board = source.board.copy();
+        this.width = source.width;
+        this.height = source.height;
+        this.offsets = source.offsets;
+        this.edges = (BitSet) source.edges.clone();
+        this.valid = new BitSet[] { (BitSet) source.valid[0].clone(), (BitSet) source.valid[1].clone() };
+        this.journal = new Journal(source.journal);
+    }
+
+    @Override
+    public TileBoard copy() {
+        return new TileBoard(this);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Tile get(int x, int y) throws IndexOutOfBoundsException {
+        return decode(board.get(index(x, y)));
+    }
+
+    @Override
+    public Stream<Tile> getRow(int y) throws IndexOutOfBoundsException {
+        if ( y < 0 || y >= height ) throw new IndexOutOfBoundsException();
+        return board.getRow(y + 1)
+            .skip(1)
+            .limit(width)
+            .mapToObj(TileBoard::decode);
+    }
+
+    @Override
+    void place(int x, int y, Tile tile) throws IndexOutOfBoundsException {
+        var index = index(x, y);
+        hashPlace(x, y, decode(board.get(index)), tile);
+        board.set(index, encode(tile));
+        updateEdges(index, false);
+        updateValid(index);
+    }
+
+    @Override
+    public MoveProbe probe(Color color, Coordinates move) throws IndexOutOfBoundsException {
+        var index = index(move.x(), move.y());
+        if ( !valid[color.ordinal()].get(index) ) return new MoveProbe(this, color, move, 0, 0L, null);
+
+        var rays = new int[offsets.length];
+        return new MoveProbe(this, color, move, enclose(color, index, rays), 0L, rays);
+    }
+
+    @Override
+    int applyProbe(MoveProbe probe) {
+        var move = probe.getMove();
+        return capture(probe.getColor(), index(move.x(), move.y()), probe.getRays());
+    }
+
+    @Override
+    int applyMove(Color color, Coordinates move) {
+        var index = index(move.x(), move.y());
+        var rays = new int[offsets.length];
+        enclose(color, index, rays);
+
+        return capture(color, index, rays);
+    }
+
+    /**
+     * Places a tile of {@code color} at {@code index} and captures enclosed tiles, journaling the move.
+     *
+     * @param color Capturing color
+     * @param index Linear index of move
+     * @param rays Number of tiles enclosed along each direction by ordinal
+     * @return Number of tiles captured
+     */
+    private int capture(Color color, int index, int[] rays) {
+        var tile = encode(color.getTile());
+        board.set(index, tile);
+        hashTile(color, tileIndex(index));
+        occupy(1);
+
+        var start = journal.size();
+        var captured = 0;
+        for ( int d = 0; d < rays.length; d++ ) {
+            var offset = offsets[d];
+            for ( int i = 1, j = index + offset; i <= rays[d]; i++, j += offset ) {
+                board.set(j, tile);
+                journal.push(j);
+                hashFlip(tileIndex(j));
+            }
+            captured += rays[d];
+        }
+        var added = updateEdges(index, true);
+
+        updateValid(index);
+        for ( int i = start; i < start + captured; i++ )
+            updateValid(journal.get(i));
+
+        journal.push(index);
+        journal.push(captured);
+        journal.push(added);
+        journal.push(color.ordinal());
+
+        return captured;
+    }
+
+    @Override
+    public void unmakeMove() throws IllegalStateException {
+        if ( journal.isEmpty() ) throw new IllegalStateException();
+
+        var color = Color.values()[journal.pop()];
+        var added = journal.pop();
+        var captured = journal.pop();
+        var index = journal.pop();
+
+        var end = journal.size();
+        for ( int i = end - added; i < end; i++ )
+            edges.clear(journal.get(i));
+        edges.set(index); // a valid move is always an edge
+
+        var start = end - added - captured;
+        var opponent = encode(color.getVersus().getTile());
+        for ( int i = start; i < start + captured; i++ ) {
+            board.set(journal.get(i), opponent);
+            hashFlip(tileIndex(journal.get(i)));
+        }
+        board.set(index, FREE);
+        hashTile(color, tileIndex(index));
+        occupy(-1);
+
+        updateValid(index);
+        for ( int i = start; i < start + captured; i++ )
+            updateValid(journal.get(i));
+
+        journal.truncate(start);
+    }
+
+    @Override
+    public boolean isValidMove(Color color, Coordinates move) {
+        return valid[color.ordinal()].get(index(move.x(), move.y()));
+    }
+
+    @Override
+    public Optional<Coordinates> findAnyValidMove(Color color) {
+        var index = valid[color.ordinal()].nextSetBit(0);
+        return ( index < 0 )
+            ? Optional.empty()
+            : Optional.of(coordinates(index));
+    }
+
+    @Override
+    public Stream<Coordinates> findAllValidMoves(Color color) {
+        return valid[color.ordinal()].stream()
+            .mapToObj(this::coordinates);
+    }
+
+    @Override
+    int countValidMoves(Color color) {
+        return valid[color.ordinal()].cardinality();
+    }
+
+    /**
+     * Updates valid moves following a change of tile at {@code center}.
+     * <p>
+     * Validity of a free tile only depends on contiguous non-free tiles along its rays:
+     * walking such tiles away from {@code center} finds every free tile whose validity may have changed.
+     *
+     * @param center Linear index of a changed tile
+     */
+    private void updateValid(int center) {
+        updateValidAt(center);
+
+        for ( var offset : offsets ) {
+            var i = center + offset;
+            var tile = board.get(i);
+            while ( tile != FREE && tile != SENTINEL ) {
+                i += offset;
+                tile = board.get(i);
+            }
+
+            if ( tile == FREE )
+                updateValidAt(i);
+        }
+    }
+
+    /**
+     * Re-evaluates validity of tile at {@code index} for both colors.
+     * <p>
+     * Only edges may be valid.
+     *
+     * @param index Linear index
+     */
+    private void updateValidAt(int index) {
+        var edge = edges.get(index);
+        for ( var color : Color.values() )
+            valid[color.ordinal()].set(index, edge && encloseAny(color, index));
+    }
+
+    /**
+     * Updates edges with set tile at {@code center}.
+     *
+     * @param center Linear index of a non free tile
+     * @param record {@code true} to push every added edge to the journal, {@code false} otherwise
+     * @return Number of added edges
+     */
+    private int updateEdges(int center, boolean record) {
+        var added = 0;
+
+        edges.clear(center);
+        for ( var offset : offsets ) {
+            var neighbour = center + offset;
+            if ( board.get(neighbour) == FREE && !edges.get(neighbour) ) {
+                edges.set(neighbour);
+                if ( record )
+                    journal.push(neighbour);
+                added++;
+            }
+        }
+
+        return added;
+    }
+
+    /**
+     * Determines if any enclosing group exists for {@code color} from {@code origin}.
+     * <p>
+     * Stops searching on first match.
+     *
+     * @param color Capturing color
+     * @param origin Linear index of origin
+     * @return {@code true} if any enclosing group exists, {@code false} otherwise
+     *
+     * @see #findMatch(Color, int, int)
+     */
+    private boolean encloseAny(Color color, int origin) {
+        for ( var offset : offsets )
+            if ( findMatch(color, origin + offset, offset) >= 0 )
+                return true;
+
+        return false;
+    }
+
+    /**
+     * Counts tiles enclosed by {@code color} from {@code origin} in all directions.
+     *
+     * @param color Capturing color
+     * @param origin Linear index of origin
+     * @param rays Filled with the number of tiles enclosed along each direction by ordinal
+     * @return Number of enclosed tiles
+     *
+     * @see #findMatch(Color, int, int)
+     */
+    private int enclose(Color color, int origin, int[] rays) {
+        var enclosed = 0;
+
+        for ( int d = 0; d < offsets.length; d++ ) {
+            var offset = offsets[d];
+            var match = findMatch(color, origin + offset, offset);
+            if ( match >= 0 ) {
+                rays[d] = ( match - origin ) / offset - 1;
+                enclosed += rays[d];
+            }
+        }
+
+        return enclosed;
+    }
+
+    /**
+     * Finds enclosed group matching tile for {@code color} from {@code start} inclusive, stepping by {@code offset}.
+     *
+     * @param color Capturing color
+     * @param start Linear index of first tile to check
+     * @param offset Linear index delta of a step
+     * @return Linear index of matching tile if any, {@code -1} otherwise
+     */
+    private int findMatch(Color color, int start, int offset) {
+        var opponent = encode(color.getVersus().getTile());
+
+        var i = start;
+        while ( board.get(i) == opponent ) // contiguous opposing tiles, stops on border
+            i += offset;
+
+        return ( i != start && board.get(i) == encode(color.getTile()) ) ? i : -1; // encloses at least one tile
+    }
+
+    /**
+     * Maps (x y) to padded linear index.
+     *
+     * @param x Horizontal axis coordinate
+     * @param y Vertical axis coordinate
+     * @return Linear index within padded storage
+     *
+     * @throws IndexOutOfBoundsException If (x y) does not point within the board
+     */
+    private int index(int x, int y) throws IndexOutOfBoundsException {
+        if ( x < 0 || x >= width || y < 0 || y >= height ) throw new IndexOutOfBoundsException();
+        return board.linearIndex(x + 1, y + 1);
+    }
+
+    /**
+     * Maps padded linear index to row major tile index.
+     *
+     * @param index Linear index within padded storage
+     * @return Row major tile index
+     */
+    private int tileIndex(int index) {
+        var stride = board.getStride();
+        return ( index / stride - 1 ) * width + index % stride - 1;
+    }
+
+    /**
+     * Maps padded linear index to coordinates.
+     *
+     * @param index Linear index within padded storage
+     * @return Coordinates
+     */
+    private Coordinates coordinates(int index) {
+        var stride = board.getStride();
+        return new Coordinates(index % stride - 1, index / stride - 1);
+    }
+}
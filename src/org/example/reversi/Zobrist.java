@@ -0,0 +1,97 @@
+package org.example.reversi;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zobrist keys of a board size, one per tile and {@code Color}, plus one for black to move.
+ * <p>
+ * Tiles are identified by their row major index {@code y * width + x}.
+ * Keys are derived from the size and tile index with the SplitMix64 generator, so every storage of a size shares them.
+ * Up to {@code MAX_TABLE} tiles, keys of a size are tabulated once on first use; beyond, they are computed on demand.
+ */
+final class Zobrist {
+    static private final int MAX_TABLE = 1 << 16; // tiles beyond which keys are not tabulated
+    static private final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L; // SplitMix64 increment
+
+    static private final Map<Long, Zobrist> TABLES = new ConcurrentHashMap<>(); // tabulated keys by size
+
+    /**
+     * Gets keys for a board of {@code width} and {@code height}.
+     *
+     * @param width Board width
+     * @param height Board height
+     * @return Keys of size
+     *
+     * @throws IllegalArgumentException If any size is invalid
+     */
+    static Zobrist of(int width, int height) throws IllegalArgumentException {
+        if ( width <= 0 || height <= 0 ) throw new IllegalArgumentException();
+
+        var size = ( (long) width << Integer.SIZE ) | height;
+        return ( (long) width * height <= MAX_TABLE )
+            ? TABLES.computeIfAbsent(size, s -> new Zobrist(width, height, true))
+            : new Zobrist(width, height, false);
+    }
+
+    /**
+     * SplitMix64 output function.
+     *
+     * @param z Generator state
+     * @return Mixed value
+     */
+    static private long mix(long z) {
+        z = ( z ^ ( z >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+        z = ( z ^ ( z >>> 27 ) ) * 0x94D049BB133111EBL;
+        return z ^ ( z >>> 31 );
+    }
+
+    private final long seed; // derived from size
+    private final long side; // key of black to move
+    private final long[] keys; // key of each tile index and Color ordinal, null if computed on demand
+
+    private Zobrist(int width, int height, boolean tabulate) {
+        this.seed = mix(( (long) width << Integer.SIZE ) ^ height);
+        this.side = mix(seed);
+
+        if ( tabulate ) {
+            this.keys = new long[width * height * 2];
+            for ( int i = 0; i < keys.length; i++ )
+                keys[i] = compute(i);
+        }
+        else {
+            this.keys = null;
+        }
+    }
+
+    /**
+     * @param color Color
+     * @param index Row major tile index
+     * @return Key of {@code color} at {@code index}
+     */
+    long tile(Color color, int index) {
+        var i = index * 2 + color.ordinal();
+        return ( keys != null ) ? keys[i] : compute(i);
+    }
+
+    /**
+     * @param index Row major tile index
+     * @return Key flipping a tile at {@code index} from one color to the other
+     */
+    long flip(int index) {
+        return tile(Color.WHITE, index) ^ tile(Color.BLACK, index);
+    }
+
+    /**
+     * @param next Color to move
+     * @return Key of {@code next} to move
+     */
+    long side(Color next) {
+        return ( next == Color.BLACK ) ? side : 0L;
+    }
+
+    // self-explanatory
+    private long compute(int i) {
+        return mix(seed + ( i + 1L ) * GOLDEN_GAMMA);
+    }
+}
@@ -0,0 +1,554 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Persistent cache of search results by position, memory-mapped from an append-only file.
+ * <p>
+ * The file is a header followed by fixed-size records, each holding the result of a search: position hash,
+ * score, depth and best move, protected by a checksum. Results are only ever appended, a position being superseded by
+ * later records at least as deep, so a crash can only leave a partial record at the end of the file, which readers
+ * ignore and the next append cuts off; a record failing its checksum is skipped. On open, records are scanned once
+ * into an in-memory index of positions to record numbers; results themselves are read from a mapping of the file.
+ * The file is mapped again only once it has doubled since last mapped, so appends cost no mapping each,
+ * records past the mapping being read from the file instead.
+ * <p>
+ * Positions are keyed by canonical hash, with best moves mapped to the canonical image, so symmetric positions
+ * share a record.
+ * <p>
+ * Several processes may share a file: appends hold an exclusive file lock and pick up records appended by others
+ * first, and {@link #refresh()} picks them up on demand. Within a process, a file must be open only once, as file locks
+ * are held by the whole process. Superseded records are removed by {@link #compact(Path)},
+ * which must not run while another process has the file open.
+ * <p>
+ * Format, big-endian:
+ * <ul>
+ *     <li>header: magic {@code int}, version {@code int}, width {@code int}, height {@code int}</li>
+ *     <li>record: position hash {@code long}, score {@code int}, depth {@code int}, move index {@code int}, checksum {@code int}</li>
+ * </ul>
+ * Position hash is canonical, move index {@code y * width + x} on the canonical image.
+ * Score is for the player to move, depth is in plies.
+ *
+ * @see CachedAI
+ */
+public final class AnalysisCache implements AutoCloseable {
+    /**
+     * Search result of a position.
+     *
+     * @param move Best move
+     * @param score Score of {@code move} for the player to move
+     * @param depth Depth searched to, in plies
+     */
+    public record Analysis(Coordinates move, int score, int depth) {}
+
+    /**
+     * Counters of cache usage, since opened.
+     *
+     * @param lookups Number of lookups
+     * @param hits Number of lookups finding their position deep enough
+     * @param shallow Number of lookups finding their position, not deep enough
+     * @param appends Number of records appended
+     */
+    public record Statistics(long lookups, long hits, long shallow, long appends) {
+        /**
+         * @return Share of lookups finding their position deep enough
+         */
+        public double hitRate() {
+            return ( lookups == 0 ) ? 0 : (double) hits / lookups;
+        }
+    }
+
+    static final int MAGIC = 0x52564143; // "RVAC"
+    static final int VERSION = 2; // 1 keyed positions by plain hash
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 24;
+
+    static private final int MAX_RECORDS = ( Integer.MAX_VALUE - HEADER_BYTES ) / RECORD_BYTES; // within a mapping
+
+    /**
+     * @param key Position hash
+     * @param score Score
+     * @param depth Depth
+     * @param move Move index
+     * @return Checksum of record, never {@code 0} for a zeroed record
+     */
+    static private int checksum(long key, int score, int depth, int move) {
+        var h = key;
+        h = h * 0x9E3779B97F4A7C15L + score;
+        h = h * 0x9E3779B97F4A7C15L + depth;
+        h = h * 0x9E3779B97F4A7C15L + move;
+        h = ( h ^ ( h >>> 30 ) ) * 0xBF58476D1CE4E5B9L;
+        h = ( h ^ ( h >>> 27 ) ) * 0x94D049BB133111EBL;
+        return (int) ( h ^ ( h >>> 32 ) ) ^ MAGIC;
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+
+    private MappedByteBuffer mapping; // of the file up to its whole records when last mapped, null if never mapped
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_BYTES); // record past mapping
+    private long end; // offset past last scanned whole record
+
+    // open addressing index of positions
+    private long[] keys;
+    private int[] numbers; // record number plus one of each key, 0 if slot is free
+    private int positions; // number of indexed positions
+    private int records; // number of valid records scanned
+    private int corrupt; // number of records failing their checksum
+
+    private long lookups;
+    private long hits;
+    private long shallow;
+    private long appends;
+
+    /**
+     * @param path Cache file
+     * @param channel Open channel
+     * @param width Board width
+     * @param height Board height
+     */
+    private AnalysisCache(Path path, FileChannel channel, int width, int height) {
+        this.path = path;
+        this.channel = channel;
+        this.width = width;
+        this.height = height;
+        this.end = HEADER_BYTES;
+        this.keys = new long[1024];
+        this.numbers = new int[1024];
+    }
+
+    /**
+     * Opens a cache file, creating it for {@code width} and {@code height} if missing, and indexes its records.
+     *
+     * @param path Cache file
+     * @param width Board width
+     * @param height Board height
+     * @return Cache, to close once done
+     *
+     * @throws IOException If file cannot be opened, is not a cache, is of another board size, or exceeds the mappable size of 2 GiB
+     */
+    static public AnalysisCache open(Path path, int width, int height) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            var lock = channel.lock();
+            try {
+                var header = ByteBuffer.allocate(HEADER_BYTES);
+                if ( channel.size() == 0 ) {
+                    header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).flip();
+                    while ( header.hasRemaining() )
+                        channel.write(header, header.position());
+                }
+                else {
+                    while ( header.hasRemaining() && channel.read(header, header.position()) >= 0 );
+                    header.flip();
+                    if ( header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION ) throw new IOException(String.format("Not an analysis cache: %s", path));
+                    if ( header.getInt() != width || header.getInt() != height ) throw new IOException(String.format("Analysis cache of another board size: %s", path));
+                }
+            }
+            finally {
+                lock.release();
+            }
+
+            var cache = new AnalysisCache(path, channel, width, height);
+            cache.refresh();
+            return cache;
+        }
+        catch ( IOException | RuntimeException e ) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing cache file of any board size and indexes its records.
+     *
+     * @param path Cache file
+     * @return Cache, to close once done
+     *
+     * @throws IOException If file cannot be opened, is not a cache, or exceeds the mappable size of 2 GiB
+     */
+    static public AnalysisCache open(Path path) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_BYTES);
+        try (
+            var channel = FileChannel.open(path, StandardOpenOption.READ)
+        ) {
+            while ( header.hasRemaining() && channel.read(header, header.position()) >= 0 );
+        }
+        header.flip();
+        if ( header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION ) throw new IOException(String.format("Not an analysis cache: %s", path));
+
+        return open(path, header.getInt(), header.getInt());
+    }
+
+    // self-explanatory
+    public int getWidth() {
+        return width;
+    }
+
+    // self-explanatory
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Number of positions
+     */
+    public synchronized int size() {
+        return positions;
+    }
+
+    /**
+     * @return Number of valid records, superseded ones included
+     */
+    public synchronized int getRecords() {
+        return records;
+    }
+
+    /**
+     * @return Number of records skipped for failing their checksum
+     */
+    public synchronized int getCorrupt() {
+        return corrupt;
+    }
+
+    /**
+     * @return Counters since opened
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(lookups, hits, shallow, appends);
+    }
+
+    /**
+     * Looks up current position of {@code game}, searched at least to {@code depth}.
+     * <p>
+     * A best move that is not valid in {@code game}, which only a hash collision can produce, is a miss.
+     *
+     * @param game Game
+     * @param depth Minimal depth, in plies
+     * @return Analysis of current position, empty if none deep enough or if board size differs
+     *
+     * @throws UncheckedIOException If file cannot be mapped again after growing
+     */
+    public synchronized Optional<Analysis> lookup(Game game, int depth) throws UncheckedIOException {
+        lookups++;
+        if ( game.isOver() || game.getWidth() != width || game.getHeight() != height ) return Optional.empty();
+
+        var number = numbers[slot(game.canonicalHash())] - 1;
+        if ( number < 0 ) return Optional.empty();
+
+        var canonical = read(number);
+        var move = game.canonicalSymmetry().inverse().apply(canonical.move(), width, height);
+        var analysis = new Analysis(move, canonical.score(), canonical.depth());
+        if ( !game.isValidMove(move) ) return Optional.empty();
+        if ( analysis.depth() < depth ) {
+            shallow++;
+            return Optional.empty();
+        }
+
+        hits++;
+        return Optional.of(analysis);
+    }
+
+    /**
+     * Appends the analysis of current position of {@code game}, unless a result at least as deep is already cached.
+     *
+     * @param game Game in progress, of cache board size
+     * @param analysis Search result of current position
+     * @return {@code true} if appended, {@code false} otherwise
+     *
+     * @throws IllegalArgumentException If {@code game} is over or of another board size
+     * @throws IOException If file cannot be written
+     */
+    public synchronized boolean store(Game game, Analysis analysis) throws IllegalArgumentException, IOException {
+        if ( game.isOver() || game.getWidth() != width || game.getHeight() != height ) throw new IllegalArgumentException();
+
+        var key = game.canonicalHash();
+        var canonical = game.canonicalSymmetry().apply(analysis.move(), width, height);
+        var move = canonical.y() * width + canonical.x();
+
+        var lock = channel.lock();
+        try {
+            scan(); // records appended by other processes first
+
+            var number = numbers[slot(key)] - 1;
+            if ( number >= 0 && read(number).depth() >= analysis.depth() ) return false;
+            if ( end + RECORD_BYTES > HEADER_BYTES + (long) MAX_RECORDS * RECORD_BYTES ) throw new IOException(String.format("Analysis cache full: %s", path));
+
+            if ( channel.size() != end )
+                channel.truncate(end); // partial record of a crashed append
+
+            var record = ByteBuffer.allocate(RECORD_BYTES)
+                .putLong(key)
+                .putInt(analysis.score())
+                .putInt(analysis.depth())
+                .putInt(move)
+                .putInt(checksum(key, analysis.score(), analysis.depth(), move))
+                .flip();
+            while ( record.hasRemaining() )
+                channel.write(record, end + record.position());
+
+            index(key, (int) ( ( end - HEADER_BYTES ) / RECORD_BYTES ));
+            records++;
+            end += RECORD_BYTES;
+            appends++;
+        }
+        finally {
+            lock.release();
+        }
+
+        return true;
+    }
+
+    /**
+     * Indexes records appended by other processes since last scanned.
+     *
+     * @throws IOException If file cannot be read
+     */
+    public synchronized void refresh() throws IOException {
+        var lock = channel.lock(0, Long.MAX_VALUE, true);
+        try {
+            scan();
+        }
+        finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Forces appended records to storage.
+     *
+     * @throws IOException If file cannot be written
+     */
+    public synchronized void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Forces appended records to storage and closes file.
+     *
+     * @throws IOException If file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            channel.force(false);
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Rewrites a cache file with the latest record of each position only, sorted by position hash.
+     * <p>
+     * The file is replaced atomically once rewritten, so a crash leaves either file whole.
+     * Must not run while another process has the file open, as it would keep appending to the replaced file.
+     *
+     * @param path Cache file
+     * @return Number of records removed
+     *
+     * @throws IOException If file cannot be read or written, or is not a cache
+     */
+    static public int compact(Path path) throws IOException {
+        var temporary = path.resolveSibling(path.getFileName() + ".compact");
+        int removed;
+        try (
+            var cache = open(path)
+        ) {
+            var lock = cache.channel.lock();
+            try {
+                cache.scan();
+
+                // latest record numbers, in position hash order
+                var latest = new long[cache.positions][];
+                var i = 0;
+                for ( int slot = 0; slot < cache.keys.length; slot++ )
+                    if ( cache.numbers[slot] != 0 )
+                        latest[i++] = new long[] { cache.keys[slot], cache.numbers[slot] - 1 };
+                Arrays.sort(latest, (a, b) -> Long.compare(a[0], b[0]));
+
+                try (
+                    var out = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)
+                ) {
+                    var buffer = ByteBuffer.allocate(1 << 16);
+                    buffer.putInt(MAGIC).putInt(VERSION).putInt(cache.width).putInt(cache.height);
+                    for ( var entry : latest ) {
+                        if ( buffer.remaining() < RECORD_BYTES ) {
+                            buffer.flip();
+                            while ( buffer.hasRemaining() )
+                                out.write(buffer);
+                            buffer.clear();
+                        }
+                        buffer.put(cache.recordAt((int) entry[1]));
+                    }
+                    buffer.flip();
+                    while ( buffer.hasRemaining() )
+                        out.write(buffer);
+                    out.force(true);
+                }
+
+                removed = cache.records + cache.corrupt - cache.positions;
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally {
+                lock.release();
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        return removed;
+    }
+
+    /**
+     * Indexes whole records from last scanned up to the end of the file, mapping it again if it grew.
+     * <p>
+     * Caller must hold a file lock.
+     *
+     * @throws IOException If file cannot be read or exceeds the mappable size of 2 GiB
+     */
+    private void scan() throws IOException {
+        var size = channel.size();
+        var whole = HEADER_BYTES + ( size - HEADER_BYTES ) / RECORD_BYTES * RECORD_BYTES;
+        if ( whole > Integer.MAX_VALUE ) throw new IOException(String.format("Analysis cache exceeds 2 GiB: %s", path));
+        if ( whole == end ) return;
+
+        map(whole);
+        for ( ; end < whole; end += RECORD_BYTES ) {
+            var number = (int) ( ( end - HEADER_BYTES ) / RECORD_BYTES );
+            var record = recordAt(number);
+            var key = record.getLong(0);
+            var score = record.getInt(8);
+            var depth = record.getInt(12);
+            var move = record.getInt(16);
+            if ( record.getInt(20) != checksum(key, score, depth, move) || move < 0 || move >= width * height ) {
+                corrupt++;
+                continue;
+            }
+
+            var slot = slot(key);
+            if ( numbers[slot] == 0 || read(numbers[slot] - 1).depth() <= depth )
+                index(key, number);
+            records++;
+        }
+    }
+
+    /**
+     * Maps the file up to {@code length} if it reaches at least twice the current mapping.
+     * <p>
+     * Growing geometrically bounds the number of mappings, each released only once garbage collected,
+     * to the number of times the file doubles.
+     *
+     * @param length Length of whole records, at most the file size
+     *
+     * @throws IOException If file cannot be mapped
+     */
+    private void map(long length) throws IOException {
+        if ( mapping == null || length >= 2L * mapping.capacity() )
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+    }
+
+    /**
+     * Reads a whole record from the mapping, or from the file if past the mapping.
+     *
+     * @param number Record number, of a whole record of the file
+     * @return Record at positions {@code 0} to {@code RECORD_BYTES}, valid until next call
+     *
+     * @throws IOException If file cannot be read or mapped
+     */
+    private ByteBuffer recordAt(int number) throws IOException {
+        var offset = HEADER_BYTES + (long) number * RECORD_BYTES;
+        if ( mapping == null || offset + RECORD_BYTES > mapping.capacity() )
+            map(end); // past appended records
+
+        if ( offset + RECORD_BYTES <= mapping.capacity() ) return mapping.slice((int) offset, RECORD_BYTES);
+
+        scratch.clear();
+        while ( scratch.hasRemaining() )
+            if ( channel.read(scratch, offset + scratch.position()) < 0 ) throw new IOException(String.format("Truncated analysis cache: %s", path));
+        return scratch.flip();
+    }
+
+    /**
+     * @param number Record number
+     * @return Analysis of record
+     *
+     * @throws UncheckedIOException If file cannot be read
+     */
+    private Analysis read(int number) throws UncheckedIOException {
+        ByteBuffer record;
+        try {
+            record = recordAt(number);
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+
+        var index = record.getInt(16);
+        return new Analysis(new Coordinates(index % width, index / width), record.getInt(8), record.getInt(12));
+    }
+
+    /**
+     * @param key Position hash
+     * @return Slot of {@code key}, or free slot where it belongs
+     */
+    private int slot(long key) {
+        var mask = keys.length - 1;
+        var slot = (int) ( key ^ ( key >>> 32 ) ) & mask;
+        while ( numbers[slot] != 0 && keys[slot] != key )
+            slot = ( slot + 1 ) & mask;
+
+        return slot;
+    }
+
+    /**
+     * Indexes {@code key} to record {@code number}, growing the index beyond half full.
+     *
+     * @param key Position hash
+     * @param number Record number
+     */
+    private void index(long key, int number) {
+        var slot = slot(key);
+        if ( numbers[slot] == 0 ) {
+            positions++;
+            if ( positions * 2 > keys.length ) {
+                grow();
+                slot = slot(key);
+            }
+        }
+
+        keys[slot] = key;
+        numbers[slot] = number + 1;
+    }
+
+    // self-explanatory
+    private void grow() {
+        var oldKeys = keys;
+        var oldNumbers = numbers;
+        keys = new long[oldKeys.length * 2];
+        numbers = new int[oldNumbers.length * 2];
+
+        for ( int i = 0; i < oldKeys.length; i++ )
+            if ( oldNumbers[i] != 0 ) {
+                var slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                numbers[slot] = oldNumbers[i];
+            }
+    }
+}
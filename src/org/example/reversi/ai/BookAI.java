@@ -0,0 +1,65 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Game;
+
+/**
+ * AI that plays book moves while the game stays in its opening book, then delegates to another strategy.
+ */
+public class BookAI implements Strategy, AutoCloseable {
+    private final OpeningBook book;
+    private final Strategy fallback;
+
+    private boolean lastFromBook; // was last move taken from book?
+
+    /**
+     * Constructs an AI consulting {@code book} before {@code fallback}.
+     *
+     * @param book Opening book
+     * @param fallback Strategy for positions out of book
+     */
+    public BookAI(OpeningBook book, Strategy fallback) {
+        this.book = book;
+        this.fallback = fallback;
+    }
+
+    /**
+     * @return Strategy for positions out of book
+     */
+    public Strategy getFallback() {
+        return fallback;
+    }
+
+    /**
+     * @return {@code true} if last move was taken from book
+     */
+    public boolean isLastFromBook() {
+        return lastFromBook;
+    }
+
+    /**
+     * Closes fallback strategy if closeable.
+     *
+     * @throws IllegalStateException If closing fails
+     */
+    @Override
+    public void close() throws IllegalStateException {
+        try {
+            if ( fallback instanceof AutoCloseable closeable )
+                closeable.close();
+        }
+        catch ( Exception e ) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Coordinates nextMove(Game game) throws IllegalArgumentException {
+        if ( game.isOver() ) throw new IllegalArgumentException();
+
+        var move = book.bestMove(game);
+        lastFromBook = move.isPresent();
+
+        return move.orElseGet(() -> fallback.nextMove(game));
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+
+/**
+ * AI that plays moves of an {@code AnalysisCache} searched deep enough, then delegates to a search,
+ * whose results it appends to the cache.
+ *
+ * @see AnalysisCache
+ */
+public class CachedAI implements Strategy, AutoCloseable {
+    private final AnalysisCache cache;
+    private final Strategy fallback;
+    private final Supplier<SearchAI.Report> reports; // of fallback
+    private final int depth; // minimal depth of cached results
+
+    private SearchAI.Report lastReport;
+    private boolean lastFromCache; // was last move taken from cache?
+
+    /**
+     * @param cache Analysis cache
+     * @param fallback Search
+     * @param reports Last report of {@code fallback}
+     * @param depth Minimal depth of cached results, in plies
+     *
+     * @throws IllegalArgumentException If {@code depth} is negative
+     */
+    private CachedAI(AnalysisCache cache, Strategy fallback, Supplier<SearchAI.Report> reports, int depth) throws IllegalArgumentException {
+        if ( depth < 0 ) throw new IllegalArgumentException();
+
+        this.cache = cache;
+        this.fallback = fallback;
+        this.reports = reports;
+        this.depth = depth;
+    }
+
+    /**
+     * Constructs an AI consulting {@code cache} for results searched to at least {@code depth} before {@code fallback}.
+     *
+     * @param cache Analysis cache
+     * @param fallback Search for positions not cached deep enough
+     * @param depth Minimal depth of cached results, in plies
+     *
+     * @throws IllegalArgumentException If {@code depth} is negative
+     */
+    public CachedAI(AnalysisCache cache, SearchAI fallback, int depth) throws IllegalArgumentException {
+        this(cache, fallback, fallback::getLastReport, depth);
+    }
+
+    /**
+     * Constructs an AI consulting {@code cache} for results searched to at least {@code depth} before {@code fallback}.
+     *
+     * @param cache Analysis cache
+     * @param fallback Search for positions not cached deep enough
+     * @param depth Minimal depth of cached results, in plies
+     *
+     * @throws IllegalArgumentException If {@code depth} is negative
+     */
+    public CachedAI(AnalysisCache cache, ParallelSearchAI fallback, int depth) throws IllegalArgumentException {
+        this(cache, fallback, fallback::getLastReport, depth);
+    }
+
+    /**
+     * @return Analysis cache
+     */
+    public AnalysisCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return Report of last move, searched or cached with no node searched, {@code null} if none
+     */
+    public SearchAI.Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return {@code true} if last move was taken from cache
+     */
+    public boolean isLastFromCache() {
+        return lastFromCache;
+    }
+
+    /**
+     * Closes fallback strategy if closeable; the cache is left open.
+     *
+     * @throws IllegalStateException If closing fails
+     */
+    @Override
+    public void close() throws IllegalStateException {
+        try {
+            if ( fallback instanceof AutoCloseable closeable )
+                closeable.close();
+        }
+        catch ( Exception e ) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException If cache file cannot be read or written
+     */
+    @Override
+    public Coordinates nextMove(Game game) throws IllegalArgumentException, UncheckedIOException {
+        if ( game.isOver() ) throw new IllegalArgumentException();
+
+        var start = System.nanoTime();
+        var cached = cache.lookup(game, depth);
+        lastFromCache = cached.isPresent();
+        if ( lastFromCache ) {
+            var analysis = cached.get();
+            lastReport = new SearchAI.Report(analysis.move(), analysis.score(), analysis.depth(), 0, System.nanoTime() - start);
+            return analysis.move();
+        }
+
+        var move = fallback.nextMove(game);
+        lastReport = reports.get();
+        try {
+            cache.store(game, new AnalysisCache.Analysis(move, lastReport.score(), lastReport.depth()));
+        }
+        catch ( IOException e ) {
+            throw new UncheckedIOException(e);
+        }
+
+        return move;
+    }
+}
@@ -0,0 +1,433 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Board;
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+import org.example.reversi.Tile;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Solver that searches the game tree to the end, for positions with few free tiles.
+ * <p>
+ * Solves either exactly, finding the final disc difference, or for win, loss or draw only, which prunes much more.
+ * Search runs on a copy of the board with its own list of free tiles, so moves are generated by testing free tiles
+ * rather than scanning the board, and the last 3 free tiles are searched without building any move list.
+ * Moves are ordered fastest-first, fewest opponent replies first, far from the end,
+ * and by parity otherwise: free tiles of board quarters holding an odd number of them first.
+ * <p>
+ * Scores are final disc differences for the player to move, following the rules of {@code Game}:
+ * the game ends as soon as the player to move has no valid move.
+ */
+public class EndgameSolver {
+    /**
+     * Outcome of a solve.
+     *
+     * @param move Best move
+     * @param score Final disc difference for the player to move if exact, its sign only otherwise
+     * @param exact {@code true} if solved exactly, {@code false} if solved for win, loss or draw
+     * @param free Number of free tiles of solved position
+     * @param nodes Number of nodes searched
+     * @param nanos Time spent solving, in nanoseconds
+     */
+    public record Report(Coordinates move, int score, boolean exact, int free, long nodes, long nanos) {
+        /**
+         * @return Nodes searched per second
+         */
+        public long nodesPerSecond() {
+            return ( nanos == 0 ) ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    static private final int INFINITY = Integer.MAX_VALUE;
+    static private final int FASTEST_FIRST_FREE = 7; // free tiles above which moves are ordered fastest-first
+    static private final int CHECK_INTERVAL = 1024; // nodes between budget checks
+
+    private final long budget; // time budget per solve, in nanoseconds
+    private final long nodeLimit; // node budget per solve
+
+    private Board board; // board being solved, owned by this solver
+    private Coordinates[] free; // free tiles of solved position, the first ones passed down search being free in current position
+    private int[] quarters; // number of free tiles per board quarter
+    private int halfWidth;
+    private int halfHeight;
+
+    private long deadline; // System.nanoTime() past which solve aborts
+    private long nodes; // nodes searched for current solve
+    private long nextCheck; // node count of next budget check
+    private boolean aborted; // has budget expired?
+
+    /**
+     * Constructs a solver limited by {@code budget} and {@code nodeLimit} per solve.
+     *
+     * @param budget Time budget per solve
+     * @param nodeLimit Node budget per solve
+     *
+     * @throws IllegalArgumentException If any budget is not positive
+     */
+    public EndgameSolver(Duration budget, long nodeLimit) throws IllegalArgumentException {
+        if ( budget.isNegative() || budget.isZero() || nodeLimit <= 0 ) throw new IllegalArgumentException();
+
+        this.budget = budget.toNanos();
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Constructs a solver limited by {@code budget} per solve.
+     *
+     * @param budget Time budget per solve
+     *
+     * @throws IllegalArgumentException If budget is not positive
+     */
+    public EndgameSolver(Duration budget) throws IllegalArgumentException {
+        this(budget, Long.MAX_VALUE);
+    }
+
+    /**
+     * Solves current position of {@code game}.
+     *
+     * @param game Game in progress, left unchanged
+     * @param exact {@code true} to find the final disc difference, {@code false} for win, loss or draw only
+     * @return Outcome, empty if budget expired first
+     *
+     * @throws IllegalArgumentException If game is over
+     */
+    public Optional<Report> solve(Game game, boolean exact) throws IllegalArgumentException {
+        return solve(game, exact, System.nanoTime() + budget);
+    }
+
+    /**
+     * Solves current position of {@code game} until {@code deadline}, or the time budget if earlier.
+     *
+     * @param game Game in progress, left unchanged
+     * @param exact {@code true} to find the final disc difference, {@code false} for win, loss or draw only
+     * @param deadline {@code System.nanoTime()} past which solve aborts
+     * @return Outcome, empty if budget expired first
+     *
+     * @throws IllegalArgumentException If game is over
+     */
+    Optional<Report> solve(Game game, boolean exact, long deadline) throws IllegalArgumentException {
+        if ( game.isOver() ) throw new IllegalArgumentException();
+
+        var start = System.nanoTime();
+        this.deadline = ( deadline - ( start + budget ) < 0 ) ? deadline : start + budget;
+        nodes = 0;
+        nextCheck = CHECK_INTERVAL;
+        aborted = false;
+        setUp(game);
+
+        var color = game.getCurrentPlayer().getColor();
+        var player = game.getCurrentPlayer();
+        var difference = player.getScore() - player.getVersus().getScore();
+        var alpha = exact ? -INFINITY : -1;
+        var beta = exact ? INFINITY : 1;
+
+        Coordinates best = null;
+        var bestValue = -INFINITY;
+        for ( var move : orderedMoves(color, free.length) ) {
+            var value = -play(color, move, free.length, -beta, -Math.max(alpha, bestValue), difference);
+
+            if ( aborted ) break;
+            if ( value > bestValue ) {
+                bestValue = value;
+                best = move;
+                if ( bestValue >= beta ) break;
+            }
+        }
+
+        board = null; // no longer needed
+        if ( aborted ) return Optional.empty();
+
+        return Optional.of(new Report(
+            best,
+            exact ? bestValue : Integer.signum(bestValue),
+            exact,
+            free.length,
+            nodes,
+            System.nanoTime() - start
+        ));
+    }
+
+    /**
+     * Copies board and lists free tiles of {@code game}.
+     *
+     * @param game Game
+     */
+    private void setUp(Game game) {
+        board = game.copyBoard();
+        halfWidth = game.getWidth() / 2;
+        halfHeight = game.getHeight() / 2;
+        quarters = new int[4];
+        free = new Coordinates[game.countFree()];
+
+        var count = 0;
+        for ( int y = 0; y < game.getHeight(); y++ )
+            for ( int x = 0; x < game.getWidth(); x++ )
+                if ( game.getTile(x, y) == Tile.FREE ) {
+                    free[count] = new Coordinates(x, y);
+                    quarters[quarter(free[count])]++;
+                    count++;
+                }
+    }
+
+    /**
+     * Plays {@code move} then searches resulting position.
+     *
+     * @param color Color to move
+     * @param move Valid move, among first {@code count} free tiles
+     * @param count Number of free tiles
+     * @param alpha Lower bound, for opponent
+     * @param beta Upper bound, for opponent
+     * @param difference Disc difference for {@code color} before move
+     * @return Score for opponent
+     */
+    private int play(Color color, Coordinates move, int count, int alpha, int beta, int difference) {
+        var captured = board.nextMove(color, move);
+        var i = indexOf(move, count);
+        swap(i, count - 1);
+        quarters[quarter(move)]--;
+
+        var value = search(color.getVersus(), count - 1, alpha, beta, -( difference + 2 * captured + 1 ));
+
+        quarters[quarter(move)]++;
+        swap(i, count - 1);
+        board.unmakeMove();
+
+        return value;
+    }
+
+    /**
+     * Searches current position with alpha-beta pruning.
+     * <p>
+     * Fail-soft: a returned value at or below {@code alpha} or at or above {@code beta} is a bound.
+     * Returns a meaningless value if budget expires.
+     *
+     * @param color Color to move
+     * @param count Number of free tiles
+     * @param alpha Lower bound
+     * @param beta Upper bound
+     * @param difference Disc difference for {@code color}
+     * @return Score for {@code color}
+     */
+    private int search(Color color, int count, int alpha, int beta, int difference) {
+        // last tiles count nodes too, so checks are due past a count rather than at multiples
+        if ( ++nodes >= nextCheck ) {
+            nextCheck = nodes + CHECK_INTERVAL;
+            aborted = ( System.nanoTime() - deadline >= 0 || nodes >= nodeLimit );
+        }
+        if ( aborted ) return alpha;
+
+        return switch (count) {
+            case 0 -> difference;
+            case 1 -> last1(color, difference, free[0]);
+            case 2 -> last2(color, beta, difference, free[0], free[1]);
+            case 3 -> last3(color, alpha, beta, difference, free[0], free[1], free[2]);
+            default -> searchMoves(color, count, alpha, beta, difference);
+        };
+    }
+
+    /**
+     * Searches ordered moves of current position, with more than 3 free tiles.
+     *
+     * @see #search(Color, int, int, int, int)
+     */
+    private int searchMoves(Color color, int count, int alpha, int beta, int difference) {
+        var moves = orderedMoves(color, count);
+        if ( moves.length == 0 ) return difference; // game over
+
+        var best = -INFINITY;
+        for ( var move : moves ) {
+            var value = -play(color, move, count, -beta, -Math.max(alpha, best), difference);
+            if ( aborted ) return alpha;
+
+            if ( value > best ) {
+                best = value;
+                if ( best >= beta ) break;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Searches last free tile.
+     *
+     * @param color Color to move
+     * @param difference Disc difference for {@code color}
+     * @param a Last free tile
+     * @return Score for {@code color}
+     */
+    private int last1(Color color, int difference, Coordinates a) {
+        var captured = board.probe(color, a).getCaptured();
+        if ( captured == 0 ) return difference; // game over
+
+        nodes++;
+        return difference + 2 * captured + 1; // board full, no need to play
+    }
+
+    /**
+     * Searches last 2 free tiles.
+     *
+     * @param color Color to move
+     * @param beta Upper bound
+     * @param difference Disc difference for {@code color}
+     * @param a Free tile
+     * @param b Other free tile
+     * @return Score for {@code color}
+     */
+    private int last2(Color color, int beta, int difference, Coordinates a, Coordinates b) {
+        var best = -INFINITY;
+
+        var aProbe = board.probe(color, a);
+        if ( aProbe.isValid() ) {
+            nodes++;
+            var captured = board.apply(aProbe);
+            best = -last1(color.getVersus(), -( difference + 2 * captured + 1 ), b);
+            board.unmakeMove();
+            if ( best >= beta ) return best;
+        }
+        var bProbe = board.probe(color, b);
+        if ( bProbe.isValid() ) {
+            nodes++;
+            var captured = board.apply(bProbe);
+            best = Math.max(best, -last1(color.getVersus(), -( difference + 2 * captured + 1 ), a));
+            board.unmakeMove();
+        }
+
+        return ( best == -INFINITY ) ? difference : best; // game over if no move
+    }
+
+    /**
+     * Searches last 3 free tiles, those alone in their quarter first.
+     *
+     * @see #search(Color, int, int, int, int)
+     */
+    private int last3(Color color, int alpha, int beta, int difference, Coordinates a, Coordinates b, Coordinates c) {
+        // parity: the tile alone in its quarter first, if any
+        if ( quarter(a) == quarter(b) ) {
+            var t = a;
+            a = c;
+            c = t;
+        }
+        else if ( quarter(a) == quarter(c) ) {
+            var t = a;
+            a = b;
+            b = t;
+        }
+
+        var best = -INFINITY;
+        var opponent = color.getVersus();
+
+        var aProbe = board.probe(color, a);
+        if ( aProbe.isValid() ) {
+            nodes++;
+            var captured = board.apply(aProbe);
+            best = -last2(opponent, -alpha, -( difference + 2 * captured + 1 ), b, c);
+            board.unmakeMove();
+            if ( best >= beta ) return best;
+        }
+        var bProbe = board.probe(color, b);
+        if ( bProbe.isValid() ) {
+            nodes++;
+            var captured = board.apply(bProbe);
+            best = Math.max(best, -last2(opponent, -Math.max(alpha, best), -( difference + 2 * captured + 1 ), a, c));
+            board.unmakeMove();
+            if ( best >= beta ) return best;
+        }
+        var cProbe = board.probe(color, c);
+        if ( cProbe.isValid() ) {
+            nodes++;
+            var captured = board.apply(cProbe);
+            best = Math.max(best, -last2(opponent, -Math.max(alpha, best), -( difference + 2 * captured + 1 ), a, b));
+            board.unmakeMove();
+        }
+
+        return ( best == -INFINITY ) ? difference : best; // game over if no move
+    }
+
+    /**
+     * Orders valid moves among first {@code count} free tiles: fastest-first far from the end, by parity otherwise.
+     *
+     * @param color Color to move
+     * @param count Number of free tiles
+     * @return Ordered valid moves
+     */
+    private Coordinates[] orderedMoves(Color color, int count) {
+        var moves = new Coordinates[count];
+        var keys = new int[count];
+        var size = 0;
+
+        for ( int i = 0; i < count; i++ ) {
+            var move = free[i];
+            var probe = board.probe(color, move);
+            if ( !probe.isValid() ) continue;
+
+            var parity = quarters[quarter(move)] % 2 == 0 ? 1 : 0; // odd quarters first
+            int key;
+            if ( count > FASTEST_FIRST_FREE ) {
+                board.apply(probe);
+                key = 2 * countMoves(color.getVersus(), count, move) + parity;
+                board.unmakeMove();
+            }
+            else
+                key = parity;
+
+            // insertion sort, lists are short
+            var j = size++;
+            for ( ; j > 0 && keys[j - 1] > key; j-- ) {
+                moves[j] = moves[j - 1];
+                keys[j] = keys[j - 1];
+            }
+            moves[j] = move;
+            keys[j] = key;
+        }
+
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * @param color Color
+     * @param count Number of free tiles
+     * @param played Tile just played, no longer free
+     * @return Number of valid moves of {@code color}
+     */
+    private int countMoves(Color color, int count, Coordinates played) {
+        var moves = 0;
+        for ( int i = 0; i < count; i++ )
+            if ( free[i] != played && board.isValidMove(color, free[i]) )
+                moves++;
+
+        return moves;
+    }
+
+    /**
+     * @param move Free tile
+     * @param count Number of free tiles
+     * @return Index of {@code move} among first {@code count} free tiles
+     */
+    private int indexOf(Coordinates move, int count) {
+        var i = 0;
+        while ( free[i] != move )
+            i++;
+
+        return i;
+    }
+
+    // self-explanatory
+    private void swap(int i, int j) {
+        var t = free[i];
+        free[i] = free[j];
+        free[j] = t;
+    }
+
+    /**
+     * @param tile Tile
+     * @return Board quarter of {@code tile}, within [0 3]
+     */
+    private int quarter(Coordinates tile) {
+        return ( tile.x() < halfWidth ? 0 : 1 ) + ( tile.y() < halfHeight ? 0 : 2 );
+    }
+}
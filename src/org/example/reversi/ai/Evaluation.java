@@ -0,0 +1,24 @@
+package org.example.reversi.ai;
+
+import org.example.reversi.Game;
+
+/**
+ * Heuristic evaluation of game positions, used by searching AI at their depth limit.
+ */
+@FunctionalInterface
+public interface Evaluation {
+    /**
+     * Default evaluation of {@code SearchAI}, combining disc difference, owned corners and mobility.
+     */
+    Evaluation HEURISTIC = SearchAI::evaluate;
+
+    /**
+     * Evaluates a game in progress for the player to move.
+     * <p>
+     * Evaluations must stay well within the range of {@code int}, far from scores of finished games.
+     *
+     * @param game Game in progress
+     * @return Evaluation for the player to move
+     */
+    int evaluate(Game game);
+}
@@ -0,0 +1,311 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * AI that selects moves with Monte Carlo tree search, using the UCT selection policy.
+ * <p>
+ * Search is root parallel: each thread of a fixed pool grows its own tree from a private copy of the game,
+ * then visits of root moves are summed across trees and the most visited move is played.
+ * Tree descents and random playouts are played and undone on that copy, so no board is copied per playout.
+ * Playouts stop after {@code PLAYOUT_PLIES}, the leading color then counting as winner, which keeps them affordable on large boards.
+ */
+public class MonteCarloAI implements Strategy, AutoCloseable {
+    /**
+     * Outcome of a search.
+     *
+     * @param move Selected move
+     * @param visits Number of playouts through {@code move}
+     * @param winRate Rate of playouts through {@code move} won by the player to move, counting draws as half
+     * @param playouts Number of playouts
+     * @param nanos Time spent searching, in nanoseconds
+     */
+    public record Report(Coordinates move, long visits, double winRate, long playouts, long nanos) {
+        /**
+         * @return Playouts per second
+         */
+        public long playoutsPerSecond() {
+            return ( nanos == 0 ) ? 0 : playouts * 1_000_000_000L / nanos;
+        }
+    }
+
+    static private final double EXPLORATION = Math.sqrt(2); // UCT exploration constant
+    static private final int PLAYOUT_PLIES = 512; // playout length past which the leading color wins
+
+    private final ExecutorService pool;
+    private final int threads;
+    private final long budget; // time budget per move, in nanoseconds
+    private final long playoutLimit; // playout budget per move
+
+    private final SplittableRandom seeds; // seeds of worker random generators
+
+    private Report lastReport;
+
+    /**
+     * Constructs a Monte Carlo AI running on {@code threads} and limited by {@code budget} and {@code playoutLimit} per move.
+     *
+     * @param budget Time budget per move
+     * @param playoutLimit Playout budget per move
+     * @param threads Number of threads
+     * @param seed Seed of random playouts
+     *
+     * @throws IllegalArgumentException If any budget or thread count is not positive
+     */
+    public MonteCarloAI(Duration budget, long playoutLimit, int threads, long seed) throws IllegalArgumentException {
+        if ( budget.isNegative() || budget.isZero() || playoutLimit <= 0 || threads <= 0 ) throw new IllegalArgumentException();
+
+        this.pool = Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+                var thread = new Thread(runnable, "monte-carlo");
+                thread.setDaemon(true); // never holds the JVM
+                return thread;
+            }
+        );
+        this.threads = threads;
+        this.budget = budget.toNanos();
+        this.playoutLimit = playoutLimit;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Constructs a Monte Carlo AI running on {@code threads} and limited by {@code budget} per move.
+     *
+     * @param budget Time budget per move
+     * @param threads Number of threads
+     *
+     * @throws IllegalArgumentException If budget or thread count is not positive
+     */
+    public MonteCarloAI(Duration budget, int threads) throws IllegalArgumentException {
+        this(budget, Long.MAX_VALUE, threads, System.nanoTime());
+    }
+
+    /**
+     * @return Report of last search, {@code null} if none
+     */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Shuts down the pool.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    @Override
+    public Coordinates nextMove(Game game) throws IllegalArgumentException {
+        if ( game.isOver() ) throw new IllegalArgumentException();
+
+        var start = System.nanoTime();
+        var deadline = start + budget;
+        var playouts = new AtomicLong();
+
+        var trees = new ArrayList<Future<Node>>(threads);
+        for ( int i = 0; i < threads; i++ ) {
+            var tree = new Tree(new Game(game), seeds.split(), deadline, playouts);
+            trees.add(pool.submit(tree::grow));
+        }
+
+        // sum visits and wins of root moves across trees
+        var visits = new HashMap<Coordinates, Long>();
+        var wins = new HashMap<Coordinates, Double>();
+        for ( var tree : trees )
+            for ( var child : join(tree).children ) {
+                visits.merge(child.move, child.visits, Long::sum);
+                wins.merge(child.move, child.wins, Double::sum);
+            }
+
+        var best = visits.entrySet().stream()
+            .max(Map.Entry.comparingByValue())
+            .map(Map.Entry::getKey)
+            .orElseGet(() -> game.findAnyValidMove().orElseThrow()); // no playout completed
+
+        var bestVisits = visits.getOrDefault(best, 0L);
+        lastReport = new Report(
+            best,
+            bestVisits,
+            ( bestVisits == 0 ) ? 0 : wins.get(best) / bestVisits,
+            Math.min(playouts.get(), playoutLimit),
+            System.nanoTime() - start
+        );
+        return best;
+    }
+
+    /**
+     * Waits for a tree to be grown.
+     *
+     * @param tree Pending tree
+     * @return Root of tree
+     *
+     * @throws IllegalStateException If growing failed
+     */
+    static private Node join(Future<Node> tree) throws IllegalStateException {
+        try {
+            return tree.get();
+        }
+        catch ( ExecutionException e ) {
+            throw new IllegalStateException(e.getCause());
+        }
+        catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Node of a search tree, reached by playing {@code move}.
+     */
+    static private class Node {
+        private final Coordinates move; // null for root
+        private final Color mover; // color that played move, null for root
+        private final Node parent;
+
+        private final List<Node> children;
+        private List<Coordinates> untried; // moves not expanded yet, unordered, null until first visit
+
+        private long visits;
+        private double wins; // for mover, counting draws as half
+
+        Node(Coordinates move, Color mover, Node parent) {
+            this.move = move;
+            this.mover = mover;
+            this.parent = parent;
+            this.children = new ArrayList<>();
+        }
+
+        /**
+         * Selects the child maximizing the upper confidence bound.
+         *
+         * @return Selected child
+         */
+        Node select() {
+            var log = Math.log(visits);
+
+            Node best = null;
+            var bestBound = Double.NEGATIVE_INFINITY;
+            for ( var child : children ) {
+                var bound = child.wins / child.visits + EXPLORATION * Math.sqrt(log / child.visits);
+                if ( bound > bestBound ) {
+                    best = child;
+                    bestBound = bound;
+                }
+            }
+
+            return best;
+        }
+    }
+
+    /**
+     * Tree grown by a single thread on its own copy of the game.
+     */
+    private class Tree {
+        private final Game game; // owned by this tree
+        private final SplittableRandom random;
+        private final long deadline;
+        private final AtomicLong playouts; // shared by all trees
+
+        Tree(Game game, SplittableRandom random, long deadline, AtomicLong playouts) {
+            this.game = game;
+            this.random = random;
+            this.deadline = deadline;
+            this.playouts = playouts;
+        }
+
+        /**
+         * Runs iterations until budget expires.
+         *
+         * @return Root of tree
+         */
+        Node grow() {
+            var root = new Node(null, null, null);
+
+            while ( System.nanoTime() - deadline < 0 && playouts.getAndIncrement() < playoutLimit ) {
+                var plies = 0;
+
+                // select
+                var node = root;
+                while ( node.untried != null && node.untried.isEmpty() && !node.children.isEmpty() ) {
+                    node = node.select();
+                    game.nextMove(node.move);
+                    plies++;
+                }
+
+                // expand
+                if ( !game.isOver() ) {
+                    if ( node.untried == null )
+                        node.untried = game.findValidMoves().collect(Collectors.toCollection(ArrayList::new));
+                    if ( !node.untried.isEmpty() ) {
+                        // swap random move with last then remove
+                        var untried = node.untried;
+                        var i = random.nextInt(untried.size());
+                        var move = untried.get(i);
+                        untried.set(i, untried.get(untried.size() - 1));
+                        untried.remove(untried.size() - 1);
+
+                        var child = new Node(move, game.getCurrentPlayer().getColor(), node);
+                        node.children.add(child);
+                        game.nextMove(move);
+                        plies++;
+                        node = child;
+                    }
+                }
+
+                // simulate
+                for ( int i = 0; i < PLAYOUT_PLIES && !game.isOver(); i++ ) {
+                    var moves = game.findValidMoves().toList();
+                    game.nextMove(moves.get(random.nextInt(moves.size())));
+                    plies++;
+                }
+                var winner = leader();
+
+                // back up
+                for ( ; node != null; node = node.parent ) {
+                    node.visits++;
+                    if ( node.mover != null )
+                        node.wins += ( winner == null ) ? 0.5 : ( winner == node.mover ) ? 1 : 0;
+                }
+
+                for ( int i = 0; i < plies; i++ )
+                    game.undo();
+            }
+
+            return root;
+        }
+
+        /**
+         * @return Color with more tiles, {@code null} on a draw
+         */
+        private Color leader() {
+            var white = game.getWhite().getScore();
+            var black = game.getBlack().getScore();
+
+            Color leader;
+            if ( white > black )
+                leader = Color.WHITE;
+            else if ( black > white )
+                leader = Color.BLACK;
+            else
+                leader = null;
+
+            return leader;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-only opening book, memory-mapped from a file written by {@code OpeningBookBuilder}.
+ * <p>
+ * The file is a header followed by fixed-size records sorted by position hash then move, each holding statistics
+ * of a move played from a position. Positions are looked up by binary search directly in the mapping,
+ * so opening a book costs no deserialization and its pages are shared with the file system cache.
+ * <p>
+ * Positions are keyed by canonical hash, with moves mapped to the canonical image, so symmetric positions
+ * share their records and a game reaching a mirrored opening still finds its moves.
+ * <p>
+ * Format, big-endian:
+ * <ul>
+ *     <li>header: magic {@code int}, version {@code int}, width {@code int}, height {@code int}, record count {@code long}</li>
+ *     <li>record: position hash {@code long}, move index {@code int}, games {@code int}, points {@code int}, evaluation {@code int}</li>
+ * </ul>
+ * Position hash is canonical, move index {@code y * width + x} on the canonical image. Points count 2 per game won and 1 per game drawn by the player to move.
+ * Evaluation is a search score for the player to move, {@code NO_EVALUATION} if none.
+ */
+public final class OpeningBook {
+    /**
+     * Statistics of a book move.
+     *
+     * @param move Move
+     * @param games Number of games in which {@code move} was played
+     * @param points Points of the player to move, 2 per game won and 1 per game drawn
+     * @param evaluation Search score for the player to move, {@code NO_EVALUATION} if none
+     */
+    public record Entry(Coordinates move, int games, int points, int evaluation) {
+        /**
+         * @return Rate of games won by the player to move, counting draws as half, {@code 0} if none
+         */
+        public double winRate() {
+            return ( games == 0 ) ? 0 : points / ( 2.0 * games );
+        }
+
+        /**
+         * @return {@code true} if move has a search score
+         */
+        public boolean isEvaluated() {
+            return evaluation != NO_EVALUATION;
+        }
+    }
+
+    static public final int NO_EVALUATION = Integer.MIN_VALUE;
+
+    static final int MAGIC = 0x5256424B; // "RVBK"
+    static final int VERSION = 2; // canonical keys
+    static final int HEADER_BYTES = 24;
+    static final int RECORD_BYTES = 24;
+
+    // preferred move last: best evaluation, then best win rate, then most played
+    static private final Comparator<Entry> PREFERENCE = Comparator
+        .comparingInt(Entry::evaluation)
+        .thenComparingDouble(Entry::winRate)
+        .thenComparingInt(Entry::games);
+
+    private final ByteBuffer records; // mapping of records only
+    private final int width;
+    private final int height;
+    private final int size; // number of records
+
+    /**
+     * @param records Mapping of records
+     * @param width Board width
+     * @param height Board height
+     * @param size Number of records
+     */
+    private OpeningBook(ByteBuffer records, int width, int height, int size) {
+        this.records = records;
+        this.width = width;
+        this.height = height;
+        this.size = size;
+    }
+
+    /**
+     * Maps the book at {@code path}.
+     * <p>
+     * The file is closed once mapped; the mapping stays valid until the book is garbage collected.
+     *
+     * @param path Book file
+     * @return Opening book
+     *
+     * @throws IOException If file cannot be read, is not a book, or exceeds the mappable size of 2 GiB
+     */
+    static public OpeningBook open(Path path) throws IOException {
+        try (
+            var channel = FileChannel.open(path, StandardOpenOption.READ)
+        ) {
+            var length = channel.size();
+            if ( length < HEADER_BYTES || length > Integer.MAX_VALUE ) throw new IOException(String.format("Invalid book size: %s", path));
+
+            var mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            var magic = mapping.getInt(0);
+            var version = mapping.getInt(4);
+            var width = mapping.getInt(8);
+            var height = mapping.getInt(12);
+            var count = mapping.getLong(16);
+
+            if ( magic != MAGIC || version != VERSION ) throw new IOException(String.format("Not a book: %s", path));
+            if ( count < 0 || HEADER_BYTES + count * RECORD_BYTES != length ) throw new IOException(String.format("Truncated book: %s", path));
+
+            var records = mapping.position(HEADER_BYTES).slice();
+            return new OpeningBook(records, width, height, (int) count);
+        }
+    }
+
+    // self-explanatory
+    public int getWidth() {
+        return width;
+    }
+
+    // self-explanatory
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up moves of current position of {@code game}.
+     * <p>
+     * Moves that are not valid in {@code game}, which only a hash collision can produce, are left out.
+     *
+     * @param game Game
+     * @return Book moves of current position, in file order, empty if none or if board size differs
+     */
+    public List<Entry> lookup(Game game) {
+        var entries = new ArrayList<Entry>();
+
+        if ( !game.isOver() && game.getWidth() == width && game.getHeight() == height ) {
+            var key = game.canonicalHash();
+            var inverse = game.canonicalSymmetry().inverse();
+            for ( int i = lowerBound(key); i < size && keyAt(i) == key; i++ ) {
+                var offset = i * RECORD_BYTES;
+                var index = records.getInt(offset + 8);
+                var move = inverse.apply(new Coordinates(index % width, index / width), width, height);
+                if ( game.isValidMove(move) )
+                    entries.add(new Entry(move, records.getInt(offset + 12), records.getInt(offset + 16), records.getInt(offset + 20)));
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Selects the preferred book move of current position of {@code game}: best evaluation, then best win rate, then most played.
+     *
+     * @param game Game
+     * @return Preferred book move, empty if position is not in book
+     */
+    public Optional<Coordinates> bestMove(Game game) {
+        return lookup(game).stream()
+            .max(PREFERENCE)
+            .map(Entry::move);
+    }
+
+    // self-explanatory
+    private long keyAt(int i) {
+        return records.getLong(i * RECORD_BYTES);
+    }
+
+    /**
+     * @param key Canonical position hash
+     * @return Index of first record with a hash greater than or equal to {@code key}, {@code size} if none
+     */
+    private int lowerBound(long key) {
+        var low = 0;
+        var high = size;
+        while ( low < high ) {
+            var middle = ( low + high ) >>> 1;
+            if ( keyAt(middle) < key )
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates move statistics from game records and search results, then writes them as an {@code OpeningBook} file.
+ */
+public class OpeningBookBuilder {
+    /**
+     * Move played from a position, mapped to its canonical image.
+     *
+     * @param hash Canonical position hash
+     * @param index Move index on the canonical image, {@code y * width + x}
+     */
+    private record Key(long hash, int index) {}
+
+    /**
+     * Statistics of a move.
+     */
+    static private class Statistics {
+        private int games;
+        private int points; // 2 per win, 1 per draw, for the player to move
+        private int evaluation = OpeningBook.NO_EVALUATION;
+    }
+
+    static private final int BUFFER_RECORDS = 4096; // records written at once
+
+    private final int width;
+    private final int height;
+    private final int plies; // number of plies of a game recorded
+
+    private final Map<Key, Statistics> statistics;
+
+    /**
+     * Constructs a builder for boards of {@code width} and {@code height}, recording the first {@code plies} of games.
+     *
+     * @param width Board width
+     * @param height Board height
+     * @param plies Number of plies of a game recorded
+     *
+     * @throws IllegalArgumentException If size is invalid or {@code plies} is not positive
+     */
+    public OpeningBookBuilder(int width, int height, int plies) throws IllegalArgumentException {
+        new Game(width, height); // validates size
+        if ( plies <= 0 ) throw new IllegalArgumentException();
+
+        this.width = width;
+        this.height = height;
+        this.plies = plies;
+        this.statistics = new HashMap<>();
+    }
+
+    /**
+     * @return Number of distinct moves recorded
+     */
+    public int size() {
+        return statistics.size();
+    }
+
+    /**
+     * Records a finished game, crediting the winner's moves.
+     *
+     * @param moves Moves of the game from the initial position
+     *
+     * @throws IllegalArgumentException If any move is invalid or moves do not finish the game
+     */
+    public void addGame(List<Coordinates> moves) throws IllegalArgumentException {
+        var game = new Game(width, height);
+        var keys = new ArrayList<Key>(plies);
+        var movers = new ArrayList<Color>(plies);
+
+        for ( var move : moves ) {
+            var probe = game.isOver() ? null : game.probe(move);
+            if ( probe == null || !probe.isValid() ) throw new IllegalArgumentException(String.format("Invalid move: %s", move));
+
+            if ( keys.size() < plies ) {
+                keys.add(key(game, move));
+                movers.add(game.getCurrentPlayer().getColor());
+            }
+            game.nextMove(probe);
+        }
+        if ( !game.isOver() ) throw new IllegalArgumentException("Unfinished game");
+
+        var difference = game.getWhite().getScore() - game.getBlack().getScore();
+        for ( int i = 0; i < keys.size(); i++ ) {
+            var entry = statistics.computeIfAbsent(keys.get(i), k -> new Statistics());
+            var margin = ( movers.get(i) == Color.WHITE ) ? difference : -difference;
+            entry.games++;
+            entry.points += Integer.signum(margin) + 1;
+        }
+    }
+
+    /**
+     * Records a search score of {@code move} from current position of {@code game}, replacing any previous one.
+     *
+     * @param game Game in progress
+     * @param move Valid move
+     * @param evaluation Score of {@code move} for the player to move
+     *
+     * @throws IllegalArgumentException If board size differs, game is over, or move is invalid
+     */
+    public void addSearchResult(Game game, Coordinates move, int evaluation) throws IllegalArgumentException {
+        if ( game.getWidth() != width || game.getHeight() != height ) throw new IllegalArgumentException("Board size differs");
+        if ( game.isOver() || !game.isValidMove(move) ) throw new IllegalArgumentException(String.format("Invalid move: %s", move));
+
+        statistics.computeIfAbsent(key(game, move), k -> new Statistics()).evaluation = evaluation;
+    }
+
+    /**
+     * Writes recorded statistics to {@code path}, replacing it.
+     *
+     * @param path Book file
+     *
+     * @throws IOException If file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        var keys = new ArrayList<>(statistics.keySet());
+        keys.sort(Comparator.comparingLong(Key::hash).thenComparingInt(Key::index));
+
+        try (
+            var channel = FileChannel.open(
+                path,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            var header = ByteBuffer.allocate(OpeningBook.HEADER_BYTES)
+                .putInt(OpeningBook.MAGIC)
+                .putInt(OpeningBook.VERSION)
+                .putInt(width)
+                .putInt(height)
+                .putLong(keys.size())
+                .flip();
+            writeFully(channel, header);
+
+            var buffer = ByteBuffer.allocate(BUFFER_RECORDS * OpeningBook.RECORD_BYTES);
+            for ( var key : keys ) {
+                var entry = statistics.get(key);
+                buffer.putLong(key.hash())
+                    .putInt(key.index())
+                    .putInt(entry.games)
+                    .putInt(entry.points)
+                    .putInt(entry.evaluation);
+
+                if ( !buffer.hasRemaining() ) {
+                    writeFully(channel, buffer.flip());
+                    buffer.clear();
+                }
+            }
+            writeFully(channel, buffer.flip());
+        }
+    }
+
+    /**
+     * @param game Game in progress
+     * @param move Move from current position of {@code game}
+     * @return Key of {@code move} on the canonical image of the position
+     */
+    private Key key(Game game, Coordinates move) {
+        var canonical = game.canonicalSymmetry().apply(move, width, height);
+        return new Key(game.canonicalHash(), canonical.y() * width + canonical.x());
+    }
+
+    // self-explanatory
+    static private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while ( buffer.hasRemaining() )
+            channel.write(buffer);
+    }
+}
@@ -0,0 +1,419 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Game;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AI that searches the game tree like {@code SearchAI}, splitting work across a {@code ForkJoinPool}.
+ * <p>
+ * Work is split with young brothers wait: at the root and at principal variation nodes deep enough to be worth it,
+ * the first move is searched alone to establish a bound, then its siblings are searched in parallel with a null window,
+ * each on its own copy of the game. Siblings failing high are searched again with a full window, sequentially.
+ * <p>
+ * All threads share a single {@code TranspositionTable}, which needs no locking.
+ * <p>
+ * Like {@code SearchAI}, positions with few free tiles are solved by an {@code EndgameSolver}, on the calling thread.
+ *
+ * @see SearchAI
+ */
+public class ParallelSearchAI implements Strategy, AutoCloseable {
+    static private final int INFINITY = Integer.MAX_VALUE;
+    static private final int CHECK_INTERVAL = 1024; // nodes between budget checks
+    static private final int SPLIT_DEPTH = 3; // minimal remaining depth of a split node, shallower ones are not worth a copy
+
+    private final ForkJoinPool pool;
+    private final long budget; // time budget per move, in nanoseconds
+    private final long nodeLimit; // node budget per move
+    private final int endgameFree; // number of free tiles from which positions are solved
+    private final EndgameSolver solver;
+    private final Evaluation evaluation; // of positions at depth limit, shared by all threads
+    private final TranspositionTable table; // shared by all threads
+
+    private long deadline; // System.nanoTime() past which search aborts
+    private final LongAdder nodes; // nodes searched for current move, by all threads
+    private volatile boolean aborted; // has budget expired?
+    private volatile boolean cutoff; // has current iteration reached its depth limit before the end of the game?
+
+    private SearchAI.Report lastReport;
+    private EndgameSolver.Report lastEndgameReport; // null if last move was searched
+
+    /**
+     * Constructs a parallel search AI running on {@code threads} and limited by {@code budget} and {@code nodeLimit} per move,
+     * solving positions with at most {@code endgameFree} free tiles, evaluating others with {@code evaluation}
+     * and keeping results in {@code table}.
+     *
+     * @param budget Time budget per move
+     * @param nodeLimit Node budget per move
+     * @param threads Number of threads
+     * @param endgameFree Number of free tiles from which positions are solved, {@code 0} to never solve
+     * @param evaluation Evaluation of positions at depth limit, must be thread safe
+     * @param table Transposition table, may be shared with other searches
+     *
+     * @throws IllegalArgumentException If any budget or thread count is not positive or {@code endgameFree} is negative
+     */
+    public ParallelSearchAI(Duration budget, long nodeLimit, int threads, int endgameFree, Evaluation evaluation, TranspositionTable table) throws IllegalArgumentException {
+        if ( budget.isNegative() || budget.isZero() || nodeLimit <= 0 || threads <= 0 || endgameFree < 0 )
+            throw new IllegalArgumentException();
+
+        this.pool = new ForkJoinPool(threads);
+        this.budget = budget.toNanos();
+        this.nodeLimit = nodeLimit;
+        this.endgameFree = endgameFree;
+        this.solver = new EndgameSolver(budget, nodeLimit);
+        this.evaluation = evaluation;
+        this.table = table;
+        this.nodes = new LongAdder();
+    }
+
+    /**
+     * Constructs a parallel search AI running on {@code threads} and limited by {@code budget} and {@code nodeLimit} per move,
+     * solving positions with at most {@code endgameFree} free tiles and evaluating others with {@code evaluation}.
+     *
+     * @param budget Time budget per move
+     * @param nodeLimit Node budget per move
+     * @param threads Number of threads
+     * @param endgameFree Number of free tiles from which positions are solved, {@code 0} to never solve
+     * @param evaluation Evaluation of positions at depth limit, must be thread safe
+     *
+     * @throws IllegalArgumentException If any budget or thread count is not positive or {@code endgameFree} is negative
+     */
+    public ParallelSearchAI(Duration budget, long nodeLimit, int threads, int endgameFree, Evaluation evaluation) throws IllegalArgumentException {
+        this(budget, nodeLimit, threads, endgameFree, evaluation, new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES));
+    }
+
+    /**
+     * Constructs a parallel search AI running on {@code threads} and limited by {@code budget} and {@code nodeLimit} per move,
+     * solving positions with at most {@code endgameFree} free tiles.
+     *
+     * @param budget Time budget per move
+     * @param nodeLimit Node budget per move
+     * @param threads Number of threads
+     * @param endgameFree Number of free tiles from which positions are solved, {@code 0} to never solve
+     *
+     * @throws IllegalArgumentException If any budget or thread count is not positive or {@code endgameFree} is negative
+     */
+    public ParallelSearchAI(Duration budget, long nodeLimit, int threads, int endgameFree) throws IllegalArgumentException {
+        this(budget, nodeLimit, threads, endgameFree, Evaluation.HEURISTIC);
+    }
+
+    /**
+     * Constructs a parallel search AI running on {@code threads} and limited by {@code budget} and {@code nodeLimit} per move.
+     *
+     * @param budget Time budget per move
+     * @param nodeLimit Node budget per move
+     * @param threads Number of threads
+     *
+     * @throws IllegalArgumentException If any budget or thread count is not positive
+     */
+    public ParallelSearchAI(Duration budget, long nodeLimit, int threads) throws IllegalArgumentException {
+        this(budget, nodeLimit, threads, SearchAI.ENDGAME_FREE);
+    }
+
+    /**
+     * Constructs a parallel search AI running on {@code threads} and limited by {@code budget} per move.
+     *
+     * @param budget Time budget per move
+     * @param threads Number of threads
+     *
+     * @throws IllegalArgumentException If budget or thread count is not positive
+     */
+    public ParallelSearchAI(Duration budget, int threads) throws IllegalArgumentException {
+        this(budget, Long.MAX_VALUE, threads);
+    }
+
+    /**
+     * @return Number of threads
+     */
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @return Report of last search, {@code null} if none
+     */
+    public SearchAI.Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return Report of last move if solved by the endgame solver, {@code null} otherwise
+     */
+    public EndgameSolver.Report getLastEndgameReport() {
+        return lastEndgameReport;
+    }
+
+    /**
+     * @return Transposition table
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Shuts down the pool.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    @Override
+    public Coordinates nextMove(Game game) throws IllegalArgumentException {
+        if ( game.isOver() ) throw new IllegalArgumentException();
+
+        var start = System.nanoTime();
+        deadline = start + budget;
+        nodes.reset();
+        aborted = false;
+        table.newSearch();
+
+        lastEndgameReport = SearchAI.solve(game, solver, endgameFree, deadline).orElse(null);
+        if ( lastEndgameReport != null ) {
+            lastReport = SearchAI.fromEndgame(lastEndgameReport);
+            return lastEndgameReport.move();
+        }
+
+        var root = new Game(game); // searched by pool threads, leaves caller's game untouched
+        var moves = SearchAI.orderedMoves(root);
+        var best = moves.get(0);
+        var bestScore = 0;
+        var depth = 0;
+
+        // a forced move needs no search
+        while ( moves.size() > 1 && !aborted ) {
+            cutoff = false;
+
+            var iteration = new Split(root, moves, depth, -INFINITY, INFINITY);
+            pool.invoke(iteration);
+
+            if ( iteration.best != null ) {
+                best = iteration.best;
+                bestScore = iteration.alpha;
+            }
+            if ( aborted ) break;
+
+            depth++;
+            // search best move first on next iteration
+            moves.remove(best);
+            moves.add(0, best);
+
+            if ( !cutoff ) break; // exact, deeper iterations would find the same
+        }
+
+        lastReport = new SearchAI.Report(best, bestScore, depth, nodes.sum(), System.nanoTime() - start);
+        return best;
+    }
+
+    /**
+     * Searches the moves of a node with young brothers wait.
+     * <p>
+     * Fail-hard: result is within [{@code alpha}, {@code beta}].
+     */
+    @SuppressWarnings("serial") // never serialized
+    private class Split extends RecursiveTask<Integer> {
+        private final Game game; // owned by this task, only copied while siblings run
+        private final List<Coordinates> moves;
+        private final int depth; // remaining depth below moves, in plies
+        private final int beta;
+
+        private int alpha;
+        private Coordinates best; // best move fully searched, null if none
+
+        Split(Game game, List<Coordinates> moves, int depth, int alpha, int beta) {
+            this.game = game;
+            this.moves = moves;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        @Override
+        protected Integer compute() {
+            var searcher = new Searcher();
+
+            // eldest brother establishes a bound
+            var eldest = searcher.child(game, moves.get(0), depth, alpha, beta);
+            if ( aborted ) return searcher.flush(alpha);
+            update(moves.get(0), eldest);
+            if ( alpha >= beta || moves.size() == 1 ) return searcher.flush(Math.min(alpha, beta));
+
+            // young brothers are searched in parallel with a null window
+            var bound = alpha;
+            var siblings = new ArrayList<Sibling>();
+            for ( var move : moves.subList(1, moves.size()) )
+                siblings.add(new Sibling(game, move, depth, bound));
+            ForkJoinTask.invokeAll(siblings);
+
+            // those failing high are searched again with a full window
+            for ( var sibling : siblings ) {
+                if ( aborted ) break;
+
+                var value = sibling.join();
+                if ( value <= sibling.bound ) continue; // proven no better than bound, hence than alpha
+
+                value = searcher.child(game, sibling.move, depth, alpha, beta);
+                if ( aborted ) break;
+
+                update(sibling.move, value);
+                if ( alpha >= beta ) break;
+            }
+
+            return searcher.flush(Math.min(alpha, beta));
+        }
+
+        // self-explanatory
+        private void update(Coordinates move, int value) {
+            if ( value > alpha || best == null ) {
+                alpha = Math.max(alpha, value);
+                best = move;
+            }
+        }
+    }
+
+    /**
+     * Searches a single move with a null window on its own copy of the game.
+     */
+    @SuppressWarnings("serial") // never serialized
+    private class Sibling extends RecursiveTask<Integer> {
+        private final Game game; // shared with parent, only copied
+        private final Coordinates move;
+        private final int depth;
+        private final int bound;
+
+        Sibling(Game game, Coordinates move, int depth, int bound) {
+            this.game = game;
+            this.move = move;
+            this.depth = depth;
+            this.bound = bound;
+        }
+
+        @Override
+        protected Integer compute() {
+            var searcher = new Searcher();
+            return searcher.flush(searcher.child(new Game(game), move, depth, bound, bound + 1));
+        }
+    }
+
+    /**
+     * Sequential search state of a task, accumulating nodes locally.
+     */
+    private class Searcher {
+        private long local; // nodes not yet added to shared count
+
+        /**
+         * Searches {@code move} played on {@code game} to {@code depth}, then undoes it.
+         *
+         * @param game Game in progress, owned by calling task
+         * @param move Move to search
+         * @param depth Remaining depth below move, in plies
+         * @param alpha Lower bound
+         * @param beta Upper bound
+         * @return Score of {@code move} for the player to move
+         */
+        int child(Game game, Coordinates move, int depth, int alpha, int beta) {
+            var color = game.getCurrentPlayer().getColor();
+
+            game.nextMove(move);
+            var value = game.isOver()
+                ? SearchAI.terminal(game, color)
+                : -search(game, depth, -beta, -alpha);
+            game.undo();
+
+            return value;
+        }
+
+        /**
+         * Searches {@code game} to {@code depth} with principal variation search, splitting principal variation nodes.
+         * <p>
+         * Fail-hard: returns a value within [{@code alpha}, {@code beta}].
+         * Returns a meaningless value if budget expires.
+         *
+         * @param game Game in progress, owned by calling task
+         * @param depth Remaining depth, in plies
+         * @param alpha Lower bound
+         * @param beta Upper bound
+         * @return Score for the player to move
+         */
+        private int search(Game game, int depth, int alpha, int beta) {
+            if ( ++local == CHECK_INTERVAL ) {
+                nodes.add(local);
+                local = 0;
+                if ( System.nanoTime() - deadline >= 0 || nodes.sum() >= nodeLimit )
+                    aborted = true;
+            }
+            if ( aborted ) return alpha;
+
+            if ( depth == 0 ) {
+                if ( !cutoff )
+                    cutoff = true; // spares contended writes
+                return Math.max(alpha, Math.min(beta, evaluation.evaluate(game)));
+            }
+
+            var entry = table.probe(game.positionHash());
+            var settled = SearchAI.lookup(entry, depth, alpha, beta);
+            if ( settled != SearchAI.UNKNOWN ) {
+                if ( !cutoff && SearchAI.isCutoff(game, entry) )
+                    cutoff = true;
+                return settled;
+            }
+
+            var moves = SearchAI.orderedMoves(game, entry);
+            if ( depth >= SPLIT_DEPTH && (long) beta - alpha > 1 && moves.size() > 1 ) { // PV node, width in long as infinite bounds overflow int
+                var split = new Split(game, moves, depth - 1, alpha, beta);
+                var value = split.invoke();
+                if ( !aborted )
+                    SearchAI.store(table, game, depth, alpha, beta, value, split.best);
+                return value;
+            }
+
+            var lower = alpha;
+            var first = true;
+            Coordinates best = null;
+            for ( var move : moves ) {
+                int value;
+                if ( first )
+                    value = child(game, move, depth - 1, alpha, beta);
+                else {
+                    value = child(game, move, depth - 1, alpha, alpha + 1);
+                    if ( value > alpha && value < beta && !aborted )
+                        value = child(game, move, depth - 1, alpha, beta);
+                }
+
+                if ( aborted ) return alpha;
+                first = false;
+
+                if ( value > alpha ) {
+                    alpha = value;
+                    best = move;
+                    if ( alpha >= beta ) {
+                        alpha = beta;
+                        break;
+                    }
+                }
+            }
+
+            SearchAI.store(table, game, depth, lower, beta, alpha, best);
+            return alpha;
+        }
+
+        /**
+         * Adds local nodes to shared count.
+         *
+         * @param value Value to pass through
+         * @return {@code value}
+         */
+        int flush(int value) {
+            nodes.add(local);
+            local = 0;
+            return value;
+        }
+    }
+}
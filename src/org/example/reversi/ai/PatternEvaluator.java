@@ -0,0 +1,241 @@
+package org.example.reversi.ai;
+
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+import org.example.reversi.PatternLayout;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Evaluation summing weights of the patterns of a board, looked up by their ternary index.
+ * <p>
+ * Pattern indexes are tracked incrementally by the board of the evaluated game, so an evaluation costs one table lookup
+ * per pattern whatever the board size. Weights are scores for white, one table per pattern type, for one board size;
+ * games of other sizes are evaluated with {@code Evaluation.HEURISTIC}.
+ * <p>
+ * File format, big-endian: magic {@code int}, version {@code int}, width {@code int}, height {@code int},
+ * number of types {@code int}, then for each type in {@code PatternLayout.Type} order:
+ * length {@code int} followed by {@code 3^length} weights {@code float}.
+ *
+ * @see PatternLayout
+ */
+public final class PatternEvaluator implements Evaluation {
+    static private final int MAGIC = 0x52565054; // "RVPT"
+    static private final int VERSION = 1;
+
+    // positional value of tiles near a corner, by distance to it along each axis
+    static private final int CORNER_VALUE = 20;
+    static private final int C_SQUARE_VALUE = -4; // edge tile next to a corner
+    static private final int X_SQUARE_VALUE = -8; // tile diagonal to a corner
+    static private final int EDGE_VALUE = 2;
+    static private final int SECOND_VALUE = -1; // tile next to an edge
+
+    private final PatternLayout layout;
+    private final float[][] weights; // by type ordinal then index
+    private final float[][] instanceWeights; // weights of each instance, shared with its type
+
+    /**
+     * @param layout Layout of board size
+     * @param weights Weights by type ordinal then index
+     */
+    private PatternEvaluator(PatternLayout layout, float[][] weights) {
+        this.layout = layout;
+        this.weights = weights;
+        this.instanceWeights = new float[layout.size()][];
+        for ( int i = 0; i < layout.size(); i++ )
+            instanceWeights[i] = weights[layout.getType(i).ordinal()];
+    }
+
+    /**
+     * Builds an evaluator from positional values of tiles, favoring corners and edges and penalizing tiles next to corners.
+     * <p>
+     * Meant as a starting point before weights are fitted on game data.
+     *
+     * @param width Board width
+     * @param height Board height
+     * @return Evaluator
+     *
+     * @throws IllegalArgumentException If any size is less than 4
+     */
+    static public PatternEvaluator positional(int width, int height) throws IllegalArgumentException {
+        var layout = PatternLayout.of(width, height);
+        var types = PatternLayout.Type.values();
+        var weights = new float[types.length][];
+
+        for ( var type : types ) {
+            // first instance of type, anchored at (0 0)
+            var instance = 0;
+            while ( layout.getType(instance) != type )
+                instance++;
+
+            // value of a white tile at each digit, shared by the patterns covering it
+            var length = layout.length(type);
+            var values = new float[length];
+            for ( int digit = 0; digit < length; digit++ ) {
+                var tile = layout.getTile(instance, digit);
+                var x = tile % width;
+                var y = tile / width;
+                values[digit] = (float) value(Math.min(x, width - 1 - x), Math.min(y, height - 1 - y)) / coverage(layout, tile);
+            }
+
+            weights[type.ordinal()] = new float[layout.indexes(type)];
+            for ( int index = 0; index < weights[type.ordinal()].length; index++ ) {
+                var weight = 0f;
+                var rest = index;
+                for ( int digit = 0; digit < length; digit++, rest /= 3 )
+                    if ( rest % 3 == 1 )
+                        weight += values[digit];
+                    else if ( rest % 3 == 2 )
+                        weight -= values[digit];
+                weights[type.ordinal()][index] = weight;
+            }
+        }
+
+        return new PatternEvaluator(layout, weights);
+    }
+
+    /**
+     * @param x Distance to closest vertical edge
+     * @param y Distance to closest horizontal edge
+     * @return Positional value of a tile
+     */
+    static private int value(int x, int y) {
+        int value;
+        if ( x == 0 && y == 0 )
+            value = CORNER_VALUE;
+        else if ( x + y == 1 )
+            value = C_SQUARE_VALUE;
+        else if ( x == 1 && y == 1 )
+            value = X_SQUARE_VALUE;
+        else if ( x == 0 || y == 0 )
+            value = EDGE_VALUE;
+        else if ( x == 1 || y == 1 )
+            value = SECOND_VALUE;
+        else
+            value = 0;
+
+        return value;
+    }
+
+    /**
+     * @param layout Layout
+     * @param tile Row major tile index
+     * @return Number of instances covering {@code tile}
+     */
+    static private int coverage(PatternLayout layout, int tile) {
+        var coverage = 0;
+        for ( int i = 0; i < layout.size(); i++ )
+            for ( int digit = 0; digit < layout.length(layout.getType(i)); digit++ )
+                if ( layout.getTile(i, digit) == tile )
+                    coverage++;
+
+        return coverage;
+    }
+
+    /**
+     * Loads weights from {@code path}.
+     *
+     * @param path Weights file
+     * @return Evaluator
+     *
+     * @throws IOException If file cannot be read or is not a weights file
+     */
+    static public PatternEvaluator load(Path path) throws IOException {
+        try (
+            var channel = FileChannel.open(path, StandardOpenOption.READ)
+        ) {
+            if ( channel.size() > Integer.MAX_VALUE ) throw new IOException(String.format("Not a weights file: %s", path));
+
+            var buffer = ByteBuffer.allocate((int) channel.size());
+            var read = 0;
+            while ( buffer.hasRemaining() && read >= 0 )
+                read = channel.read(buffer);
+            buffer.flip();
+
+            try {
+                if ( buffer.getInt() != MAGIC || buffer.getInt() != VERSION ) throw new IOException(String.format("Not a weights file: %s", path));
+
+                var layout = PatternLayout.of(buffer.getInt(), buffer.getInt());
+                var types = PatternLayout.Type.values();
+                if ( buffer.getInt() != types.length ) throw new IOException(String.format("Unknown pattern types: %s", path));
+
+                var weights = new float[types.length][];
+                for ( var type : types ) {
+                    if ( buffer.getInt() != layout.length(type) ) throw new IOException(String.format("Pattern length differs: %s", path));
+
+                    weights[type.ordinal()] = new float[layout.indexes(type)];
+                    buffer.asFloatBuffer().get(weights[type.ordinal()]);
+                    buffer.position(buffer.position() + Float.BYTES * weights[type.ordinal()].length);
+                }
+                if ( buffer.hasRemaining() ) throw new IOException(String.format("Trailing bytes: %s", path));
+
+                return new PatternEvaluator(layout, weights);
+            }
+            catch ( BufferUnderflowException | IllegalArgumentException e ) {
+                throw new IOException(String.format("Truncated or invalid weights file: %s", path), e);
+            }
+        }
+    }
+
+    /**
+     * Writes weights to {@code path}, replacing it.
+     *
+     * @param path Weights file
+     *
+     * @throws IOException If file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        var types = PatternLayout.Type.values();
+        var bytes = 5 * Integer.BYTES;
+        for ( var type : types )
+            bytes += Integer.BYTES + Float.BYTES * layout.indexes(type);
+
+        var buffer = ByteBuffer.allocate(bytes)
+            .putInt(MAGIC)
+            .putInt(VERSION)
+            .putInt(layout.getWidth())
+            .putInt(layout.getHeight())
+            .putInt(types.length);
+        for ( var type : types ) {
+            buffer.putInt(layout.length(type));
+            for ( var weight : weights[type.ordinal()] )
+                buffer.putFloat(weight);
+        }
+        buffer.flip();
+
+        try (
+            var channel = FileChannel.open(
+                path,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
+            )
+        ) {
+            while ( buffer.hasRemaining() )
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * @return Layout of board size of weights
+     */
+    public PatternLayout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public int evaluate(Game game) {
+        if ( game.getWidth() != layout.getWidth() || game.getHeight() != layout.getHeight() ) return HEURISTIC.evaluate(game);
+
+        var indexes = game.trackPatterns();
+        var sum = 0f;
+        for ( int i = 0; i < instanceWeights.length; i++ )
+            sum += instanceWeights[i][indexes.get(i)];
+
+        var white = Math.round(sum);
+        return ( game.getCurrentPlayer().getColor() == Color.WHITE ) ? white : -white;
+    }
+}
@@ -4,6 +4,7 @@ import org.example.board.ordinal.Coordinates;
 import org.example.reversi.Game;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * AI that selects a random valid move.
@@ -25,6 +26,21 @@ public class RandomAI {
      * @throws IllegalArgumentException If game is over
      */
     static public Coordinates nextMove(Game game) {
+        return nextMove(game, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Selects a random valid move for a game drawn from {@code random}. Searches for up to {@code LIMIT} moves.
+     * <p>
+     * Seeded generators make games reproducible.
+     *
+     * @param game Game to compute next move for
+     * @param random Random generator
+     * @return Random valid move
+     *
+     * @throws IllegalArgumentException If game is over
+     */
+    static public Coordinates nextMove(Game game, RandomGenerator random) {
         if ( game.isOver() ) throw new IllegalArgumentException();
 
         var moves = game.findValidMoves()
@@ -33,7 +49,7 @@ public class RandomAI {
             .toList();
 
         return moves.get(
-                ThreadLocalRandom.current().nextInt(moves.size())
+                random.nextInt(moves.size())
             );
     }
 }
@@ -0,0 +1,502 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * AI that searches the game tree with negamax, alpha-beta pruning and principal variation search.
+ * <p>
+ * Search deepens iteratively until the time or node budget expires, or the game tree is exhausted,
+ * then plays the best move of the last completed iteration, or a better one proven by the interrupted iteration.
+ * Moves are played and undone on a copy of the searched {@code Game}, so the game and its move listeners never see them.
+ * <p>
+ * Results are kept in a {@code TranspositionTable}, whose entries cut off positions reached again or already searched
+ * deep enough by an earlier iteration, and otherwise put their best move first.
+ * <p>
+ * Once few tiles are free, positions are solved by an {@code EndgameSolver} within the same budget,
+ * for win, loss or draw first, then exactly; search takes over if the budget expires first.
+ */
+public class SearchAI implements Strategy {
+    /**
+     * Outcome of a search.
+     *
+     * @param move Selected move
+     * @param score Score of {@code move} for the player to move
+     * @param depth Depth of the last completed iteration, in plies
+     * @param nodes Number of nodes searched
+     * @param nanos Time spent searching, in nanoseconds
+     */
+    public record Report(Coordinates move, int score, int depth, long nodes, long nanos) {
+        /**
+         * @return Nodes searched per second
+         */
+        public long nodesPerSecond() {
+            return ( nanos == 0 ) ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+    }
+
+    static public final int ENDGAME_FREE = 14; // default number of free tiles from which positions are solved
+
+    static private final int INFINITY = Integer.MAX_VALUE;
+    static private final int WIN = Integer.MAX_VALUE / 2; // base score of a won game, beyond any evaluation
+    static private final int CORNER_WEIGHT = 25; // evaluation of an owned corner
+    static private final int CHECK_INTERVAL = 1024; // nodes between budget checks
+
+    static final int UNKNOWN = Integer.MIN_VALUE; // no score, beyond -INFINITY
+
+    /**
+     * Scores a finished game for {@code color}.
+     *
+     * @param game Finished game
+     * @param color Color to score for
+     * @return Score beyond any evaluation, offset by disc difference
+     */
+    static int terminal(Game game, Color color) {
+        var difference = discDifference(game, color);
+        return Integer.signum(difference) * WIN + difference;
+    }
+
+    /**
+     * Heuristically evaluates a game in progress for the player to move.
+     * <p>
+     * Combines disc difference, owned corners and mobility.
+     *
+     * @param game Game in progress
+     * @return Evaluation for the player to move
+     */
+    static int evaluate(Game game) {
+        var color = game.getCurrentPlayer().getColor();
+        var right = game.getWidth() - 1;
+        var bottom = game.getHeight() - 1;
+
+        var corners = corner(game, color, 0, 0)
+            + corner(game, color, right, 0)
+            + corner(game, color, 0, bottom)
+            + corner(game, color, right, bottom);
+        var mobility = game.countValidMoves();
+
+        return discDifference(game, color) + CORNER_WEIGHT * corners + mobility;
+    }
+
+    /**
+     * Orders moves from most to least promising: corners, edges, inner tiles, then tiles diagonal to a corner.
+     *
+     * @param game Game in progress
+     * @return Valid moves of the player to move, ordered
+     */
+    static List<Coordinates> orderedMoves(Game game) {
+        var moves = new ArrayList<Coordinates>();
+        game.findValidMoves().forEach(moves::add);
+        moves.sort(Comparator.comparingInt(m -> -priority(game, m)));
+
+        return moves;
+    }
+
+    /**
+     * Orders moves like {@link #orderedMoves(Game)}, the best move of a transposition table entry first.
+     *
+     * @param game Game in progress
+     * @param entry Transposition table entry of {@code game}, {@code 0} if none
+     * @return Valid moves of the player to move, ordered
+     */
+    static List<Coordinates> orderedMoves(Game game, long entry) {
+        var moves = orderedMoves(game);
+        var index = ( entry == 0 ) ? TranspositionTable.NO_MOVE : TranspositionTable.move(entry);
+        if ( index != TranspositionTable.NO_MOVE ) {
+            var move = new Coordinates(index % game.getWidth(), index / game.getWidth());
+            if ( moves.remove(move) ) // false on a key collision
+                moves.add(0, move);
+        }
+
+        return moves;
+    }
+
+    /**
+     * Finds whether a transposition table entry settles the score of a position within a window.
+     *
+     * @param entry Transposition table entry of {@code game}, {@code 0} if none
+     * @param depth Remaining depth, in plies
+     * @param alpha Lower bound
+     * @param beta Upper bound
+     * @return Fail-hard score, {@link #UNKNOWN} if not settled
+     */
+    static int lookup(long entry, int depth, int alpha, int beta) {
+        if ( entry == 0 || TranspositionTable.depth(entry) < depth ) return UNKNOWN;
+
+        var score = TranspositionTable.score(entry);
+        return switch ( TranspositionTable.bound(entry) ) {
+            case TranspositionTable.EXACT -> Math.max(alpha, Math.min(beta, score));
+            case TranspositionTable.LOWER -> ( score >= beta ) ? beta : UNKNOWN;
+            case TranspositionTable.UPPER -> ( score <= alpha ) ? alpha : UNKNOWN;
+            default -> UNKNOWN;
+        };
+    }
+
+    /**
+     * @param game Game in progress
+     * @param entry Transposition table entry of {@code game}
+     * @return {@code true} if the search stored in {@code entry} may have reached its depth limit before the end of the game
+     */
+    static boolean isCutoff(Game game, long entry) {
+        // each ply fills a tile, so a search at least as deep as free tiles always reaches the end
+        return TranspositionTable.depth(entry) < game.countFree();
+    }
+
+    /**
+     * Stores a fail-hard search result.
+     *
+     * @param table Transposition table
+     * @param game Searched game
+     * @param depth Remaining depth, in plies
+     * @param alpha Lower bound searched with
+     * @param beta Upper bound searched with
+     * @param value Score found
+     * @param best Move that raised {@code alpha}, {@code null} if none
+     */
+    static void store(TranspositionTable table, Game game, int depth, int alpha, int beta, int value, Coordinates best) {
+        int bound;
+        if ( value >= beta )
+            bound = TranspositionTable.LOWER;
+        else if ( value > alpha )
+            bound = TranspositionTable.EXACT;
+        else
+            bound = TranspositionTable.UPPER;
+
+        var move = ( best == null || bound == TranspositionTable.UPPER )
+            ? TranspositionTable.NO_MOVE
+            : best.y() * game.getWidth() + best.x();
+        table.store(game.positionHash(), value, depth, bound, move);
+    }
+
+    /**
+     * Solves {@code game} if it has at most {@code endgameFree} free tiles: for win, loss or draw, then exactly if budget allows.
+     *
+     * @param game Game in progress
+     * @param solver Solver
+     * @param endgameFree Number of free tiles from which positions are solved
+     * @param deadline {@code System.nanoTime()} past which solving aborts
+     * @return Outcome, exact if possible, empty if not solved
+     */
+    static Optional<EndgameSolver.Report> solve(Game game, EndgameSolver solver, int endgameFree, long deadline) {
+        if ( game.countFree() > endgameFree ) return Optional.empty();
+
+        var outcome = solver.solve(game, false, deadline);
+        var exact = outcome.flatMap(o -> solver.solve(game, true, deadline));
+
+        return exact.or(() -> outcome);
+    }
+
+    /**
+     * @param report Outcome of endgame solver
+     * @return Equivalent search report, depth being the number of free tiles
+     */
+    static Report fromEndgame(EndgameSolver.Report report) {
+        var score = Integer.signum(report.score()) * WIN + ( report.exact() ? report.score() : 0 );
+        return new Report(report.move(), score, report.free(), report.nodes(), report.nanos());
+    }
+
+    // self-explanatory
+    static private int discDifference(Game game, Color color) {
+        var player = ( game.getWhite().getColor() == color ) ? game.getWhite() : game.getBlack();
+        return player.getScore() - player.getVersus().getScore();
+    }
+
+    /**
+     * @param game Game
+     * @param color Color to score for
+     * @param x Horizontal axis coordinate of corner
+     * @param y Vertical axis coordinate of corner
+     * @return {@code 1} if owned by {@code color}, {@code -1} if owned by its opponent, {@code 0} if free
+     */
+    static private int corner(Game game, Color color, int x, int y) {
+        var tile = game.getTile(x, y);
+
+        int owner;
+        if ( tile == color.getTile() )
+            owner = 1;
+        else if ( tile == color.getVersus().getTile() )
+            owner = -1;
+        else
+            owner = 0;
+
+        return owner;
+    }
+
+    /**
+     * @param game Game
+     * @param move Move
+     * @return Ordering priority of {@code move}, higher first
+     */
+    static private int priority(Game game, Coordinates move) {
+        var xEdge = ( move.x() == 0 || move.x() == game.getWidth() - 1 );
+        var yEdge = ( move.y() == 0 || move.y() == game.getHeight() - 1 );
+        var xNear = ( move.x() == 1 || move.x() == game.getWidth() - 2 );
+        var yNear = ( move.y() == 1 || move.y() == game.getHeight() - 2 );
+
+        int priority;
+        if ( xEdge && yEdge )
+            priority = 2;
+        else if ( xEdge || yEdge )
+            priority = 1;
+        else if ( xNear && yNear )
+            priority = -1;
+        else
+            priority = 0;
+
+        return priority;
+    }
+
+    private final long budget; // time budget per move, in nanoseconds
+    private final long nodeLimit; // node budget per move
+    private final int endgameFree; // number of free tiles from which positions are solved
+    private final EndgameSolver solver;
+    private final Evaluation evaluation; // of positions at depth limit
+    private final TranspositionTable table;
+
+    private long deadline; // System.nanoTime() past which search aborts
+    private long nodes; // nodes searched for current move
+    private boolean aborted; // has budget expired?
+    private boolean cutoff; // has current iteration reached its depth limit before the end of the game?
+
+    private Report lastReport;
+    private EndgameSolver.Report lastEndgameReport; // null if last move was searched
+
+    /**
+     * Constructs a search AI limited by {@code budget} and {@code nodeLimit} per move,
+     * solving positions with at most {@code endgameFree} free tiles, evaluating others with {@code evaluation}
+     * and keeping results in {@code table}.
+     *
+     * @param budget Time budget per move
+     * @param nodeLimit Node budget per move
+     * @param endgameFree Number of free tiles from which positions are solved, {@code 0} to never solve
+     * @param evaluation Evaluation of positions at depth limit
+     * @param table Transposition table, may be shared with other searches
+     *
+     * @throws IllegalArgumentException If any budget is not positive or {@code endgameFree} is negative
+     */
+    public SearchAI(Duration budget, long nodeLimit, int endgameFree, Evaluation evaluation, TranspositionTable table) throws IllegalArgumentException {
+        if ( budget.isNegative() || budget.isZero() || nodeLimit <= 0 || endgameFree < 0 ) throw new IllegalArgumentException();
+
+        this.budget = budget.toNanos();
+        this.nodeLimit = nodeLimit;
+        this.endgameFree = endgameFree;
+        this.solver = new EndgameSolver(budget, nodeLimit);
+        this.evaluation = evaluation;
+        this.table = table;
+    }
+
+    /**
+     * Constructs a search AI limited by {@code budget} and {@code nodeLimit} per move,
+     * solving positions with at most {@code endgameFree} free tiles and evaluating others with {@code evaluation}.
+     *
+     * @param budget Time budget per move
+     * @param nodeLimit Node budget per move
+     * @param endgameFree Number of free tiles from which positions are solved, {@code 0} to never solve
+     * @param evaluation Evaluation of positions at depth limit
+     *
+     * @throws IllegalArgumentException If any budget is not positive or {@code endgameFree} is negative
+     */
+    public SearchAI(Duration budget, long nodeLimit, int endgameFree, Evaluation evaluation) throws IllegalArgumentException {
+        this(budget, nodeLimit, endgameFree, evaluation, new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES));
+    }
+
+    /**
+     * Constructs a search AI limited by {@code budget} and {@code nodeLimit} per move,
+     * solving positions with at most {@code endgameFree} free tiles.
+     *
+     * @param budget Time budget per move
+     * @param nodeLimit Node budget per move
+     * @param endgameFree Number of free tiles from which positions are solved, {@code 0} to never solve
+     *
+     * @throws IllegalArgumentException If any budget is not positive or {@code endgameFree} is negative
+     */
+    public SearchAI(Duration budget, long nodeLimit, int endgameFree) throws IllegalArgumentException {
+        this(budget, nodeLimit, endgameFree, Evaluation.HEURISTIC);
+    }
+
+    /**
+     * Constructs a search AI limited by {@code budget} and {@code nodeLimit} per move.
+     *
+     * @param budget Time budget per move
+     * @param nodeLimit Node budget per move
+     *
+     * @throws IllegalArgumentException If any budget is not positive
+     */
+    public SearchAI(Duration budget, long nodeLimit) throws IllegalArgumentException {
+        this(budget, nodeLimit, ENDGAME_FREE);
+    }
+
+    /**
+     * Constructs a search AI limited by {@code budget} per move.
+     *
+     * @param budget Time budget per move
+     *
+     * @throws IllegalArgumentException If budget is not positive
+     */
+    public SearchAI(Duration budget) throws IllegalArgumentException {
+        this(budget, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return Report of last search, {@code null} if none
+     */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * @return Report of last move if solved by the endgame solver, {@code null} otherwise
+     */
+    public EndgameSolver.Report getLastEndgameReport() {
+        return lastEndgameReport;
+    }
+
+    /**
+     * @return Transposition table
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    @Override
+    public Coordinates nextMove(Game game) throws IllegalArgumentException {
+        if ( game.isOver() ) throw new IllegalArgumentException();
+
+        var start = System.nanoTime();
+        deadline = start + budget;
+        nodes = 0;
+        aborted = false;
+        table.newSearch();
+
+        lastEndgameReport = solve(game, solver, endgameFree, deadline).orElse(null);
+        if ( lastEndgameReport != null ) {
+            lastReport = fromEndgame(lastEndgameReport);
+            return lastEndgameReport.move();
+        }
+
+        var root = new Game(game); // copies no listener, leaves caller's game untouched
+        var moves = orderedMoves(root);
+        var best = moves.get(0);
+        var bestScore = 0;
+        var depth = 0;
+
+        // a forced move needs no search
+        while ( moves.size() > 1 && !aborted ) {
+            cutoff = false;
+
+            var color = root.getCurrentPlayer().getColor();
+            var alpha = -INFINITY;
+            Coordinates iterationBest = null;
+
+            for ( var move : moves ) {
+                root.nextMove(move);
+                int value;
+                if ( root.isOver() )
+                    value = terminal(root, color);
+                else if ( iterationBest == null )
+                    value = -search(root, depth, -INFINITY, -alpha);
+                else {
+                    value = -search(root, depth, -alpha - 1, -alpha);
+                    if ( value > alpha && !aborted )
+                        value = -search(root, depth, -INFINITY, -alpha);
+                }
+                root.undo();
+
+                if ( aborted ) break;
+                if ( iterationBest == null || value > alpha ) {
+                    alpha = value;
+                    iterationBest = move;
+                }
+            }
+
+            if ( iterationBest != null ) {
+                best = iterationBest;
+                bestScore = alpha;
+            }
+            if ( aborted ) break;
+
+            depth++;
+            // search best move first on next iteration
+            moves.remove(best);
+            moves.add(0, best);
+
+            if ( !cutoff ) break; // exact, deeper iterations would find the same
+        }
+
+        lastReport = new Report(best, bestScore, depth, nodes, System.nanoTime() - start);
+        return best;
+    }
+
+    /**
+     * Searches {@code game} to {@code depth} with principal variation search.
+     * <p>
+     * Fail-hard: returns a value within [{@code alpha}, {@code beta}].
+     * Returns a meaningless value if budget expires.
+     *
+     * @param game Game in progress
+     * @param depth Remaining depth, in plies
+     * @param alpha Lower bound
+     * @param beta Upper bound
+     * @return Score for the player to move
+     */
+    private int search(Game game, int depth, int alpha, int beta) {
+        if ( ++nodes % CHECK_INTERVAL == 0 )
+            aborted = ( System.nanoTime() - deadline >= 0 || nodes >= nodeLimit );
+        if ( aborted ) return alpha;
+
+        if ( depth == 0 ) {
+            cutoff = true;
+            return Math.max(alpha, Math.min(beta, evaluation.evaluate(game)));
+        }
+
+        var entry = table.probe(game.positionHash());
+        var settled = lookup(entry, depth, alpha, beta);
+        if ( settled != UNKNOWN ) {
+            if ( isCutoff(game, entry) )
+                cutoff = true;
+            return settled;
+        }
+
+        var color = game.getCurrentPlayer().getColor();
+        var lower = alpha;
+        var first = true;
+        Coordinates best = null;
+
+        for ( var move : orderedMoves(game, entry) ) {
+            game.nextMove(move);
+            int value;
+            if ( game.isOver() )
+                value = terminal(game, color);
+            else if ( first )
+                value = -search(game, depth - 1, -beta, -alpha);
+            else {
+                value = -search(game, depth - 1, -alpha - 1, -alpha);
+                if ( value > alpha && value < beta && !aborted )
+                    value = -search(game, depth - 1, -beta, -alpha);
+            }
+            game.undo();
+
+            if ( aborted ) return alpha;
+            first = false;
+
+            if ( value > alpha ) {
+                alpha = value;
+                best = move;
+                if ( alpha >= beta ) {
+                    alpha = beta;
+                    break;
+                }
+            }
+        }
+
+        store(table, game, depth, lower, beta, alpha, best);
+        return alpha;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.reversi.ai;
+
+import org.example.board.ordinal.Coordinates;
+import org.example.reversi.Game;
+
+/**
+ * Selects moves for the current player of a game.
+ * <p>
+ * {@code RandomAI::nextMove} is the simplest strategy.
+ */
+@FunctionalInterface
+public interface Strategy {
+    /**
+     * Selects next move for current player of {@code game}.
+     * <p>
+     * Implementations may play and undo moves on {@code game} while searching, but leave it as they found it.
+     *
+     * @param game Game to compute next move for
+     * @return Valid move
+     *
+     * @throws IllegalArgumentException If game is over
+     */
+    Coordinates nextMove(Game game) throws IllegalArgumentException;
+}
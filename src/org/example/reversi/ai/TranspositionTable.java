@@ -0,0 +1,251 @@
+package org.example.reversi.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size table of search results keyed by position hash, safe for concurrent readers and writers without locks.
+ * <p>
+ * Entries are held in a preallocated {@code long[]}, in buckets of 4 entries of 2 longs each, 64 bytes per bucket:
+ * the key xor the data, then the data. Writes are plain and may interleave, so a reader may find the halves of
+ * two different entries; the xor of both halves then no longer matches the probed key, and the torn entry is
+ * rejected like any other miss.
+ * <p>
+ * Data packs a score, the depth it was searched to, whether it is exact or a lower or upper bound, the best move
+ * as a tile index, and the search age it was stored at. A store replaces the entry of the same position, else
+ * a free one, else the one with the lowest depth, entries of earlier searches counting as shallower.
+ * <p>
+ * Keys are expected to be {@code Game.positionHash()} values, which are uniformly distributed.
+ */
+public final class TranspositionTable {
+    /**
+     * Counters of table usage.
+     *
+     * @param probes Number of probes
+     * @param hits Number of probes finding their position
+     * @param collisions Number of probes missing their position in a bucket holding other positions
+     * @param stores Number of stores
+     * @param overwrites Number of stores replacing an entry of another position
+     */
+    public record Statistics(long probes, long hits, long collisions, long stores, long overwrites) {
+        /**
+         * @return Share of probes finding their position
+         */
+        public double hitRate() {
+            return ( probes == 0 ) ? 0 : (double) hits / probes;
+        }
+    }
+
+    static public final int DEFAULT_MEGABYTES = 16;
+    static public final int MAX_MEGABYTES = 8192; // largest long[] within array limits
+
+    static public final int LOWER = 1; // bound: score is at least stored score
+    static public final int UPPER = 2; // bound: score is at most stored score
+    static public final int EXACT = 3; // bound: score is stored score
+    static public final int NO_MOVE = -1;
+    static public final int MAX_DEPTH = 0xFF; // deeper searches are stored as this deep
+
+    static private final int BUCKET_LONGS = 8; // 4 entries of 2 longs
+    static private final int AGE_WEIGHT = 8; // depth an entry loses per search it is old, when choosing one to replace
+
+    // data layout, from lowest bit: score (32), depth (8), bound (2), age (6), move index plus one (16)
+    static private final int DEPTH_SHIFT = 32;
+    static private final int BOUND_SHIFT = 40;
+    static private final int AGE_SHIFT = 42;
+    static private final int MOVE_SHIFT = 48;
+    static private final int AGE_MASK = 0x3F;
+    static private final int MOVE_MASK = 0xFFFF;
+
+    private final long[] entries;
+    private final int buckets; // power of 2
+
+    private int age; // of current search, read by searching threads after newSearch() happened before them
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder overwrites = new LongAdder();
+
+    /**
+     * Constructs an empty table of at most {@code megabytes}, rounded down to a power of 2.
+     *
+     * @param megabytes Memory budget, in MiB
+     *
+     * @throws IllegalArgumentException If {@code megabytes} is not within [1, {@value #MAX_MEGABYTES}]
+     */
+    public TranspositionTable(int megabytes) throws IllegalArgumentException {
+        if ( megabytes < 1 || megabytes > MAX_MEGABYTES ) throw new IllegalArgumentException();
+
+        this.buckets = Integer.highestOneBit(megabytes) * ( ( 1 << 20 ) / ( BUCKET_LONGS * Long.BYTES ) );
+        this.entries = new long[buckets * BUCKET_LONGS];
+    }
+
+    /**
+     * @param entry Probed entry
+     * @return Stored score
+     */
+    static public int score(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * @param entry Probed entry
+     * @return Depth stored score was searched to, in plies, at most {@value #MAX_DEPTH}
+     */
+    static public int depth(long entry) {
+        return (int) ( entry >>> DEPTH_SHIFT ) & MAX_DEPTH;
+    }
+
+    /**
+     * @param entry Probed entry
+     * @return {@link #LOWER}, {@link #UPPER} or {@link #EXACT}
+     */
+    static public int bound(long entry) {
+        return (int) ( entry >>> BOUND_SHIFT ) & EXACT;
+    }
+
+    /**
+     * @param entry Probed entry
+     * @return Tile index of best move, {@link #NO_MOVE} if none
+     */
+    static public int move(long entry) {
+        return (int) ( entry >>> MOVE_SHIFT ) - 1;
+    }
+
+    // self-explanatory
+    static private int age(long entry) {
+        return (int) ( entry >>> AGE_SHIFT ) & AGE_MASK;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key Position hash
+     * @return Entry of position, to decode with static accessors, {@code 0} if not found
+     */
+    public long probe(long key) {
+        probes.increment();
+
+        var base = bucket(key);
+        var occupied = false;
+        for ( int i = base; i < base + BUCKET_LONGS; i += 2 ) {
+            var check = entries[i];
+            var data = entries[i + 1];
+            if ( data == 0 ) continue; // free, stored data is never 0 as bound is not
+
+            if ( ( check ^ data ) == key ) {
+                hits.increment();
+                return data;
+            }
+            occupied = true;
+        }
+
+        if ( occupied )
+            collisions.increment();
+        return 0;
+    }
+
+    /**
+     * Stores a search result, unless an entry of the same position from the current search is deeper.
+     * <p>
+     * If {@code move} is {@link #NO_MOVE} and the position was stored, its best move is kept.
+     *
+     * @param key Position hash
+     * @param score Score
+     * @param depth Depth {@code score} was searched to, in plies
+     * @param bound {@link #LOWER}, {@link #UPPER} or {@link #EXACT}
+     * @param move Tile index of best move, {@link #NO_MOVE} if none or beyond 65534
+     */
+    public void store(long key, int score, int depth, int bound, int move) {
+        var base = bucket(key);
+        var replaced = base;
+        var worst = Integer.MAX_VALUE;
+        var stored = 0L;
+        var same = false;
+
+        for ( int i = base; i < base + BUCKET_LONGS; i += 2 ) {
+            var check = entries[i];
+            var data = entries[i + 1];
+            if ( data == 0 ) {
+                replaced = i;
+                worst = Integer.MIN_VALUE;
+                break;
+            }
+            if ( ( check ^ data ) == key ) {
+                replaced = i;
+                stored = data;
+                same = true;
+                break;
+            }
+
+            var value = depth(data) - AGE_WEIGHT * ( ( age - age(data) ) & AGE_MASK );
+            if ( value < worst ) {
+                worst = value;
+                replaced = i;
+            }
+        }
+
+        if ( same && age(stored) == age && depth(stored) > depth ) return; // keep deeper result
+        if ( !same && worst != Integer.MIN_VALUE )
+            overwrites.increment();
+
+        var moved = ( move >= 0 && move < MOVE_MASK ) ? move + 1 : 0;
+        if ( moved == 0 && same )
+            moved = (int) ( stored >>> MOVE_SHIFT );
+
+        var data = Integer.toUnsignedLong(score)
+            | (long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT
+            | (long) bound << BOUND_SHIFT
+            | (long) age << AGE_SHIFT
+            | (long) moved << MOVE_SHIFT;
+        entries[replaced] = key ^ data;
+        entries[replaced + 1] = data;
+        stores.increment();
+    }
+
+    /**
+     * Starts a new search, so that entries of earlier ones are replaced first.
+     * <p>
+     * Must happen before searching threads start.
+     */
+    public void newSearch() {
+        age = ( age + 1 ) & AGE_MASK;
+    }
+
+    /**
+     * Removes every entry and resets counters.
+     * <p>
+     * Must not run concurrently with searches.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0);
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+        stores.reset();
+        overwrites.reset();
+    }
+
+    /**
+     * @return Number of entries
+     */
+    public long getCapacity() {
+        return (long) buckets * BUCKET_LONGS / 2;
+    }
+
+    /**
+     * @return Counters since construction or last clear, not an atomic snapshot while searches run
+     */
+    public Statistics getStatistics() {
+        return new Statistics(probes.sum(), hits.sum(), collisions.sum(), stores.sum(), overwrites.sum());
+    }
+
+    /**
+     * @param key Position hash
+     * @return Index of first long of bucket of {@code key}
+     */
+    private int bucket(long key) {
+        return ( (int) key & ( buckets - 1 ) ) * BUCKET_LONGS;
+    }
+}
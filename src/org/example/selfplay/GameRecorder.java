@@ -0,0 +1,112 @@
+package org.example.selfplay;
+
+import org.example.reversi.Game;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Records positions of one game at a time, to append to a {@code PositionWriter} once the game is over.
+ * <p>
+ * The final result of a game is only known at its end, so positions of the game in progress are held in a buffer
+ * of a single game, reused from game to game. The buffer starts at {@code INITIAL_PLIES} positions and doubles
+ * whenever a game outgrows it, so it is sized by the longest game recorded rather than by the board.
+ * Not thread safe, meant to be owned by a worker.
+ */
+public final class GameRecorder {
+    static private final int INITIAL_PLIES = 64;
+
+    private final int width;
+    private final int height;
+    private final int recordBytes;
+    private ByteBuffer buffer;
+    private int index;
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     *
+     * @throws IllegalArgumentException If size does not fit records
+     */
+    public GameRecorder(int width, int height) throws IllegalArgumentException {
+        PositionFormat.checkSize(width, height);
+
+        this.width = width;
+        this.height = height;
+        this.recordBytes = PositionFormat.recordBytes(width, height);
+        this.buffer = ByteBuffer.allocate(recordBytes * Math.min(INITIAL_PLIES, width * height));
+    }
+
+    /**
+     * Clears positions of previous game.
+     *
+     * @param index Index of game
+     */
+    public void start(int index) {
+        this.index = index;
+        buffer.clear();
+    }
+
+    /**
+     * Records current position of {@code game}, before the move scored {@code score} is played.
+     *
+     * @param game Game in progress, of recorder size
+     * @param score Search score of the move about to be played for the player to move, {@code Position.NO_SCORE} if none
+     *
+     * @throws IllegalArgumentException If game size differs
+     */
+    public void record(Game game, int score) throws IllegalArgumentException {
+        if ( game.getWidth() != width || game.getHeight() != height ) throw new IllegalArgumentException("Game size differs from recorder");
+
+        if ( buffer.remaining() < recordBytes ) {
+            var grown = ByteBuffer.allocate(buffer.capacity() * 2);
+            grown.put(buffer.flip());
+            buffer = grown;
+        }
+        PositionFormat.putPosition(buffer, game, index, score);
+    }
+
+    /**
+     * Sets the final result of recorded positions and marks the last one.
+     *
+     * @param game Finished game
+     *
+     * @throws IllegalArgumentException If game is not over
+     */
+    public void finish(Game game) throws IllegalArgumentException {
+        if ( !game.isOver() ) throw new IllegalArgumentException("Game is not over");
+
+        var white = game.getWhite().getScore() - game.getBlack().getScore();
+        for ( int offset = 0; offset < buffer.position(); offset += recordBytes ) {
+            var black = ( buffer.get(offset + PositionFormat.FLAGS_OFFSET) & PositionFormat.BLACK_TO_MOVE ) != 0;
+            buffer.putShort(offset + PositionFormat.RESULT_OFFSET, (short) ( black ? -white : white ));
+        }
+
+        var last = buffer.position() - recordBytes;
+        if ( last >= 0 )
+            buffer.put(last + PositionFormat.FLAGS_OFFSET, (byte) ( buffer.get(last + PositionFormat.FLAGS_OFFSET) | PositionFormat.LAST ));
+    }
+
+    /**
+     * @return Number of recorded positions
+     */
+    public int size() {
+        return buffer.position() / recordBytes;
+    }
+
+    // self-explanatory
+    int getWidth() {
+        return width;
+    }
+
+    // self-explanatory
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Recorded positions, ready to be written
+     */
+    ByteBuffer records() {
+        return buffer.duplicate().flip();
+    }
+}
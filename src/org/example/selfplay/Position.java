@@ -0,0 +1,36 @@
+package org.example.selfplay;
+
+import org.example.reversi.Color;
+import org.example.reversi.Tile;
+
+/**
+ * Position of a self-play game, as read back from a position file.
+ *
+ * @param game Game index
+ * @param ply Turn of position, starting at 1
+ * @param next Color of player to move
+ * @param last Whether position is the last one played in its game
+ * @param result Final disc difference for the player to move
+ * @param score Search score of the move played for the player to move, {@code NO_SCORE} if none
+ * @param tiles Packed tiles, see {@code PositionReader}
+ */
+public record Position(int game, int ply, Color next, boolean last, int result, int score, byte[] tiles) {
+    /**
+     * Score of positions whose move was not chosen by a searching AI.
+     */
+    static public final int NO_SCORE = Integer.MIN_VALUE;
+
+    /**
+     * @param index Row major tile index
+     * @return Tile at {@code index}
+     */
+    public Tile getTile(int index) {
+        var digit = ( tiles[index / 4] >>> ( 6 - 2 * ( index % 4 ) ) ) & 3;
+
+        return switch (digit) {
+            case 0 -> Tile.FREE;
+            case 1 -> Tile.WHITE;
+            default -> Tile.BLACK;
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.selfplay;
+
+import org.example.reversi.Color;
+import org.example.reversi.Game;
+import org.example.reversi.Tile;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary format of self-play position files.
+ * <p>
+ * A file is a header followed by fixed-size records, one per position played, records of a game being contiguous.
+ * Format, big-endian:
+ * <ul>
+ *     <li>header: magic {@code int}, version {@code int}, width {@code int}, height {@code int}, record size {@code int}</li>
+ *     <li>record: game index {@code int}, ply {@code short}, flags {@code byte}, result {@code short}, score {@code int},
+ *     then tiles packed 2 bits each in row major order, {@code 0} free, {@code 1} white, {@code 2} black,
+ *     first tile in the high bits of a byte</li>
+ * </ul>
+ * Flags hold {@code BLACK_TO_MOVE} and {@code LAST}, marking the last position of a game.
+ * Result is the final disc difference for the player to move, score the search score of the move played,
+ * {@code Position.NO_SCORE} if none.
+ *
+ * @see Position
+ */
+final class PositionFormat {
+    static final int MAGIC = 0x52565350; // "RVSP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 20;
+    static final int FIXED_BYTES = 13; // record bytes before tiles
+
+    static final int BLACK_TO_MOVE = 1; // flag
+    static final int LAST = 2; // flag
+
+    // record field offsets
+    static final int GAME_OFFSET = 0;
+    static final int PLY_OFFSET = 4;
+    static final int FLAGS_OFFSET = 6;
+    static final int RESULT_OFFSET = 7;
+    static final int SCORE_OFFSET = 9;
+
+    private PositionFormat() {}
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @return Size of a record, in bytes
+     */
+    static int recordBytes(int width, int height) {
+        return FIXED_BYTES + ( width * height + 3 ) / 4;
+    }
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @return Header of a file, ready to be written
+     */
+    static ByteBuffer header(int width, int height) {
+        return ByteBuffer.allocate(HEADER_BYTES)
+            .putInt(MAGIC)
+            .putInt(VERSION)
+            .putInt(width)
+            .putInt(height)
+            .putInt(recordBytes(width, height))
+            .flip();
+    }
+
+    /**
+     * Puts a record of current position of {@code game}, with its result left to patch once the game ends.
+     *
+     * @param buffer Buffer with room for a record
+     * @param game Game in progress
+     * @param index Game index
+     * @param score Search score of the move about to be played, {@code Position.NO_SCORE} if none
+     */
+    static void putPosition(ByteBuffer buffer, Game game, int index, int score) {
+        buffer.putInt(index)
+            .putShort((short) game.getTurn())
+            .put((byte) ( ( game.getCurrentPlayer().getColor() == Color.BLACK ) ? BLACK_TO_MOVE : 0 ))
+            .putShort((short) 0)
+            .putInt(score);
+
+        var packed = 0;
+        var bits = 0;
+        for ( int y = 0; y < game.getHeight(); y++ )
+            for ( int x = 0; x < game.getWidth(); x++ ) {
+                packed = ( packed << 2 ) | digit(game.getTile(x, y));
+                bits += 2;
+                if ( bits == Byte.SIZE ) {
+                    buffer.put((byte) packed);
+                    packed = 0;
+                    bits = 0;
+                }
+            }
+        if ( bits > 0 )
+            buffer.put((byte) ( packed << ( Byte.SIZE - bits ) ));
+    }
+
+    /**
+     * @param width Board width
+     * @param height Board height
+     * @throws IllegalArgumentException If plies or disc differences of size do not fit a record
+     */
+    static void checkSize(int width, int height) throws IllegalArgumentException {
+        if ( width < 1 || height < 1 || (long) width * height > Short.MAX_VALUE ) throw new IllegalArgumentException(String.format("Unsupported size: %d x %d", width, height));
+    }
+
+    // self-explanatory
+    static private int digit(Tile tile) {
+        return switch (tile) {
+            case FREE -> 0;
+            case WHITE -> 1;
+            case BLACK -> 2;
+        };
+    }
+}
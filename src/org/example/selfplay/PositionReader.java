@@ -0,0 +1,123 @@
+package org.example.selfplay;
+
+import org.example.reversi.Color;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Sequential reader of a self-play position file, streaming its records through a buffer.
+ * <p>
+ * Tiles of a position are packed 2 bits each in row major order, first tile in the high bits of a byte,
+ * {@code 0} free, {@code 1} white, {@code 2} black; {@code Position.getTile} unpacks them.
+ *
+ * @see PositionWriter
+ */
+public final class PositionReader implements AutoCloseable {
+    static private final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final int width;
+    private final int height;
+    private final int recordBytes;
+    private final ByteBuffer buffer;
+
+    /**
+     * @param channel Channel positioned after header
+     * @param width Board width
+     * @param height Board height
+     */
+    private PositionReader(FileChannel channel, int width, int height) {
+        this.channel = channel;
+        this.width = width;
+        this.height = height;
+        this.recordBytes = PositionFormat.recordBytes(width, height);
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER_BYTES / recordBytes, 1) * recordBytes).flip();
+    }
+
+    /**
+     * Opens a position file.
+     *
+     * @param path Position file
+     * @return Reader, to close once done
+     *
+     * @throws IOException If file cannot be read or is not a position file
+     */
+    static public PositionReader open(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            var header = ByteBuffer.allocate(PositionFormat.HEADER_BYTES);
+            while ( header.hasRemaining() && channel.read(header) >= 0 );
+            header.flip();
+            if ( header.remaining() < PositionFormat.HEADER_BYTES ) throw new IOException(String.format("Not a position file: %s", path));
+            if ( header.getInt() != PositionFormat.MAGIC || header.getInt() != PositionFormat.VERSION ) throw new IOException(String.format("Not a position file: %s", path));
+
+            var width = header.getInt();
+            var height = header.getInt();
+            if ( header.getInt() != PositionFormat.recordBytes(width, height) ) throw new IOException(String.format("Invalid record size: %s", path));
+
+            return new PositionReader(channel, width, height);
+        }
+        catch ( IOException | RuntimeException e ) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Board width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return Board height
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Reads next position.
+     *
+     * @return Next position, empty at end of file or before a trailing partial record
+     *
+     * @throws IOException If file cannot be read
+     */
+    public Optional<Position> next() throws IOException {
+        if ( buffer.remaining() < recordBytes ) {
+            buffer.compact();
+            while ( buffer.hasRemaining() && channel.read(buffer) > 0 );
+            buffer.flip();
+            if ( buffer.remaining() < recordBytes ) return Optional.empty();
+        }
+
+        var game = buffer.getInt();
+        var ply = buffer.getShort();
+        var flags = buffer.get();
+        var result = buffer.getShort();
+        var score = buffer.getInt();
+        var tiles = new byte[recordBytes - PositionFormat.FIXED_BYTES];
+        buffer.get(tiles);
+
+        return Optional.of(new Position(
+            game,
+            ply,
+            ( ( flags & PositionFormat.BLACK_TO_MOVE ) != 0 ) ? Color.BLACK : Color.WHITE,
+            ( flags & PositionFormat.LAST ) != 0,
+            result,
+            score,
+            tiles
+        ));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
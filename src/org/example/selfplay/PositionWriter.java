@@ -0,0 +1,277 @@
+package org.example.selfplay;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Append-only writer of self-play position files, rotating to a new file past a size.
+ * <p>
+ * Files are named {@code PREFIX-NNNNN.positions} in a directory. Games are appended whole through a buffer, so a crash
+ * leaves at most the last game of the last file partially written: on opening, existing files are scanned, any partial
+ * game is truncated and completed games are remembered so that an interrupted run resumes where it stopped.
+ * Thread safe.
+ *
+ * @see PositionFormat
+ */
+public final class PositionWriter implements AutoCloseable {
+    static private final int BUFFER_BYTES = 1 << 20;
+    static private final String SUFFIX = ".positions";
+
+    private final Path directory;
+    private final String prefix;
+    private final int width;
+    private final int height;
+    private final int recordBytes;
+    private final long rotateBytes;
+    private final BitSet completed = new BitSet();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+
+    private FileChannel channel;
+    private int fileNumber;
+    private long fileBytes; // written and buffered
+    private long games;
+    private long positions;
+
+    /**
+     * Opens the position files of {@code prefix} in {@code directory}, resuming after their last complete game.
+     *
+     * @param directory Directory of files, created if missing
+     * @param prefix File name prefix
+     * @param width Board width
+     * @param height Board height
+     * @param rotateBytes Size past which a new file is started
+     *
+     * @throws IllegalArgumentException If size does not fit records or {@code rotateBytes} is not positive
+     * @throws IOException If files cannot be read or written, or are not position files of this size
+     */
+    public PositionWriter(Path directory, String prefix, int width, int height, long rotateBytes) throws IllegalArgumentException, IOException {
+        PositionFormat.checkSize(width, height);
+        if ( rotateBytes < 1 ) throw new IllegalArgumentException("Rotation size must be positive");
+
+        this.directory = directory;
+        this.prefix = prefix;
+        this.width = width;
+        this.height = height;
+        this.recordBytes = PositionFormat.recordBytes(width, height);
+        this.rotateBytes = rotateBytes;
+
+        Files.createDirectories(directory);
+        var existing = list(directory, prefix);
+        for ( var path : existing )
+            fileBytes = resume(path);
+
+        if ( existing.isEmpty() )
+            open(0);
+        else {
+            fileNumber = existing.size() - 1;
+            channel = FileChannel.open(existing.get(fileNumber), StandardOpenOption.WRITE);
+            channel.position(fileBytes);
+            if ( fileBytes >= rotateBytes )
+                rotate();
+        }
+    }
+
+    /**
+     * @param directory Directory of files
+     * @param prefix File name prefix
+     * @return Position files of {@code prefix}, by number
+     *
+     * @throws IOException If directory cannot be listed or numbers have gaps
+     */
+    static public List<Path> list(Path directory, String prefix) throws IOException {
+        var pattern = Pattern.compile(Pattern.quote(prefix) + "-(\\d{5})" + Pattern.quote(SUFFIX));
+        var files = new ArrayList<Path>();
+
+        try (
+            var paths = Files.list(directory)
+        ) {
+            paths.filter(p -> pattern.matcher(p.getFileName().toString()).matches())
+                .sorted()
+                .forEach(files::add);
+        }
+        for ( int i = 0; i < files.size(); i++ )
+            if ( !files.get(i).getFileName().toString().equals(name(prefix, i)) ) throw new IOException(String.format("Missing position file: %s", name(prefix, i)));
+
+        return files;
+    }
+
+    // self-explanatory
+    static private String name(String prefix, int number) {
+        return String.format("%s-%05d%s", prefix, number, SUFFIX);
+    }
+
+    /**
+     * Scans an existing file, remembering its completed games and truncating what follows the last one.
+     *
+     * @param path Position file
+     * @return Size of file after truncation
+     *
+     * @throws IOException If file cannot be read or is not a position file of this size
+     */
+    private long resume(Path path) throws IOException {
+        try (
+            var file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+        ) {
+            if ( file.size() < PositionFormat.HEADER_BYTES ) {
+                // crashed while creating file
+                file.truncate(0);
+                file.write(PositionFormat.header(width, height));
+                return PositionFormat.HEADER_BYTES;
+            }
+
+            var header = ByteBuffer.allocate(PositionFormat.HEADER_BYTES);
+            while ( header.hasRemaining() )
+                file.read(header);
+            header.flip();
+            if ( header.getInt() != PositionFormat.MAGIC || header.getInt() != PositionFormat.VERSION ) throw new IOException(String.format("Not a position file: %s", path));
+            if ( header.getInt() != width || header.getInt() != height || header.getInt() != recordBytes ) throw new IOException(String.format("Board size differs: %s", path));
+
+            var end = (long) PositionFormat.HEADER_BYTES; // after last complete game
+            var offset = end;
+            var records = ByteBuffer.allocate(BUFFER_BYTES / recordBytes * recordBytes);
+            while ( file.read(records) > 0 || records.position() > 0 ) {
+                records.flip();
+                var whole = records.remaining() - records.remaining() % recordBytes;
+                if ( whole == 0 ) break; // trailing partial record
+
+                for ( int i = 0; i < whole; i += recordBytes ) {
+                    offset += recordBytes;
+                    positions++;
+                    if ( ( records.get(i + PositionFormat.FLAGS_OFFSET) & PositionFormat.LAST ) != 0 ) {
+                        completed.set(records.getInt(i + PositionFormat.GAME_OFFSET));
+                        games++;
+                        end = offset;
+                    }
+                }
+                records.position(whole);
+                records.compact();
+            }
+
+            positions -= ( offset - end ) / recordBytes; // of partial game
+            file.truncate(end);
+            return end;
+        }
+    }
+
+    /**
+     * Opens a new file.
+     *
+     * @param number File number
+     * @throws IOException If file cannot be created
+     */
+    private void open(int number) throws IOException {
+        fileNumber = number;
+        channel = FileChannel.open(directory.resolve(name(prefix, number)), StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+        channel.write(PositionFormat.header(width, height));
+        fileBytes = PositionFormat.HEADER_BYTES;
+    }
+
+    /**
+     * Flushes and closes current file and opens the next one.
+     *
+     * @throws IOException If files cannot be written
+     */
+    private void rotate() throws IOException {
+        flush();
+        channel.force(false);
+        channel.close();
+        open(fileNumber + 1);
+    }
+
+    /**
+     * Writes buffered games to current file, bounding what a crash loses.
+     *
+     * @throws IOException If file cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while ( buffer.hasRemaining() )
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * @param game Game index
+     * @return Whether game was completed by this writer or a previous run
+     */
+    public synchronized boolean isCompleted(int game) {
+        return completed.get(game);
+    }
+
+    /**
+     * @return Number of completed games, including previous runs
+     */
+    public synchronized long getGames() {
+        return games;
+    }
+
+    /**
+     * @return Number of positions of completed games, including previous runs
+     */
+    public synchronized long getPositions() {
+        return positions;
+    }
+
+    /**
+     * @return Number of current file
+     */
+    public synchronized int getFileNumber() {
+        return fileNumber;
+    }
+
+    /**
+     * Appends the finished game of {@code recorder}, rotating files if current one grew past rotation size.
+     *
+     * @param recorder Recorder of a finished game
+     *
+     * @throws IllegalArgumentException If recorder size differs or its game is empty
+     * @throws IOException If file cannot be written
+     */
+    public synchronized void append(GameRecorder recorder) throws IllegalArgumentException, IOException {
+        if ( recorder.getWidth() != width || recorder.getHeight() != height ) throw new IllegalArgumentException("Recorder size differs from writer");
+        if ( recorder.size() == 0 ) throw new IllegalArgumentException("Empty game");
+
+        var records = recorder.records();
+        var last = records.limit() - recordBytes;
+        if ( ( records.get(last + PositionFormat.FLAGS_OFFSET) & PositionFormat.LAST ) == 0 ) throw new IllegalArgumentException("Game is not finished");
+
+        if ( records.remaining() > buffer.remaining() )
+            flush();
+        if ( records.remaining() > buffer.remaining() )
+            while ( records.hasRemaining() )
+                channel.write(records); // larger than buffer
+        else
+            buffer.put(records);
+
+        completed.set(records.getInt(last + PositionFormat.GAME_OFFSET));
+        games++;
+        positions += recorder.size();
+        fileBytes += recorder.size() * (long) recordBytes;
+        if ( fileBytes >= rotateBytes )
+            rotate();
+    }
+
+    /**
+     * Flushes buffered games and closes current file.
+     *
+     * @throws IOException If file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+            channel.force(false);
+        }
+        finally {
+            channel.close();
+        }
+    }
+}
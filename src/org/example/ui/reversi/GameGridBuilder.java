@@ -14,7 +14,7 @@ import java.util.stream.IntStream;
     The previous implementation using String.format with Collectors.joining was unacceptably slow as it would overflow the JVM String pool for large grids.
     Note that even using a more efficient grid builder, large console IO itself seems to be a significant bottleneck.
  */
-class GameGridBuilder {
+public class GameGridBuilder {
     static private final int SPACE = " ".codePointAt(0);
 
     private final StringBuilder builder;
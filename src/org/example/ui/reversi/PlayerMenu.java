@@ -1,64 +1,198 @@
 package org.example.ui.reversi;
 
+import org.example.reversi.Color;
+import org.example.reversi.ai.BookAI;
+import org.example.reversi.ai.Evaluation;
+import org.example.reversi.ai.MonteCarloAI;
+import org.example.reversi.ai.OpeningBook;
+import org.example.reversi.ai.ParallelSearchAI;
+import org.example.reversi.ai.PatternEvaluator;
+import org.example.reversi.ai.RandomAI;
+import org.example.reversi.ai.SearchAI;
+import org.example.reversi.ai.Strategy;
 import org.example.ui.UserInterfaceSubordinate;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Player menu component of {@code StartMenu}.
+ * <p>
+ * AIs are built on first use, so browsing the menu allocates no search resources,
+ * and closed when their choice is replaced or the game ends.
  */
 class PlayerMenu extends UserInterfaceSubordinate {
-    static private final boolean DEFAULT_AI_WHITE = true;
-    static private final boolean DEFAULT_AI_BLACK = true;
+    static private final String DEFAULT_WHITE = "r";
+    static private final String DEFAULT_BLACK = "r";
+
+    static private final Duration SEARCH_BUDGET = Duration.ofSeconds(1); // per move
+    static private final Path BOOK_PATH = Path.of("reversi.book"); // opening book consulted by searching AI, if present
+    static private final Path PATTERNS_PATH = Path.of("reversi.patterns"); // pattern weights of searching AI, if present
 
     static private final Map<String, String> PLAYER_MENU;
 
     static {
-        PLAYER_MENU = new LinkedHashMap<>(2, 1.0f);
+        PLAYER_MENU = new LinkedHashMap<>(5, 1.0f);
         PLAYER_MENU.put("h", "Human");
-        PLAYER_MENU.put("a", "AI");
+        PLAYER_MENU.put("r", "Random AI");
+        PLAYER_MENU.put("s", "Search AI");
+        PLAYER_MENU.put("p", "Parallel search AI");
+        PLAYER_MENU.put("m", "Monte Carlo AI");
     }
 
-    private boolean whiteAIActive;
-    private boolean blackAIActive;
+    static private final OpeningBook BOOK = openBook(); // null if none
+    static private final Evaluation EVALUATION = loadEvaluation();
+
+    private String white; // menu choice for white
+    private String black; // menu choice for black
+
+    private Strategy whiteAI; // null if human or not built yet
+    private Strategy blackAI; // null if human or not built yet
 
     public PlayerMenu(UserInterface main) {
         super(main);
-        whiteAIActive = DEFAULT_AI_WHITE;
-        blackAIActive = DEFAULT_AI_BLACK;
+        setWhite(DEFAULT_WHITE);
+        setBlack(DEFAULT_BLACK);
     }
 
     /**
-     * @return {@code true} if white AI is set active, {@code false} otherwise
+     * Builds the AI set for {@code color} on first call.
+     *
+     * @param color Color
+     * @return AI set for {@code color}, empty if human controlled
+     */
+    public Optional<Strategy> getAI(Color color) {
+        if ( color == Color.WHITE ) {
+            if ( whiteAI == null )
+                whiteAI = buildAI(white);
+            return Optional.ofNullable(whiteAI);
+        }
+        else {
+            if ( blackAI == null )
+                blackAI = buildAI(black);
+            return Optional.ofNullable(blackAI);
+        }
+    }
+
+    /**
+     * Closes AIs built so far, releasing their threads and tables; they are built again on next use.
+     *
+     * @throws IllegalStateException If closing fails
      */
-    public boolean isWhiteAIActive() {
-        return whiteAIActive;
+    public void closeAIs() throws IllegalStateException {
+        close(whiteAI);
+        whiteAI = null;
+        close(blackAI);
+        blackAI = null;
     }
 
     /**
-     * @return {@code true} if black AI is set active, {@code false} otherwise
+     * @param color Color
+     * @return Description of player set for {@code color}
      */
-    public boolean isBlackAIActive() {
-        return blackAIActive;
+    public String getDescription(Color color) {
+        return PLAYER_MENU.get(( color == Color.WHITE ) ? white : black);
     }
 
     /**
-     * Prompts user to set white and black AI settings.
+     * Prompts user to set white and black players.
      */
     public void prompt() {
-        whiteAIActive = promptPlayerAI("Configure white" + System.lineSeparator());
-        blackAIActive = promptPlayerAI("Configure black" + System.lineSeparator());
+        setWhite(promptUntilMenuChoice("Configure white" + System.lineSeparator(), PLAYER_MENU));
+        setBlack(promptUntilMenuChoice("Configure black" + System.lineSeparator(), PLAYER_MENU));
+    }
+
+    // self-explanatory
+    private void setWhite(String choice) {
+        close(whiteAI);
+        white = choice;
+        whiteAI = null;
+    }
+
+    // self-explanatory
+    private void setBlack(String choice) {
+        close(blackAI);
+        black = choice;
+        blackAI = null;
     }
 
     /**
-     * Prompts for a player AI setting.
+     * @param ai AI, {@code null} if none
      *
-     * @param prompt Prompt to display
-     * @return {@code true} for AI controlled, {@code false} otherwise
+     * @throws IllegalStateException If closing fails
+     */
+    static private void close(Strategy ai) throws IllegalStateException {
+        try {
+            if ( ai instanceof AutoCloseable closeable )
+                closeable.close();
+        }
+        catch ( Exception e ) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param choice Menu choice
+     * @return AI for {@code choice}, {@code null} if human
      */
-    private boolean promptPlayerAI(String prompt) {
-        var choice = promptUntilMenuChoice(prompt, PLAYER_MENU);
-        return ( choice.equals("a") );
+    static private Strategy buildAI(String choice) {
+        return switch (choice) {
+            case "r" -> RandomAI::nextMove;
+            case "s" -> withBook(new SearchAI(SEARCH_BUDGET, Long.MAX_VALUE, SearchAI.ENDGAME_FREE, EVALUATION));
+            case "p" -> withBook(new ParallelSearchAI(
+                SEARCH_BUDGET, Long.MAX_VALUE, Runtime.getRuntime().availableProcessors(), SearchAI.ENDGAME_FREE, EVALUATION
+            ));
+            case "m" -> withBook(new MonteCarloAI(SEARCH_BUDGET, Runtime.getRuntime().availableProcessors()));
+            default -> null;
+        };
+    }
+
+    /**
+     * @param ai Searching AI
+     * @return {@code ai} consulting opening book first, {@code ai} itself if no book
+     */
+    static private Strategy withBook(Strategy ai) {
+        return ( BOOK != null ) ? new BookAI(BOOK, ai) : ai;
+    }
+
+    /**
+     * @return Opening book at {@code BOOK_PATH}, {@code null} if absent or unreadable
+     */
+    static private OpeningBook openBook() {
+        OpeningBook book = null;
+
+        if ( Files.isRegularFile(BOOK_PATH) ) {
+            try {
+                book = OpeningBook.open(BOOK_PATH);
+            }
+            catch ( IOException e ) {
+                System.err.printf("Opening book ignored: %s%n", e.getMessage());
+            }
+        }
+
+        return book;
+    }
+
+    /**
+     * @return Pattern evaluation weighted from {@code PATTERNS_PATH}, heuristic evaluation if absent or unreadable
+     */
+    static private Evaluation loadEvaluation() {
+        Evaluation evaluation = Evaluation.HEURISTIC;
+
+        if ( Files.isRegularFile(PATTERNS_PATH) ) {
+            try {
+                evaluation = PatternEvaluator.load(PATTERNS_PATH);
+            }
+            catch ( IOException e ) {
+                System.err.printf("Pattern weights ignored: %s%n", e.getMessage());
+            }
+        }
+
+        return evaluation;
     }
 }
@@ -1,5 +1,6 @@
 package org.example.ui.reversi;
 
+import org.example.reversi.Color;
 import org.example.ui.UserInterfaceSubordinate;
 
 import java.util.LinkedHashMap;
@@ -95,7 +96,7 @@ class StartMenu extends UserInterfaceSubordinate {
                     Display: Grid %s Turn %s
                     """,
                 sizeMenu.getWidth(), sizeMenu.getHeight(),
-                playerMenu.isWhiteAIActive() ? "AI" : "Human", playerMenu.isBlackAIActive() ? "AI" : "Human",
+                playerMenu.getDescription(Color.WHITE), playerMenu.getDescription(Color.BLACK),
                 tileMapMenu.getTileMap().values().stream()
                     .map(s -> String.format("%s ", s))
                     .collect(Collectors.joining()),
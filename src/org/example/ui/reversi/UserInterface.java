@@ -3,7 +3,15 @@ package org.example.ui.reversi;
 import org.example.board.ordinal.Coordinates;
 import org.example.reversi.Color;
 import org.example.reversi.Game;
-import org.example.reversi.ai.RandomAI;
+import org.example.reversi.MoveProbe;
+import org.example.reversi.ai.BookAI;
+import org.example.reversi.ai.EndgameSolver;
+import org.example.reversi.ai.MonteCarloAI;
+import org.example.reversi.ai.ParallelSearchAI;
+import org.example.reversi.ai.SearchAI;
+import org.example.reversi.ai.Strategy;
+
+import java.util.Optional;
 
 /**
  * Simple text interface for Reversi.
@@ -24,7 +32,7 @@ public class UserInterface extends org.example.ui.UserInterface {
     }
 
     /**
-     * Starts user interface and returns upon game end.
+     * Starts user interface and returns upon game end, once AIs are closed.
      */
     public void start() {
         displayStartupMessage();
@@ -35,7 +43,12 @@ public class UserInterface extends org.example.ui.UserInterface {
             startMenu.getSizeMenu().getWidth(),
             startMenu.getSizeMenu().getHeight()
         );
-        inputLoop();
+        try {
+            inputLoop();
+        }
+        finally {
+            startMenu.getPlayerMenu().closeAIs();
+        }
 
         displayFinalState();
     }
@@ -62,6 +75,62 @@ public class UserInterface extends org.example.ui.UserInterface {
         System.out.printf("Move: [%d, %d]%n", move.x(), move.y());
     }
 
+    /**
+     * Displays search statistics of an AI move.
+     * Called for every iteration of {@code inputLoop} where a searching AI selected the move.
+     *
+     * @param report Search report
+     *
+     * @see #inputLoop()
+     */
+    private void displaySearchReport(SearchAI.Report report) {
+        System.out.printf(
+            "Search: depth %d score %d nodes %,d (%,d nodes/s)%n",
+            report.depth(), report.score(), report.nodes(), report.nodesPerSecond()
+        );
+    }
+
+    /**
+     * Displays solver statistics of an AI move.
+     * Called for every iteration of {@code inputLoop} where a searching AI solved the position.
+     *
+     * @param report Endgame solver report
+     *
+     * @see #inputLoop()
+     */
+    private void displayEndgameReport(EndgameSolver.Report report) {
+        System.out.printf(
+            "Endgame: %s score %d free %d nodes %,d in %.1f ms (%,d nodes/s)%n",
+            report.exact() ? "exact" : "win/loss/draw", report.score(), report.free(),
+            report.nodes(), report.nanos() / 1e6, report.nodesPerSecond()
+        );
+    }
+
+    /**
+     * Displays that an AI move was taken from the opening book.
+     * Called for every iteration of {@code inputLoop} where a {@code BookAI} played a book move.
+     *
+     * @see #inputLoop()
+     */
+    private void displayBookMove() {
+        System.out.println("Book move");
+    }
+
+    /**
+     * Displays playout statistics of an AI move.
+     * Called for every iteration of {@code inputLoop} where a {@code MonteCarloAI} selected the move.
+     *
+     * @param report Monte Carlo report
+     *
+     * @see #inputLoop()
+     */
+    private void displayMonteCarloReport(MonteCarloAI.Report report) {
+        System.out.printf(
+            "Monte Carlo: visits %,d win rate %.1f%% playouts %,d (%,d playouts/s)%n",
+            report.visits(), report.winRate() * 100, report.playouts(), report.playoutsPerSecond()
+        );
+    }
+
     /**
      * Displays game state as indexed grid, turn count and score.
      *
@@ -122,52 +191,97 @@ public class UserInterface extends org.example.ui.UserInterface {
             if ( startMenu.getDisplayMenu().isTurnDisplay() )
                 displayTurnState();
 
-            Coordinates nextMove = queryNextMove();
-            if ( startMenu.getDisplayMenu().isTurnDisplay() )
-                displaySelectedMove(nextMove);
+            MoveProbe nextMove = queryNextMove();
+            if ( startMenu.getDisplayMenu().isTurnDisplay() ) {
+                displaySelectedMove(nextMove.getMove());
+                var ai = startMenu.getPlayerMenu().getAI(game.getCurrentPlayer().getColor());
+                if ( ai.filter(BookAI.class::isInstance).filter(a -> ( (BookAI) a ).isLastFromBook()).isPresent() )
+                    displayBookMove();
+                else {
+                    var searcher = ai.map(UserInterface::unwrapBook);
+                    var endgame = searcher.flatMap(UserInterface::endgameReport);
+                    endgame.ifPresent(this::displayEndgameReport);
+                    searcher.filter(a -> endgame.isEmpty())
+                        .flatMap(UserInterface::searchReport)
+                        .ifPresent(this::displaySearchReport);
+                    searcher.filter(MonteCarloAI.class::isInstance)
+                        .map(a -> ( (MonteCarloAI) a ).getLastReport())
+                        .ifPresent(this::displayMonteCarloReport);
+                }
+            }
 
             game.nextMove(nextMove);
         } while ( !game.isOver() );
     }
 
     /**
-     * Queries either human or AI for the next move depending on the {@code aiActive} status for current player's {@code Color}.
+     * Queries either human or AI for the next move depending on the player set for current player's {@code Color}.
      *
-     * @return Coordinates of next move
+     * @return Probe of next move, to perform without checking it again
      */
-    private Coordinates queryNextMove() {
-        Coordinates nextMove;
+    private MoveProbe queryNextMove() {
+        return startMenu.getPlayerMenu().getAI(game.getCurrentPlayer().getColor())
+            .map(ai -> game.probe(ai.nextMove(game)))
+            .orElseGet(this::promptForNextMoveUntilValid);
+    }
 
-        if (
-            game.getCurrentPlayer().getColor() == Color.WHITE && startMenu.getPlayerMenu().isWhiteAIActive()
-                || game.getCurrentPlayer().getColor() == Color.BLACK && startMenu.getPlayerMenu().isBlackAIActive()
-        ) {
-            nextMove = RandomAI.nextMove(game); // demo only supports RandomAI
-        }
-        else {
-            nextMove = promptForNextMoveUntilValid();
-        }
+    /**
+     * @param ai AI
+     * @return Fallback of {@code ai} if it consults an opening book, {@code ai} otherwise
+     */
+    static private Strategy unwrapBook(Strategy ai) {
+        return ( ai instanceof BookAI book ) ? book.getFallback() : ai;
+    }
+
+    /**
+     * @param ai AI
+     * @return Report of last solve of {@code ai}, empty if it does not search or did not solve last move
+     */
+    static private Optional<EndgameSolver.Report> endgameReport(Strategy ai) {
+        EndgameSolver.Report report;
+        if ( ai instanceof SearchAI search )
+            report = search.getLastEndgameReport();
+        else if ( ai instanceof ParallelSearchAI search )
+            report = search.getLastEndgameReport();
+        else
+            report = null;
+
+        return Optional.ofNullable(report);
+    }
+
+    /**
+     * @param ai AI
+     * @return Report of last search of {@code ai}, empty if it does not search
+     */
+    static private Optional<SearchAI.Report> searchReport(Strategy ai) {
+        SearchAI.Report report;
+        if ( ai instanceof SearchAI search )
+            report = search.getLastReport();
+        else if ( ai instanceof ParallelSearchAI search )
+            report = search.getLastReport();
+        else
+            report = null;
 
-        return nextMove;
+        return Optional.ofNullable(report);
     }
 
     /**
      * Prompts for a move until a valid move for the current game state is input.
      *
-     * @return Coordinates of a valid move.
+     * @return Probe of a valid move.
      */
-    private Coordinates promptForNextMoveUntilValid() {
-        Coordinates move;
+    private MoveProbe promptForNextMoveUntilValid() {
+        MoveProbe probe;
 
         System.out.println("Please input next move");
-        move = promptForNextMove();
+        probe = game.probe(promptForNextMove());
 
-        while ( !game.isValidMove(move) ) {
-            System.out.printf("[%d, %d] is not a valid move%n", move.x(), move.y());
-            move = promptForNextMove();
+        while ( !probe.isValid() ) {
+            System.out.printf("[%d, %d] is not a valid move%n", probe.getMove().x(), probe.getMove().y());
+            probe = game.probe(promptForNextMove());
         }
 
-        return move;
+        return probe;
     }
 
     /**